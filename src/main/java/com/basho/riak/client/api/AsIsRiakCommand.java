@@ -29,8 +29,15 @@ public abstract class AsIsRiakCommand<R, I> extends RiakCommand<R, I>
     protected abstract FutureOperation<R, ?, I> buildCoreOperation();
 
     protected RiakFuture<R,I> executeAsync(RiakCluster cluster)
+    {
+        return executeAsync(cluster, 0);
+    }
+
+    @Override
+    protected RiakFuture<R,I> executeAsync(RiakCluster cluster, int deadlineInMillis)
     {
         final FutureOperation<R, ?, I> coreOperation = buildCoreOperation();
+        coreOperation.setDeadline(deadlineInMillis);
 
         return cluster.execute(coreOperation);
     }
@@ -37,9 +37,16 @@ public abstract class GenericRiakCommand<R, I, CoreR, CoreI> extends RiakCommand
     protected abstract FutureOperation<CoreR, ?, CoreI> buildCoreOperation();
 
     protected RiakFuture<R,I> executeAsync(RiakCluster cluster)
+    {
+        return executeAsync(cluster, 0);
+    }
+
+    @Override
+    protected RiakFuture<R,I> executeAsync(RiakCluster cluster, int deadlineInMillis)
     {
         final FutureOperation<CoreR, ?, CoreI> coreOperation = buildCoreOperation();
         assert coreOperation != null;
+        coreOperation.setDeadline(deadlineInMillis);
 
         final RiakFuture<CoreR, CoreI> coreFuture = cluster.execute(coreOperation);
 
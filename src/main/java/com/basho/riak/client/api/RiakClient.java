@@ -27,6 +27,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -404,6 +405,65 @@ public class RiakClient
         return command.executeAsync(cluster);
     }
 
+    /**
+     * Execute a RiakCommand asynchronously with a client-side deadline.
+     * <p>
+     * Unlike the timeout given to {@link RiakFuture#get(long, TimeUnit)}, which only
+     * bounds how long the caller waits, the deadline bounds each attempt of the
+     * operation. If Riak hasn't replied in time the connection is closed and
+     * the attempt fails with a {@link java.util.concurrent.TimeoutException},
+     * after which it is retried if attempts remain. This overrides the default
+     * set with {@link com.basho.riak.client.core.RiakNode.Builder#withOperationDeadline(int)}.
+     * </p>
+     * @param <T> RiakCommand's return type.
+     * @param <S> The RiakCommand's query info type.
+     * @param command The RiakCommand to execute.
+     * @param deadlineInMillis The deadline for each attempt in milliseconds.
+     * @return a RiakFuture for the operation.
+     * @since 2.1.2
+     * @see RiakFuture
+     */
+    public <T,S> RiakFuture<T,S> executeAsync(RiakCommand<T,S> command, int deadlineInMillis)
+    {
+        return command.executeAsync(cluster, deadlineInMillis);
+    }
+
+    /**
+     * Execute a RiakCommand asynchronously, returning a CompletionStage.
+     * <p>
+     * The stage is completed directly by the operation, so composing on it
+     * doesn't tie up a thread waiting for the result. Dependent actions that
+     * aren't given an executor run on the thread that completes the operation,
+     * which may be a Netty I/O thread; they should not block.
+     * </p>
+     * @param <T> RiakCommand's return type.
+     * @param <S> The RiakCommand's query info type.
+     * @param command The RiakCommand to execute.
+     * @return a CompletionStage for the operation.
+     * @since 2.1.2
+     * @see RiakFuture#toCompletionStage()
+     */
+    public <T,S> CompletionStage<T> executeAsyncStage(RiakCommand<T,S> command)
+    {
+        return command.executeAsync(cluster).toCompletionStage();
+    }
+
+    /**
+     * Execute a RiakCommand asynchronously with a client-side deadline,
+     * returning a CompletionStage.
+     * @param <T> RiakCommand's return type.
+     * @param <S> The RiakCommand's query info type.
+     * @param command The RiakCommand to execute.
+     * @param deadlineInMillis The deadline for each attempt in milliseconds.
+     * @return a CompletionStage for the operation.
+     * @since 2.1.2
+     * @see #executeAsync(RiakCommand, int)
+     */
+    public <T,S> CompletionStage<T> executeAsyncStage(RiakCommand<T,S> command, int deadlineInMillis)
+    {
+        return command.executeAsync(cluster, deadlineInMillis).toCompletionStage();
+    }
+
     /**
      * Execute a StreamableRiakCommand asynchronously, and stream the results back before
      * the command {@link RiakFuture#isDone() is done}.
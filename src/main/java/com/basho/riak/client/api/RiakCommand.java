@@ -101,5 +101,22 @@ public abstract class RiakCommand<T, S>
     }
 
     protected abstract RiakFuture<T, S> executeAsync(RiakCluster cluster);
+
+    /**
+     * Execute this command with a client-side deadline for each attempt.
+     * <p>
+     * Commands composed of several operations don't override this and use the
+     * nodes' default deadline.
+     * </p>
+     * @param cluster the cluster to execute against
+     * @param deadlineInMillis the deadline in milliseconds. 0 uses the nodes' default.
+     * @return a future for the command
+     * @since 2.1.2
+     * @see com.basho.riak.client.core.RiakNode.Builder#withOperationDeadline(int)
+     */
+    protected RiakFuture<T, S> executeAsync(RiakCluster cluster, int deadlineInMillis)
+    {
+        return executeAsync(cluster);
+    }
 }
 
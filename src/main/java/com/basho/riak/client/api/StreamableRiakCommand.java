@@ -19,6 +19,7 @@ package com.basho.riak.client.api;
 import com.basho.riak.client.api.commands.ChunkedResponseIterator;
 import com.basho.riak.client.api.commands.ImmediateCoreFutureAdapter;
 import com.basho.riak.client.core.*;
+import org.reactivestreams.Publisher;
 
 import java.util.Iterator;
 
@@ -75,6 +76,45 @@ public abstract class StreamableRiakCommand<R extends StreamableRiakCommand.Stre
             return chunkedResponseIterator != null;
         }
 
+        /**
+         * Stops a streaming response early.
+         * <p>
+         * The connection the results were streaming over is closed and any
+         * results not yet consumed are discarded; the iterator then has no
+         * more elements.
+         * </p>
+         *
+         * @return false if the response isn't streaming or was already complete.
+         * @since 2.1.2
+         */
+        public boolean cancel()
+        {
+            return isStreaming() && chunkedResponseIterator.cancel();
+        }
+
+        /**
+         * Get a Publisher of the result data.
+         * <p>
+         * An alternative to {@link #iterator()} for the streaming API; use
+         * one or the other. Reading from Riak is paused while the subscriber
+         * has no outstanding demand, so a slow subscriber doesn't cause the
+         * results to be buffered in memory.
+         * </p>
+         *
+         * @return a single-subscriber Publisher of the results.
+         * @since 2.1.2
+         * @see ChunkedResponseIterator#toPublisher()
+         */
+        public Publisher<T> toPublisher()
+        {
+            if (isStreaming())
+            {
+                return chunkedResponseIterator.toPublisher();
+            }
+
+            throw new UnsupportedOperationException("A publisher is only supported for streamable response");
+        }
+
         /**
          * Get an iterator over the result data.
          *
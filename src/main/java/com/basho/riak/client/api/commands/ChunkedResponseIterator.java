@@ -16,8 +16,10 @@
 
 package com.basho.riak.client.api.commands;
 
+import com.basho.riak.client.core.StreamingResultsQueue;
 import com.basho.riak.client.core.StreamingRiakFuture;
 import com.basho.riak.client.core.util.BinaryValue;
+import org.reactivestreams.Publisher;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
@@ -31,8 +33,11 @@ import java.util.function.Function;
  * When iterating over this class's {@link Iterator} this class will lazily walk
  * through the response chunks's iterators and convert the items.
  * It will also wait for more response chunks if none are available.
+ * When the operation's results queue is a {@link StreamingResultsQueue} the
+ * wait is woken by each chunk and by the operation completing; otherwise the
+ * queue is polled with the given timeout.
  *
- * Since this class polls for new "streaming" data, it is advisable
+ * Since this class waits for new "streaming" data, it is advisable
  * to check {@link Thread#isInterrupted()} while using this class's
  * {@link Iterator} in environments where thread interrupts must be obeyed.
  *
@@ -160,6 +165,62 @@ public class ChunkedResponseIterator<FinalT, ChunkT extends Iterable<CoreT>, Cor
         return continuation;
     }
 
+    /**
+     * Returns a Publisher of the remaining elements.
+     * <p>
+     * Reading from Riak is paused whenever the subscriber has no outstanding
+     * demand, so at most about one network read's worth of results is held
+     * in memory however large the result set is. Use either the publisher or
+     * this iterator, not both.
+     * </p>
+     *
+     * @return a single-subscriber Publisher.
+     * @since 2.1.2
+     * @see ChunkedResponsePublisher
+     */
+    public Publisher<FinalT> toPublisher()
+    {
+        return new ChunkedResponsePublisher<>(coreFuture, this::pollNext);
+    }
+
+    /**
+     * Returns the next element if one is available without waiting.
+     */
+    private FinalT pollNext()
+    {
+        while (!currentIteratorHasNext())
+        {
+            final ChunkT nextChunk = chunkQueue.poll();
+            if (nextChunk == null)
+            {
+                return null;
+            }
+            this.currentIterator = getNextIterator.apply(nextChunk);
+            loadContinuation(nextChunk);
+        }
+
+        return createNext.apply(currentIterator.next());
+    }
+
+    /**
+     * Stops the stream early.
+     * <p>
+     * Cancels the underlying operation, closing its connection so Riak stops
+     * sending, and discards any chunks not yet consumed. Afterwards
+     * {@link #hasNext()} returns false.
+     * </p>
+     *
+     * @return false if the operation had already completed.
+     * @since 2.1.2
+     */
+    public boolean cancel()
+    {
+        final boolean cancelled = coreFuture.cancel(true);
+        chunkQueue.clear();
+        this.currentIterator = null;
+        return cancelled;
+    }
+
     /**
      * Returns the next element in the iteration.
      * This method will block and wait for more data if none is immediately available.
@@ -189,7 +250,7 @@ public class ChunkedResponseIterator<FinalT, ChunkT extends Iterable<CoreT>, Cor
 
         while (!populatedChunkLoaded && possibleChunksRemaining())
         {
-            final ChunkT nextChunk = chunkQueue.poll(timeout, TimeUnit.MILLISECONDS);
+            final ChunkT nextChunk = awaitNextChunk();
 
             if (nextChunk != null)
             {
@@ -203,6 +264,17 @@ public class ChunkedResponseIterator<FinalT, ChunkT extends Iterable<CoreT>, Cor
         return populatedChunkLoaded;
     }
 
+    @SuppressWarnings("unchecked")
+    private ChunkT awaitNextChunk() throws InterruptedException
+    {
+        if (chunkQueue instanceof StreamingResultsQueue)
+        {
+            // Returns null only once the operation has completed
+            return ((StreamingResultsQueue<ChunkT>) chunkQueue).takeUnlessClosed();
+        }
+        return chunkQueue.poll(timeout, TimeUnit.MILLISECONDS);
+    }
+
     private void loadContinuation(ChunkT nextChunk)
     {
         final BinaryValue fetchedContinuation = getContinuationFn.apply(nextChunk);
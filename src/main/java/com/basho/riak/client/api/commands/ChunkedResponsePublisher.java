@@ -0,0 +1,277 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.api.commands;
+
+import com.basho.riak.client.core.InlineRiakFutureListener;
+import com.basho.riak.client.core.RiakFuture;
+import com.basho.riak.client.core.StreamingRiakFuture;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A Reactive Streams Publisher of the results of a streaming operation.
+ * <p>
+ * The subscriber's demand drives reading from Riak. While it has no
+ * outstanding demand reading from the connection is paused, see
+ * {@link StreamingRiakFuture#setAutoRead(boolean)}, so results don't pile up
+ * in memory behind a slow subscriber. Cancelling the subscription cancels
+ * the operation, which closes its connection.
+ * </p>
+ * <p>
+ * Only one subscriber is supported. Signals may be delivered on a Netty I/O
+ * thread, so the subscriber must not block.
+ * </p>
+ *
+ * @param <T> The type of the results.
+ * @since 2.1.2
+ */
+public class ChunkedResponsePublisher<T> implements Publisher<T>
+{
+    private final Logger logger = LoggerFactory.getLogger(ChunkedResponsePublisher.class);
+    private final StreamingRiakFuture<?, ?> coreFuture;
+    private final Supplier<T> poller;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * @param coreFuture the streaming operation.
+     * @param poller returns the next result without waiting, or null if
+     *               none is available yet.
+     */
+    public ChunkedResponsePublisher(StreamingRiakFuture<?, ?> coreFuture, Supplier<T> poller)
+    {
+        this.coreFuture = coreFuture;
+        this.poller = poller;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber)
+    {
+        if (subscriber == null)
+        {
+            throw new NullPointerException("Subscriber can not be null");
+        }
+
+        if (!subscribed.compareAndSet(false, true))
+        {
+            subscriber.onSubscribe(new Subscription()
+            {
+                @Override
+                public void request(long n)
+                {
+                }
+
+                @Override
+                public void cancel()
+                {
+                }
+            });
+            subscriber.onError(new IllegalStateException("Only one subscriber is supported"));
+            return;
+        }
+
+        new ResultSubscription(subscriber).start();
+    }
+
+    private static <V, S> void onCompletion(StreamingRiakFuture<V, S> future, final Runnable task)
+    {
+        future.addListener(new InlineRiakFutureListener<V, S>()
+        {
+            @Override
+            public void handle(RiakFuture<V, S> f)
+            {
+                task.run();
+            }
+        });
+    }
+
+    private final class ResultSubscription implements Subscription, Runnable
+    {
+        private final Subscriber<? super T> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile boolean invalidRequest;
+
+        // Only touched while draining
+        private T next;
+        private boolean reading;
+
+        ResultSubscription(Subscriber<? super T> subscriber)
+        {
+            this.subscriber = subscriber;
+        }
+
+        void start()
+        {
+            // Nothing more is read until there's demand
+            coreFuture.setAutoRead(false);
+            subscriber.onSubscribe(this);
+            coreFuture.setChunkListener(this);
+            onCompletion(coreFuture, this);
+            drain();
+        }
+
+        @Override
+        public void request(long n)
+        {
+            if (n <= 0)
+            {
+                invalidRequest = true;
+            }
+            else
+            {
+                for (;;)
+                {
+                    final long current = requested.get();
+                    if (current == Long.MAX_VALUE)
+                    {
+                        break;
+                    }
+                    long updated = current + n;
+                    if (updated < 0)
+                    {
+                        updated = Long.MAX_VALUE;
+                    }
+                    if (requested.compareAndSet(current, updated))
+                    {
+                        break;
+                    }
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel()
+        {
+            if (!cancelled)
+            {
+                cancelled = true;
+                coreFuture.setChunkListener(null);
+                coreFuture.cancel(true);
+            }
+        }
+
+        // A result arrived, or the operation completed
+        @Override
+        public void run()
+        {
+            drain();
+        }
+
+        private void drain()
+        {
+            if (wip.getAndIncrement() != 0)
+            {
+                return;
+            }
+
+            int missed = 1;
+            do
+            {
+                if (cancelled)
+                {
+                    return;
+                }
+                if (invalidRequest)
+                {
+                    cancel();
+                    subscriber.onError(new IllegalArgumentException("Requested a non-positive number of results"));
+                    return;
+                }
+
+                final long demand = requested.get();
+                long emitted = 0;
+                boolean exhausted = false;
+
+                for (;;)
+                {
+                    if (next == null)
+                    {
+                        // All results are queued before the operation completes
+                        final boolean finished = coreFuture.isDone();
+                        next = poller.get();
+                        if (next == null)
+                        {
+                            exhausted = finished;
+                            break;
+                        }
+                    }
+                    if (emitted == demand)
+                    {
+                        break;
+                    }
+
+                    final T item = next;
+                    next = null;
+                    emitted++;
+                    try
+                    {
+                        subscriber.onNext(item);
+                    }
+                    catch (RuntimeException ex)
+                    {
+                        logger.warn("Subscriber threw from onNext(); cancelling.", ex);
+                        cancel();
+                    }
+                    if (cancelled)
+                    {
+                        return;
+                    }
+                }
+
+                if (exhausted)
+                {
+                    coreFuture.setChunkListener(null);
+                    if (coreFuture.isSuccess())
+                    {
+                        subscriber.onComplete();
+                    }
+                    else
+                    {
+                        subscriber.onError(coreFuture.cause());
+                    }
+                    // Leaves wip raised so nothing more is signalled
+                    return;
+                }
+
+                long remaining = demand;
+                if (emitted != 0 && demand != Long.MAX_VALUE)
+                {
+                    remaining = requested.addAndGet(-emitted);
+                }
+
+                final boolean wantRead = remaining != 0;
+                if (wantRead != reading)
+                {
+                    reading = wantRead;
+                    coreFuture.setAutoRead(wantRead);
+                }
+
+                missed = wip.addAndGet(-missed);
+            }
+            while (missed != 0);
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.basho.riak.client.api.commands;
 
 import com.basho.riak.client.core.RiakFuture;
 import com.basho.riak.client.core.RiakFutureListener;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -34,6 +35,7 @@ import java.util.concurrent.TimeoutException;
 public abstract class CoreFutureAdapter<T2,S2,T,S> extends ListenableFuture<T2,S2> implements RiakFutureListener<T,S>
 {
     private final RiakFuture<T,S> coreFuture;
+    private volatile CompletionStage<T2> stage;
 
     public CoreFutureAdapter(RiakFuture<T,S> coreFuture)
     {
@@ -120,6 +122,40 @@ public abstract class CoreFutureAdapter<T2,S2,T,S> extends ListenableFuture<T2,S
         notifyListeners();
     }
 
+    /**
+     * Returns the core future's stage with the response converted, so no
+     * listener is involved.
+     */
+    @Override
+    public CompletionStage<T2> toCompletionStage()
+    {
+        CompletionStage<T2> current = stage;
+        if (current == null)
+        {
+            synchronized (this)
+            {
+                current = stage;
+                if (current == null)
+                {
+                    current = convertStage(coreFuture.toCompletionStage());
+                    stage = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Converts the core future's stage.
+     * @param coreStage the core future's stage.
+     * @return a stage with the converted response.
+     * @since 2.1.2
+     */
+    protected CompletionStage<T2> convertStage(CompletionStage<T> coreStage)
+    {
+        return coreStage.thenApply(this::convertResponse);
+    }
+
     protected abstract T2 convertResponse(T coreResponse);
     protected abstract S2 convertQueryInfo(S coreQueryInfo);
 }
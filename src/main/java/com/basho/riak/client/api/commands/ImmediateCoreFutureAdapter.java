@@ -18,6 +18,7 @@ package com.basho.riak.client.api.commands;
 
 import com.basho.riak.client.core.RiakFuture;
 
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -64,6 +65,12 @@ public abstract class ImmediateCoreFutureAdapter<T2,S2,T,S> extends CoreFutureAd
     @Override
     protected T2 convertResponse(T unused) { return null; }
 
+    @Override
+    protected CompletionStage<T2> convertStage(CompletionStage<T> coreStage)
+    {
+        return coreStage.thenApply(unused -> immediateResponse);
+    }
+
     @Override
     protected abstract S2 convertQueryInfo(S coreQueryInfo);
 
@@ -16,6 +16,7 @@
 
 package com.basho.riak.client.api.commands;
 
+import com.basho.riak.client.core.ListenerTimings;
 import com.basho.riak.client.core.RiakFuture;
 import com.basho.riak.client.core.RiakFutureListener;
 import java.util.HashSet;
@@ -40,7 +41,7 @@ public abstract class ListenableFuture<T,S> implements RiakFuture<T,S>
         {
             if (isDone())
             {
-                listener.handle(this);
+                ListenerTimings.notify(listener, this);
             }
             else
             {
@@ -74,7 +75,7 @@ public abstract class ListenableFuture<T,S> implements RiakFuture<T,S>
         {
             for (RiakFutureListener<T,S> listener : listeners)
             {
-                listener.handle(this);
+                ListenerTimings.notify(listener, this);
             }
         }
         finally
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.api.commands;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * A RiakFuture backed by a {@link CompletableFuture}.
+ * <p>
+ * Used by commands composed of several operations. Completing it completes
+ * the stage, which is what callers wait on, then notifies listeners.
+ * </p>
+ *
+ * @param <T> The response type.
+ * @param <S> The query info type.
+ * @since 2.1.2
+ */
+public class StageFuture<T,S> extends ListenableFuture<T,S>
+{
+    private final CompletableFuture<T> stage = new CompletableFuture<>();
+    private final S queryInfo;
+
+    public StageFuture(S queryInfo)
+    {
+        this.queryInfo = queryInfo;
+    }
+
+    /**
+     * Completes this future with a response.
+     * @param response the response.
+     * @return false if it was already complete.
+     */
+    protected boolean complete(T response)
+    {
+        if (stage.complete(response))
+        {
+            notifyListeners();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Fails this future.
+     * @param cause the cause of the failure.
+     * @return false if it was already complete.
+     */
+    protected boolean completeExceptionally(Throwable cause)
+    {
+        if (stage.completeExceptionally(cause))
+        {
+            notifyListeners();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Completes this future with the outcome of a stage.
+     * @param source the stage.
+     * @return this
+     */
+    public StageFuture<T,S> completeFrom(CompletionStage<? extends T> source)
+    {
+        source.whenComplete((response, cause) ->
+        {
+            if (cause == null)
+            {
+                complete(response);
+            }
+            else
+            {
+                completeExceptionally(cause instanceof CompletionException && cause.getCause() != null
+                                          ? cause.getCause()
+                                          : cause);
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Cancels this future if it hasn't completed.
+     * <p>
+     * Listeners are notified and {@link #get()} throws a
+     * {@link CancellationException}. Operations already started on behalf of
+     * this future are not cancelled.
+     * </p>
+     * @param mayInterruptIfRunning ignored; no thread is interrupted.
+     * @return false if this future had already completed.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning)
+    {
+        if (stage.cancel(mayInterruptIfRunning))
+        {
+            notifyListeners();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public T get() throws InterruptedException, ExecutionException
+    {
+        return stage.get();
+    }
+
+    @Override
+    public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException
+    {
+        return stage.get(timeout, unit);
+    }
+
+    @Override
+    public T getNow()
+    {
+        return isSuccess() ? stage.join() : null;
+    }
+
+    @Override
+    public boolean isCancelled()
+    {
+        return stage.isCancelled();
+    }
+
+    @Override
+    public boolean isDone()
+    {
+        return stage.isDone();
+    }
+
+    @Override
+    public void await() throws InterruptedException
+    {
+        try
+        {
+            stage.get();
+        }
+        catch (ExecutionException | CancellationException ex)
+        {
+            // Completed; the caller checks isSuccess()
+        }
+    }
+
+    @Override
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        try
+        {
+            stage.get(timeout, unit);
+        }
+        catch (ExecutionException | CancellationException ex)
+        {
+            // Completed; the caller checks isSuccess()
+        }
+        catch (TimeoutException ex)
+        {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isSuccess()
+    {
+        return stage.isDone() && !stage.isCompletedExceptionally();
+    }
+
+    @Override
+    public Throwable cause()
+    {
+        if (!stage.isCompletedExceptionally())
+        {
+            return null;
+        }
+        try
+        {
+            stage.join();
+            return null;
+        }
+        catch (CompletionException ex)
+        {
+            return ex.getCause();
+        }
+        catch (CancellationException ex)
+        {
+            return ex;
+        }
+    }
+
+    @Override
+    public S getQueryInfo()
+    {
+        return queryInfo;
+    }
+
+    /**
+     * Returns a stage dependent on this future, so completing it doesn't
+     * complete this future.
+     */
+    @Override
+    public CompletionStage<T> toCompletionStage()
+    {
+        return stage.thenApply(Function.identity());
+    }
+}
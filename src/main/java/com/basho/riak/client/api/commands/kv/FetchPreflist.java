@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.api.commands.kv;
+
+import com.basho.riak.client.api.GenericRiakCommand;
+import com.basho.riak.client.core.FutureOperation;
+import com.basho.riak.client.core.operations.FetchPreflistOperation;
+import com.basho.riak.client.core.query.Location;
+
+/**
+ * Command used to retrieve the preference list for a key from Riak.
+ * <script src="https://google-code-prettify.googlecode.com/svn/loader/run_prettify.js"></script>
+ * <p>
+ * The preference list names the partitions responsible for the key and the
+ * nodes currently serving them. Requires Riak 2.1 or later.
+ * </p>
+ * <pre class="prettyprint">
+ * {@code
+ * Location loc = new Location(new Namespace("my_type", "my_bucket"), "my_key");
+ * FetchPreflist fp = new FetchPreflist.Builder(loc).build();
+ * FetchPreflist.Response response = client.execute(fp);
+ * List<String> primaries = response.getPrimaryNodes();}</pre>
+ * </p>
+ *
+ * @since 2.1.2
+ */
+public class FetchPreflist extends GenericRiakCommand.GenericRiakCommandWithSameInfo<FetchPreflist.Response,
+        Location, FetchPreflistOperation.Response>
+{
+    private final Location location;
+
+    private FetchPreflist(Builder builder)
+    {
+        this.location = builder.location;
+    }
+
+    @Override
+    protected FetchPreflistOperation buildCoreOperation()
+    {
+        return new FetchPreflistOperation.Builder(location).build();
+    }
+
+    @Override
+    protected Response convertResponse(FutureOperation<FetchPreflistOperation.Response, ?, Location> request,
+                                       FetchPreflistOperation.Response coreResponse)
+    {
+        return new Response(coreResponse);
+    }
+
+    /**
+     * Used to construct a FetchPreflist command.
+     */
+    public static class Builder
+    {
+        private final Location location;
+
+        /**
+         * @param location the location of the key.
+         */
+        public Builder(Location location)
+        {
+            if (location == null)
+            {
+                throw new IllegalArgumentException("Location can not be null");
+            }
+            this.location = location;
+        }
+
+        public FetchPreflist build()
+        {
+            return new FetchPreflist(this);
+        }
+    }
+
+    public static class Response extends FetchPreflistOperation.Response
+    {
+        private Response(FetchPreflistOperation.Response coreResponse)
+        {
+            super(coreResponse);
+        }
+    }
+}
@@ -1,8 +1,8 @@
 package com.basho.riak.client.api.commands.kv;
 
 import com.basho.riak.client.api.RiakCommand;
-import com.basho.riak.client.api.commands.ListenableFuture;
 import com.basho.riak.client.api.commands.RiakOption;
+import com.basho.riak.client.api.commands.StageFuture;
 import com.basho.riak.client.core.RiakCluster;
 import com.basho.riak.client.core.RiakFuture;
 import com.basho.riak.client.core.RiakFutureListener;
@@ -11,15 +11,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.Collections.unmodifiableList;
 
 /**
- * Runs multiple individual commands together on a worker daemon thread.
+ * Runs multiple individual commands together, keeping up to maxInFlight of
+ * them in progress; each one completing submits the next.
  * @param <BaseCommand> The type of the individual command you are trying to repeat
  * @param <BaseBuilder> The type of the builder for an individual {@link BaseCommand}
  * @param <ResponseType> The return type of the grouped "multi" command
@@ -55,10 +55,7 @@ abstract class MultiCommand<BaseCommand extends RiakCommand<BaseResponseType, Lo
         MultiFuture future = new MultiFuture(locations);
 
         Submitter submitter = new Submitter(operations, maxInFlight, cluster, future);
-
-        Thread worker = new Thread(submitter);
-        worker.setDaemon(true);
-        worker.start();
+        submitter.start();
 
         return future;
     }
@@ -234,12 +231,15 @@ abstract class MultiCommand<BaseCommand extends RiakCommand<BaseResponseType, Lo
         }
     }
 
-    class Submitter implements Runnable, RiakFutureListener<BaseResponseType, Location>
+    class Submitter implements RiakFutureListener<BaseResponseType, Location>
     {
         private final Logger logger = LoggerFactory.getLogger(this.getClass());
-        private final List<BaseCommand> commands;
-        private final Semaphore inFlight;
+        private final ConcurrentLinkedQueue<BaseCommand> pending;
+        private final int total;
+        private final int maxInFlight;
         private final AtomicInteger received = new AtomicInteger();
+        // Submissions requested; whoever raises it from 0 does them
+        private final AtomicInteger toSubmit = new AtomicInteger();
         private final RiakCluster cluster;
         private final MultiFuture multiFuture;
 
@@ -248,32 +248,47 @@ abstract class MultiCommand<BaseCommand extends RiakCommand<BaseResponseType, Lo
                          RiakCluster cluster,
                          MultiFuture multiFuture)
         {
-            this.commands = commands;
+            this.pending = new ConcurrentLinkedQueue<>(commands);
+            this.total = commands.size();
+            this.maxInFlight = Math.max(1, maxInFlight);
             this.cluster = cluster;
             this.multiFuture = multiFuture;
-            inFlight = new Semaphore(maxInFlight);
         }
 
-        @Override
-        public void run()
+        void start()
+        {
+            submit(Math.min(maxInFlight, total));
+        }
+
+        /**
+         * Submits commands without recursing when they complete immediately;
+         * requests made while submitting are picked up by the same loop.
+         */
+        private void submit(int count)
         {
-            logger.debug("Running daemon worker thread.");
-            for (BaseCommand command : commands)
+            if (count < 1 || toSubmit.getAndAdd(count) != 0)
             {
-                try
-                {
-                    inFlight.acquire();
-                }
-                catch (InterruptedException ex)
+                return;
+            }
+
+            do
+            {
+                // Nothing more is sent once the future is cancelled
+                BaseCommand command = multiFuture.isDone() ? null : pending.poll();
+                if (command != null)
                 {
-                    logger.error("Daemon worker thread interrupted.");
-                    multiFuture.setFailed(ex);
-                    break;
+                    try
+                    {
+                        executeBaseCommandAsync(command, cluster).addListener(this);
+                    }
+                    catch (RuntimeException ex)
+                    {
+                        logger.error("Failed submitting MultiCommand individual command.", ex);
+                        multiFuture.setFailed(ex);
+                    }
                 }
-
-                RiakFuture<BaseResponseType, Location> future = executeBaseCommandAsync(command, cluster);
-                future.addListener(this);
             }
+            while (toSubmit.decrementAndGet() > 0);
         }
 
         @Override
@@ -281,114 +296,46 @@ abstract class MultiCommand<BaseCommand extends RiakCommand<BaseResponseType, Lo
         {
             logger.debug("Received MultiCommand individual result.");
             multiFuture.addFetchFuture(f);
-            inFlight.release();
             int completed = received.incrementAndGet();
-            if (completed == commands.size())
+            if (completed == total)
             {
                 multiFuture.setCompleted();
             }
+            else
+            {
+                submit(1);
+            }
         }
     }
 
-    class MultiFuture extends ListenableFuture<ResponseType,List<Location>>
+    class MultiFuture extends StageFuture<ResponseType,List<Location>>
     {
-        private final CountDownLatch latch = new CountDownLatch(1);
-        private final List<Location> locations;
         private final List<RiakFuture<BaseResponseType, Location>> futures;
-        private volatile Throwable exception;
 
         MultiFuture(List<Location> locations)
         {
-            this.locations = locations;
+            super(locations);
             futures = Collections.synchronizedList(new LinkedList<RiakFuture<BaseResponseType, Location>>());
 
             // If we have no locations, then we have no work to do.
-            if (this.locations.isEmpty())
+            if (locations.isEmpty())
             {
                 setCompleted();
             }
         }
 
-        @Override
-        public boolean cancel(boolean mayInterruptIfRunning)
-        {
-            return false;
-        }
-
         @Override
         public ResponseType get() throws InterruptedException
         {
-            latch.await();
-            return createResponseType(futures);
+            await();
+            return getNow();
         }
 
         @Override
         public ResponseType get(long timeout, TimeUnit unit) throws InterruptedException
         {
-            latch.await(timeout, unit);
-            if (isDone())
-            {
-                return createResponseType(futures);
-            }
-            else
-            {
-                return null;
-            }
-        }
-
-        @Override
-        public ResponseType getNow()
-        {
-            if (isDone())
-            {
-                return createResponseType(futures);
-            }
-            else
-            {
-                return null;
-            }
-        }
-
-        @Override
-        public boolean isCancelled()
-        {
-            return false;
-        }
-
-        @Override
-        public boolean isDone()
-        {
-            return latch.getCount() != 1;
-        }
-
-        @Override
-        public void await() throws InterruptedException
-        {
-            latch.await();
-        }
-
-        @Override
-        public boolean await(long timeout, TimeUnit unit) throws InterruptedException
-        {
-            return latch.await(timeout, unit);
-        }
-
-        @Override
-        public boolean isSuccess()
-        {
-            return isDone() && exception == null;
-        }
-
-        @Override
-        public List<Location> getQueryInfo()
-        {
-            return locations;
-        }
-
-        @Override
-        public Throwable cause()
-        {
-            return exception;
+            await(timeout, unit);
+            return getNow();
         }
 
         private void addFetchFuture(RiakFuture<BaseResponseType, Location> future)
@@ -398,15 +345,12 @@ abstract class MultiCommand<BaseCommand extends RiakCommand<BaseResponseType, Lo
 
         private void setCompleted()
         {
-            latch.countDown();
-            notifyListeners();
+            complete(createResponseType(futures));
         }
 
         private void setFailed(Throwable t)
         {
-            this.exception = t;
-            latch.countDown();
-            notifyListeners();
+            completeExceptionally(t);
         }
     }
 }
@@ -17,12 +17,10 @@ package com.basho.riak.client.api.commands.kv;
 
 import com.basho.riak.client.api.RiakCommand;
 import com.basho.riak.client.api.cap.VClock;
-import com.basho.riak.client.api.commands.ListenableFuture;
-import com.basho.riak.client.api.convert.ConversionException;
+import com.basho.riak.client.api.commands.StageFuture;
 import com.basho.riak.client.api.convert.reflection.AnnotationUtil;
 import com.basho.riak.client.core.RiakCluster;
 import com.basho.riak.client.core.RiakFuture;
-import com.basho.riak.client.core.RiakFutureListener;
 import com.basho.riak.client.core.query.Location;
 import com.basho.riak.client.core.query.RiakObject;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -31,10 +29,8 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Perform an full cycle update of a Riak value: fetch, resolve, modify, store.
@@ -110,92 +106,79 @@ public final class UpdateValue extends RiakCommand<UpdateValue.Response, Locatio
     @Override
     protected RiakFuture<Response, Location> executeAsync(final RiakCluster cluster)
     {
-        final UpdateValueFuture updateFuture = new UpdateValueFuture(location);
-
         FetchValue.Builder fetchBuilder = new FetchValue.Builder(location);
         for (Map.Entry<FetchValue.Option<?>, Object> optPair : fetchOptions.entrySet())
         {
             fetchBuilder.withOption((FetchValue.Option<Object>) optPair.getKey(), optPair.getValue());
         }
 
-        RiakFuture<FetchValue.Response, Location> fetchFuture = fetchBuilder.build().executeAsync(cluster);
+        CompletionStage<Response> updateStage = fetchBuilder.build()
+                                                            .executeAsync(cluster)
+                                                            .toCompletionStage()
+                                                            .thenCompose(fetchResponse -> applyUpdate(cluster, fetchResponse));
+
+        return new StageFuture<Response, Location>(location).completeFrom(updateStage);
+    }
 
-        // Anonymous listener that will do the work
-        RiakFutureListener<FetchValue.Response, Location> fetchListener = f ->
+    @SuppressWarnings("unchecked")
+    private CompletionStage<Response> applyUpdate(RiakCluster cluster, FetchValue.Response fetchResponse)
+    {
+        Object resolved = null;
+        VClock vclock = null;
+
+        if (!fetchResponse.isNotFound())
         {
-            if (!f.isSuccess())
+            if (typeReference == null)
             {
-                updateFuture.setException(f.cause());
-                return;
-            }
+                // Steal the type from the Update. Yes, Really.
+                ParameterizedType pType =
+                        (ParameterizedType) update.getClass().getGenericSuperclass();
+                Type t = pType.getActualTypeArguments()[0];
+                if (t instanceof ParameterizedType)
+                {
+                    t = ((ParameterizedType) t).getRawType();
+                }
 
-            FetchValue.Response fetchResponse;
-            try
+                resolved = fetchResponse.getValue((Class<?>) t);
+            }
+            else
             {
-                fetchResponse = f.get();
-                Object resolved = null;
-                VClock vclock = null;
+                resolved = fetchResponse.getValue(typeReference);
+            }
 
-                if (!fetchResponse.isNotFound())
-                {
-                    if (typeReference == null)
-                    {
-                        // Steal the type from the Update. Yes, Really.
-                        ParameterizedType pType =
-                                (ParameterizedType) update.getClass().getGenericSuperclass();
-                        Type t = pType.getActualTypeArguments()[0];
-                        if (t instanceof ParameterizedType)
-                        {
-                            t = ((ParameterizedType) t).getRawType();
-                        }
-
-                        resolved = fetchResponse.getValue((Class<?>) t);
-                    }
-                    else
-                    {
-                        resolved = fetchResponse.getValue(typeReference);
-                    }
-
-                    // We get the vclock so we can inject it into the updated object.
-                    // This is so the end user doesn't have to worry about vclocks
-                    // in the Update.
-                    vclock = fetchResponse.getVectorClock();
-                }
+            // We get the vclock so we can inject it into the updated object.
+            // This is so the end user doesn't have to worry about vclocks
+            // in the Update.
+            vclock = fetchResponse.getVectorClock();
+        }
 
-                Object updated = ((Update<Object>) update).apply(resolved);
+        Object updated = ((Update<Object>) update).apply(resolved);
 
-                if (update.isModified())
-                {
-                    AnnotationUtil.setVClock(updated, vclock);
+        if (!update.isModified())
+        {
+            return CompletableFuture.completedFuture(new Response.Builder().withLocation(location)
+                                                                           .withUpdated(false)
+                                                                           .build());
+        }
 
-                    StoreValue.Builder store = new StoreValue.Builder(updated, typeReference).withLocation(
-                            location).withVectorClock(vclock);
+        AnnotationUtil.setVClock(updated, vclock);
 
-                    for (Map.Entry<StoreValue.Option<?>, Object> optPair : storeOptions.entrySet())
-                    {
-                        store.withOption((StoreValue.Option<Object>) optPair.getKey(), optPair.getValue());
-                    }
+        StoreValue.Builder store = new StoreValue.Builder(updated, typeReference).withLocation(
+                location).withVectorClock(vclock);
 
-                    RiakFuture<StoreValue.Response, Location> storeFuture = store.build().executeAsync(
-                            cluster);
-                    storeFuture.addListener(updateFuture);
-                }
-                else
-                {
-                    Response updateResponse = new Response.Builder().withLocation(f.getQueryInfo())
-                                                                    .withUpdated(false)
-                                                                    .build();
-                    updateFuture.setResponse(updateResponse);
-                }
-            }
-            catch (InterruptedException | ConversionException | ExecutionException ex)
-            {
-                updateFuture.setException(ex);
-            }
-        };
+        for (Map.Entry<StoreValue.Option<?>, Object> optPair : storeOptions.entrySet())
+        {
+            store.withOption((StoreValue.Option<Object>) optPair.getKey(), optPair.getValue());
+        }
 
-        fetchFuture.addListener(fetchListener);
-        return updateFuture;
+        return store.build()
+                    .executeAsync(cluster)
+                    .toCompletionStage()
+                    .thenApply(storeResponse -> new Response.Builder()
+                                                    .withValues(storeResponse.getValues(RiakObject.class))
+                                                    .withLocation(location)
+                                                    .withUpdated(true)
+                                                    .build());
     }
 
     @Override
@@ -487,146 +470,4 @@ public final class UpdateValue extends RiakCommand<UpdateValue.Response, Locatio
             return new UpdateValue(this);
         }
     }
-
-    private class UpdateValueFuture extends ListenableFuture<UpdateValue.Response, Location>
-            implements RiakFutureListener<StoreValue.Response, Location>
-    {
-        private final Location location;
-        private final CountDownLatch latch = new CountDownLatch(1);
-        private volatile Throwable exception;
-        private volatile Response updateResponse;
-
-        private UpdateValueFuture(Location location)
-        {
-            this.location = location;
-        }
-
-        @Override
-        public boolean cancel(boolean mayInterruptIfRunning)
-        {
-            return false;
-        }
-
-        @Override
-        public Response get() throws InterruptedException, ExecutionException
-        {
-            latch.await();
-
-            if (exception != null)
-            {
-                throw new ExecutionException(exception);
-            }
-            else
-            {
-                return updateResponse;
-            }
-        }
-
-        @Override
-        public Response get(long timeout, TimeUnit unit)
-                throws InterruptedException, ExecutionException, TimeoutException
-        {
-            boolean succeed = latch.await(timeout, unit);
-
-            if (!succeed)
-            {
-                throw new TimeoutException();
-            }
-            else if (exception != null)
-            {
-                throw new ExecutionException(exception);
-            }
-            else
-            {
-                return updateResponse;
-            }
-        }
-
-        @Override
-        public Response getNow()
-        {
-            return updateResponse;
-        }
-
-        @Override
-        public boolean isCancelled()
-        {
-            return false;
-        }
-
-        @Override
-        public boolean isDone()
-        {
-            return latch.getCount() != 1;
-        }
-
-        @Override
-        public void await() throws InterruptedException
-        {
-            latch.await();
-        }
-
-        @Override
-        public boolean await(long timeout, TimeUnit unit) throws InterruptedException
-        {
-            return latch.await(timeout, unit);
-        }
-
-        @Override
-        public boolean isSuccess()
-        {
-            return isDone() && exception == null;
-        }
-
-        @Override
-        public Throwable cause()
-        {
-            return exception;
-        }
-
-        private void setResponse(Response response)
-        {
-            this.updateResponse = response;
-            latch.countDown();
-            notifyListeners();
-        }
-
-        private void setException(Throwable t)
-        {
-            this.exception = t;
-            latch.countDown();
-            notifyListeners();
-        }
-
-        @Override
-        public void handle(RiakFuture<StoreValue.Response, Location> f)
-        {
-            if (!f.isSuccess())
-            {
-                setException(f.cause());
-                return;
-            }
-
-            StoreValue.Response storeResponse;
-            try
-            {
-                storeResponse = f.get();
-                Response response = new Response.Builder().withValues(storeResponse.getValues(RiakObject.class))
-                                                          .withLocation(f.getQueryInfo())
-                                                          .withUpdated(true)
-                                                          .build();
-                setResponse(response);
-            }
-            catch (InterruptedException | ExecutionException ex)
-            {
-                setException(ex);
-            }
-        }
-
-        @Override
-        public Location getQueryInfo()
-        {
-            return location;
-        }
-    }
 }
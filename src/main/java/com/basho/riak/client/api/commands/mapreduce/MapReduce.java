@@ -15,8 +15,10 @@ package com.basho.riak.client.api.commands.mapreduce;
 
 import com.basho.riak.client.api.RiakException;
 import com.basho.riak.client.api.StreamableRiakCommand;
+import com.basho.riak.client.api.commands.ChunkedResponsePublisher;
 import com.basho.riak.client.api.convert.ConversionException;
 import com.basho.riak.client.core.FutureOperation;
+import com.basho.riak.client.core.StreamingResultsQueue;
 import com.basho.riak.client.core.StreamingRiakFuture;
 import com.basho.riak.client.core.operations.MapReduceOperation;
 import com.basho.riak.client.core.query.functions.Function;
@@ -29,6 +31,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.reactivestreams.Publisher;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -401,6 +404,28 @@ public abstract class MapReduce extends StreamableRiakCommand.StreamableRiakComm
             return flatArray;
         }
 
+        @Override
+        public boolean cancel()
+        {
+            return isStreaming() && responseIterator.coreFuture.cancel(true);
+        }
+
+        @Override
+        public Publisher<Response> toPublisher()
+        {
+            if (isStreaming())
+            {
+                final TransferQueue<MapReduceOperation.Response> resultsQueue = responseIterator.resultsQueue;
+                return new ChunkedResponsePublisher<>(responseIterator.coreFuture, () ->
+                {
+                    final MapReduceOperation.Response responseChunk = resultsQueue.poll();
+                    return responseChunk == null ? null : new Response(responseChunk.getResults());
+                });
+            }
+
+            throw new UnsupportedOperationException("A publisher is only supported for streamable response.");
+        }
+
         @Override
         public Iterator<Response> iterator()
         {
@@ -483,7 +508,12 @@ public abstract class MapReduce extends StreamableRiakCommand.StreamableRiakComm
             {
                 while (resultsQueue.isEmpty() && !coreFuture.isDone())
                 {
-                    if (resultsQueue.isEmpty())
+                    if (resultsQueue instanceof StreamingResultsQueue)
+                    {
+                        // Woken by the next result or the operation completing
+                        ((StreamingResultsQueue<?>) resultsQueue).awaitResultOrClose();
+                    }
+                    else if (resultsQueue.isEmpty())
                     {
                         Thread.sleep(pollTimeout);
                     }
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Resolves a node's address, caching the result for a TTL.
+ * <p>
+ * Only the very first lookup blocks the caller. Once the TTL has passed the
+ * cached address is still returned and a single lookup is run on the supplied
+ * executor to refresh it. If a lookup fails the last known address is kept,
+ * so a resolver outage doesn't fail new connections.
+ * </p>
+ */
+class CachingAddressResolver
+{
+    private final Logger logger = LoggerFactory.getLogger(CachingAddressResolver.class);
+    private final String host;
+    private final int port;
+    private final long ttlNanos;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile InetSocketAddress address;
+    private volatile long resolvedAt;
+
+    CachingAddressResolver(String host, int port, int ttlMillis)
+    {
+        if (ttlMillis < 0)
+        {
+            throw new IllegalArgumentException("ttlMillis cannot be negative");
+        }
+        this.host = host;
+        this.port = port;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    /**
+     * Returns the cached address, refreshing it in the background if stale.
+     * @param executor runs the refresh.
+     * @return the address.
+     * @throws UnknownHostException if the host has never been resolved.
+     */
+    InetSocketAddress resolve(Executor executor) throws UnknownHostException
+    {
+        final InetSocketAddress current = address;
+        if (current == null)
+        {
+            return refresh();
+        }
+
+        if (System.nanoTime() - resolvedAt >= ttlNanos && refreshing.compareAndSet(false, true))
+        {
+            executor.execute(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        refresh();
+                    }
+                    catch (UnknownHostException ex)
+                    {
+                        // Can't happen once there is a last known address
+                    }
+                    finally
+                    {
+                        refreshing.set(false);
+                    }
+                }
+            });
+        }
+        return current;
+    }
+
+    /**
+     * Looks the host up now.
+     * @return the new address, or the last known one if the lookup failed.
+     * @throws UnknownHostException if the lookup failed and there is no last known address.
+     */
+    InetSocketAddress refresh() throws UnknownHostException
+    {
+        final InetSocketAddress resolved = new InetSocketAddress(host, port);
+        final InetSocketAddress lastKnown = address;
+
+        if (resolved.isUnresolved())
+        {
+            if (lastKnown == null)
+            {
+                throw new UnknownHostException("RiakNode:start - Failed resolving host " + host);
+            }
+            logger.warn("Failed resolving host {}; using last known address {}", host, lastKnown.getAddress());
+            // Don't retry before the TTL is up again
+            resolvedAt = System.nanoTime();
+            return lastKnown;
+        }
+
+        if (lastKnown != null && !lastKnown.equals(resolved))
+        {
+            logger.info("Host {} now resolves to {}", host, resolved.getAddress());
+        }
+        address = resolved;
+        resolvedAt = System.nanoTime();
+        return resolved;
+    }
+
+    long getTtlMillis()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(ttlNanos);
+    }
+}
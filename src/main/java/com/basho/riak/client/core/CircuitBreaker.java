@@ -0,0 +1,164 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.core;
+
+import com.basho.riak.client.core.RiakNode.CircuitState;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A passive circuit breaker driven by the outcomes of a node's operations.
+ * <p>
+ * While closed, the outcomes of the last {@value #WINDOW} operations are
+ * kept; an operation is "bad" if it failed or took longer than the slow call
+ * threshold. Once at least {@value #MIN_CALLS} have been seen and the share
+ * of bad ones reaches the failure rate the breaker opens. After the open
+ * period it may go half-open, admitting one in {@value #PROBE_INTERVAL}
+ * operations; {@value #PROBES_TO_CLOSE} good probes close it and a bad one
+ * opens it again.
+ * </p>
+ */
+class CircuitBreaker
+{
+    static final int WINDOW = 20;
+    static final int MIN_CALLS = 10;
+    static final int PROBE_INTERVAL = 10;
+    static final int PROBES_TO_CLOSE = 5;
+
+    private final int failureRatePercent;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final boolean[] outcomes = new boolean[WINDOW];
+    private final AtomicInteger probeCounter = new AtomicInteger();
+    private int count;
+    private int next;
+    private int bad;
+    private int probeSuccesses;
+    private long openedAt;
+    private volatile CircuitState state = CircuitState.CLOSED;
+
+    /**
+     * @param failureRatePercent the percentage of bad operations that opens the breaker.
+     * @param slowCallMillis operations slower than this count as bad; 0 to ignore latency.
+     * @param openMillis how long the breaker stays open before probing.
+     */
+    CircuitBreaker(int failureRatePercent, int slowCallMillis, int openMillis)
+    {
+        if (failureRatePercent < 1 || failureRatePercent > 100 || slowCallMillis < 0 || openMillis < 0)
+        {
+            throw new IllegalArgumentException("failureRatePercent must be 1-100 and durations cannot be negative");
+        }
+        this.failureRatePercent = failureRatePercent;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+    }
+
+    CircuitState getState()
+    {
+        return state;
+    }
+
+    boolean allowRequest()
+    {
+        switch (state)
+        {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                return probeCounter.incrementAndGet() % PROBE_INTERVAL == 0;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Records the outcome of an operation.
+     * @param success whether the operation succeeded.
+     * @param latencyNanos how long it took, or 0 if unknown.
+     * @return the new state if this outcome changed it, otherwise null.
+     */
+    synchronized CircuitState record(boolean success, long latencyNanos)
+    {
+        final boolean isBad = !success || (slowCallNanos > 0 && latencyNanos > slowCallNanos);
+        switch (state)
+        {
+            case CLOSED:
+                if (count == WINDOW)
+                {
+                    if (outcomes[next])
+                    {
+                        bad--;
+                    }
+                }
+                else
+                {
+                    count++;
+                }
+                outcomes[next] = isBad;
+                if (isBad)
+                {
+                    bad++;
+                }
+                next = (next + 1) % WINDOW;
+
+                if (count >= MIN_CALLS && bad * 100 >= failureRatePercent * count)
+                {
+                    return open();
+                }
+                return null;
+            case HALF_OPEN:
+                if (isBad)
+                {
+                    return open();
+                }
+                if (++probeSuccesses >= PROBES_TO_CLOSE)
+                {
+                    count = 0;
+                    next = 0;
+                    bad = 0;
+                    state = CircuitState.CLOSED;
+                    return state;
+                }
+                return null;
+            default:
+                // Stragglers from before the breaker opened
+                return null;
+        }
+    }
+
+    /**
+     * Moves an open breaker whose open period has elapsed to half-open.
+     * @return true if the breaker is now half-open.
+     */
+    synchronized boolean tryHalfOpen()
+    {
+        if (state == CircuitState.OPEN && System.nanoTime() - openedAt >= openNanos)
+        {
+            probeSuccesses = 0;
+            state = CircuitState.HALF_OPEN;
+            return true;
+        }
+        return state == CircuitState.HALF_OPEN;
+    }
+
+    private CircuitState open()
+    {
+        openedAt = System.nanoTime();
+        state = CircuitState.OPEN;
+        return state;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.core;
+
+/**
+ * An AIMD concurrency limit driven by the outcomes of a node's operations.
+ * <p>
+ * A sample is "overloaded" if the operation failed or its round trip took
+ * more than {@value #RTT_TOLERANCE} times the node's baseline RTT, a slowly
+ * moving average of the RTTs seen. An overloaded sample multiplies the limit
+ * by {@value #BACKOFF_RATIO}; any other sample raises it by one, provided at
+ * least half of the current limit is actually in use. The limit is applied
+ * to the node's permits, so it caps the connections (and therefore the
+ * operations) the node has in flight.
+ * </p>
+ */
+class ConcurrencyLimiter
+{
+    static final double BACKOFF_RATIO = 0.9;
+    static final double RTT_TOLERANCE = 2.0;
+    static final double BASELINE_SMOOTHING = 0.01;
+
+    private final RiakNode.Sync permits;
+    private final int minLimit;
+    private int maxLimit;
+    private double limit;
+    private double baselineRttNanos;
+
+    /**
+     * @param permits the permits the limit is applied to.
+     * @param initialLimit the limit to start at.
+     * @param minLimit the limit is never lowered below this.
+     * @param maxLimit the limit is never raised above this.
+     */
+    ConcurrencyLimiter(RiakNode.Sync permits, int initialLimit, int minLimit, int maxLimit)
+    {
+        if (minLimit < 1 || maxLimit < minLimit)
+        {
+            throw new IllegalArgumentException("Limits must be at least 1 and min cannot exceed max");
+        }
+        this.permits = permits;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        permits.setMaxPermits((int) limit);
+    }
+
+    int getLimit()
+    {
+        return permits.getMaxPermits();
+    }
+
+    synchronized long getBaselineRttNanos()
+    {
+        return (long) baselineRttNanos;
+    }
+
+    synchronized void setMaxLimit(int maxLimit)
+    {
+        if (maxLimit < minLimit)
+        {
+            throw new IllegalArgumentException("Max limit less than min limit");
+        }
+        this.maxLimit = maxLimit;
+        limit = Math.min(limit, maxLimit);
+        permits.setMaxPermits((int) limit);
+    }
+
+    /**
+     * Adjusts the limit for an operation's outcome.
+     * @param success whether the operation succeeded.
+     * @param rttNanos the operation's round trip; 0 if not known.
+     * @return the change in the limit.
+     */
+    synchronized int onSample(boolean success, long rttNanos)
+    {
+        boolean overloaded = !success;
+        if (success && rttNanos > 0)
+        {
+            if (baselineRttNanos == 0)
+            {
+                baselineRttNanos = rttNanos;
+            }
+            else
+            {
+                overloaded = rttNanos > baselineRttNanos * RTT_TOLERANCE;
+                baselineRttNanos += (rttNanos - baselineRttNanos) * BASELINE_SMOOTHING;
+            }
+        }
+
+        final int oldLimit = permits.getMaxPermits();
+        if (overloaded)
+        {
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+        }
+        else if ((oldLimit - permits.availablePermits()) * 2 >= oldLimit)
+        {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+
+        final int newLimit = (int) limit;
+        if (newLimit != oldLimit)
+        {
+            permits.setMaxPermits(newLimit);
+        }
+        return newLimit - oldLimit;
+    }
+}
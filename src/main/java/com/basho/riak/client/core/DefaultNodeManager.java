@@ -17,9 +17,9 @@ package com.basho.riak.client.core;
 
 import com.basho.riak.client.core.RiakNode.State;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,7 +35,11 @@ import org.slf4j.LoggerFactory;
  * is again running. If the selected node cannot accept the operation because all
  * connections are in use or it unable to make a new connection, the next node in
  * the list is tried until either the operation is accepted or all nodes have
- * been tried. If no nodes are able to accept the operation its setException()
+ * been tried. A retried operation is sent to a node other than the one it
+ * last failed on unless none of the others can accept it. A node ramping up
+ * after recovering is only offered its share of operations; see
+ * {@link RiakNode#getTrafficWeight()}.
+ * If no nodes are able to accept the operation its setException()
  * method is called with a {@link NoNodesAvailableException}.
  *
  * @author Brian Roach <roach at basho dot com>
@@ -43,60 +47,82 @@ import org.slf4j.LoggerFactory;
  */
 public class DefaultNodeManager implements NodeManager, NodeStateListener
 {
-    private final ArrayList<RiakNode> healthy = new ArrayList<>();
-    private final ArrayList<RiakNode> unhealthy = new ArrayList<>();
+    // Copy-on-write snapshots. Node state changes are rare, so they replace the
+    // lists under writeLock while executeOnNode() only does a volatile read.
+    private volatile List<RiakNode> healthy = Collections.emptyList();
+    private volatile List<RiakNode> unhealthy = Collections.emptyList();
     private final AtomicInteger index = new AtomicInteger();
     private final Logger logger = LoggerFactory.getLogger(DefaultNodeManager.class);
-    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
+    private final Object writeLock = new Object();
 
     @Override
     public void init(List<RiakNode> nodes)
     {
-        try
+        synchronized (writeLock)
         {
-            lock.writeLock().lock();
-            healthy.addAll(nodes);
-        }
-        finally
-        {
-            lock.writeLock().unlock();
+            List<RiakNode> newHealthy = new ArrayList<>(healthy);
+            newHealthy.addAll(nodes);
+            healthy = Collections.unmodifiableList(newHealthy);
         }
     }
 
     @Override
     public boolean executeOnNode(FutureOperation operation, RiakNode previousNode)
     {
-        try
+        final List<RiakNode> snapshot = healthy;
+        final int size = snapshot.size();
+        boolean executed = false;
+
+        if (size > 1)
         {
-            lock.readLock().lock();
-            boolean executed = false;
-            if (healthy.size() > 1)
+            int startIndex = index.getAndIncrement();
+            List<RiakNode> passedOver = null;
+
+            for (int i = 0; i < size; i++)
             {
-                int startIndex = index.getAndIncrement();
-                int currentIndex = startIndex;
+                RiakNode node = snapshot.get(Math.abs((startIndex + i) % size));
+                // A node ramping up after recovery only gets its share
+                if (node.declinesTraffic())
+                {
+                    if (passedOver == null)
+                    {
+                        passedOver = new ArrayList<>(size);
+                    }
+                    passedOver.add(node);
+                    continue;
+                }
+                // A retry goes to a different node if any will take it
+                if (node != previousNode && node.execute(operation))
+                {
+                    executed = true;
+                    break;
+                }
+            }
 
-                do
+            if (!executed && passedOver != null)
+            {
+                // Any of them may be at its ramp's limit
+                for (RiakNode node : passedOver)
                 {
-                    if (healthy.get(Math.abs(currentIndex % healthy.size())).execute(operation))
+                    if (node != previousNode && node.execute(operation))
                     {
                         executed = true;
                         break;
                     }
-                    currentIndex++;
                 }
-                while (Math.abs(currentIndex % healthy.size()) != Math.abs(startIndex % healthy.size()));
             }
-            else if (healthy.size() == 1)
+
+            if (!executed && previousNode != null && snapshot.contains(previousNode))
             {
-                executed = healthy.get(0).execute(operation);
+                executed = previousNode.execute(operation);
             }
-
-            return executed;
         }
-        finally
+        else if (size == 1)
         {
-            lock.readLock().unlock();
+            executed = snapshot.get(0).execute(operation);
         }
+
+        return executed;
     }
 
     @Override
@@ -105,52 +131,43 @@ public class DefaultNodeManager implements NodeManager, NodeStateListener
         switch (state)
         {
             case RUNNING:
-                try
+                synchronized (writeLock)
                 {
-                    lock.writeLock().lock();
-                    if (unhealthy.remove(node))
+                    if (unhealthy.contains(node))
                     {
-                        healthy.add(node);
+                        unhealthy = without(unhealthy, node);
+                        healthy = with(healthy, node);
                         logger.info("NodeManager moved node to healthy list; {}:{}",
                                     node.getRemoteAddress(), node.getPort());
                     }
                 }
-                finally
-                {
-                    lock.writeLock().unlock();
-                }
                 break;
             case HEALTH_CHECKING:
-                try
+                synchronized (writeLock)
                 {
-                    lock.writeLock().lock();
-                    if (healthy.remove(node))
+                    if (healthy.contains(node))
                     {
-                        unhealthy.add(node);
+                        healthy = without(healthy, node);
+                        unhealthy = with(unhealthy, node);
                         logger.info("NodeManager moved node to unhealthy list; {}:{}",
                                     node.getRemoteAddress(), node.getPort());
                     }
                 }
-                finally
-                {
-                    lock.writeLock().unlock();
-                }
                 break;
             case SHUTTING_DOWN:
             case SHUTDOWN:
                 boolean removed = false;
-                try
+                synchronized (writeLock)
                 {
-                    lock.writeLock().lock();
-                    removed = healthy.remove(node);
-                    if (!removed)
+                    if (healthy.contains(node))
                     {
-                        unhealthy.remove(node);
+                        healthy = without(healthy, node);
+                        removed = true;
+                    }
+                    else if (unhealthy.contains(node))
+                    {
+                        unhealthy = without(unhealthy, node);
                     }
-                }
-                finally
-                {
-                    lock.writeLock().unlock();
                 }
                 if (removed)
                 {
@@ -166,33 +183,28 @@ public class DefaultNodeManager implements NodeManager, NodeStateListener
     @Override
     public void addNode(RiakNode newNode)
     {
-        try
-        {
-            lock.writeLock().lock();
-            healthy.add(newNode);
-        }
-        finally
+        synchronized (writeLock)
         {
-            lock.writeLock().unlock();
+            healthy = with(healthy, newNode);
         }
     }
 
     @Override
     public boolean removeNode(RiakNode node)
     {
-        boolean removed;
-        try
+        boolean removed = false;
+        synchronized (writeLock)
         {
-            lock.writeLock().lock();
-            removed = healthy.remove(node);
-            if (!removed)
+            if (healthy.contains(node))
             {
-                removed = unhealthy.remove(node);
+                healthy = without(healthy, node);
+                removed = true;
+            }
+            else if (unhealthy.contains(node))
+            {
+                unhealthy = without(unhealthy, node);
+                removed = true;
             }
-        }
-        finally
-        {
-            lock.writeLock().unlock();
         }
 
         if (removed)
@@ -204,4 +216,29 @@ public class DefaultNodeManager implements NodeManager, NodeStateListener
         }
         return removed;
     }
+
+    /**
+     * Returns the current snapshot of healthy nodes.
+     * @return an unmodifiable list of the nodes operations are sent to.
+     * @since 2.1.2
+     */
+    protected List<RiakNode> getHealthyNodes()
+    {
+        return healthy;
+    }
+
+    private static List<RiakNode> with(List<RiakNode> nodes, RiakNode node)
+    {
+        List<RiakNode> copy = new ArrayList<>(nodes.size() + 1);
+        copy.addAll(nodes);
+        copy.add(node);
+        return Collections.unmodifiableList(copy);
+    }
+
+    private static List<RiakNode> without(List<RiakNode> nodes, RiakNode node)
+    {
+        List<RiakNode> copy = new ArrayList<>(nodes);
+        copy.remove(node);
+        return Collections.unmodifiableList(copy);
+    }
 }
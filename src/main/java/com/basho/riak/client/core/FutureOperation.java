@@ -15,15 +15,22 @@
  */
 package com.basho.riak.client.core;
 
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.LinkedList;
+import io.netty.channel.Channel;
+import io.netty.util.Timeout;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -77,6 +84,14 @@ import org.slf4j.LoggerFactory;
  *                            |            |
  *                            +------------+
  *
+ *  The state is a single atomic field; each transition is a compare-and-set,
+ *  so completing an operation takes no locks. Listeners, and callers blocked
+ *  in get() or await(), are pushed onto a stack that is allocated on first
+ *  use and popped once on completion. A single response is held without a
+ *  List.
+ *
+ *  Once cancelled, responses and failures still arriving for an operation
+ *  are ignored, and setComplete() does nothing.
  */
 
 public abstract class FutureOperation<T, U, S> implements RiakFuture<T,S>
@@ -87,94 +102,191 @@ public abstract class FutureOperation<T, U, S> implements RiakFuture<T,S>
         CLEANUP_WAIT
     }
 
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<FutureOperation, State> STATE =
+        AtomicReferenceFieldUpdater.newUpdater(FutureOperation.class, State.class, "state");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<FutureOperation, ListenerNode> LISTENERS =
+        AtomicReferenceFieldUpdater.newUpdater(FutureOperation.class, ListenerNode.class, "listeners");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<FutureOperation> REMAINING_TRIES =
+        AtomicIntegerFieldUpdater.newUpdater(FutureOperation.class, "remainingTries");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<FutureOperation, CompletableFuture> STAGE =
+        AtomicReferenceFieldUpdater.newUpdater(FutureOperation.class, CompletableFuture.class, "stage");
+    // Replaces the listener stack once listeners have been fired
+    @SuppressWarnings("rawtypes")
+    private static final ListenerNode FIRED = new ListenerNode<>(null, null);
+
     private final Logger logger = LoggerFactory.getLogger(FutureOperation.class);
-    private final CountDownLatch latch = new CountDownLatch(1);
     private volatile OperationRetrier retrier;
     private volatile int remainingTries = 1;
-    private volatile List<U> rawResponses = new LinkedList<>();
+    // The first response is held on its own; a List is only needed for more
+    private U firstResponse;
+    private List<U> rawResponses;
+    private int responseCount;
     private volatile Throwable exception;
     private volatile T converted;
     private volatile State state = State.CREATED;
     private volatile RiakNode lastNode;
-
-    private final ReentrantLock listenersLock = new ReentrantLock();
-    private final HashSet<RiakFutureListener<T,S>> listeners = new HashSet<>();
-    private volatile boolean listenersFired = false;
-
-    @Override
-    public void addListener(RiakFutureListener<T,S> listener)
+    private volatile long executedNanos;
+    private volatile long queuedNanos;
+    private volatile int deadlineInMillis;
+    private volatile Timeout deadlineTimeout;
+    private volatile Executor listenerExecutor;
+    private volatile CompletableFuture<T> stage;
+    private volatile ListenerNode<T,S> listeners;
+
+    private static class ListenerNode<T,S>
     {
-        boolean fireNow = false;
-        listenersLock.lock();
-        try
+        volatile RiakFutureListener<T,S> listener;
+        final ListenerNode<T,S> next;
+
+        ListenerNode(RiakFutureListener<T,S> listener, ListenerNode<T,S> next)
         {
-            if (listenersFired)
-            {
-                fireNow = true;
-            }
-            else
-            {
-                listeners.add(listener);
-            }
+            this.listener = listener;
+            this.next = next;
         }
-        finally
+    }
+
+    // Pushed by a thread blocking for the result
+    private static final class Waiter<T,S> extends ListenerNode<T,S>
+    {
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        Waiter(ListenerNode<T,S> next)
         {
-            listenersLock.unlock();
+            super(null, next);
         }
+    }
 
-        // the future has already been completed, fire on caller's thread
-        if (fireNow)
+    @Override
+    public void addListener(RiakFutureListener<T,S> listener)
+    {
+        if (!push(listener))
         {
-            listener.handle(this);
+            // the future has already been completed, fire on caller's thread
+            ListenerTimings.notify(listener, this);
         }
     }
 
     @Override
     public void removeListener(RiakFutureListener<T,S> listener)
     {
-        listenersLock.lock();
-        try
+        // The node stays on the stack; a null listener is skipped when firing
+        for (ListenerNode<T,S> node = listeners; node != null && node != FIRED; node = node.next)
         {
-            if (!listenersFired)
+            if (listener.equals(node.listener))
             {
-                listeners.remove(listener);
-            } // else, we don't care, they've already been fired
+                node.listener = null;
+            }
         }
-        finally
+    }
+
+    /**
+     * Pushes a listener onto the stack.
+     * @return false if the listeners have already been fired.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean push(RiakFutureListener<T,S> listener)
+    {
+        for (;;)
         {
-            listenersLock.unlock();
+            final ListenerNode<T,S> head = listeners;
+            if (head == FIRED)
+            {
+                return false;
+            }
+            if (LISTENERS.compareAndSet(this, head, new ListenerNode<>(listener, head)))
+            {
+                return true;
+            }
         }
     }
 
-    private void fireListeners()
+    /**
+     * Pushes a waiter onto the stack.
+     * @return the waiter, or null if the listeners have already been fired.
+     */
+    @SuppressWarnings("unchecked")
+    private Waiter<T,S> pushWaiter()
     {
-        boolean fireNow = false;
-        listenersLock.lock();
-        try
+        for (;;)
         {
-            if (!listenersFired)
+            final ListenerNode<T,S> head = listeners;
+            if (head == FIRED)
+            {
+                return null;
+            }
+            final Waiter<T,S> waiter = new Waiter<>(head);
+            if (LISTENERS.compareAndSet(this, head, waiter))
             {
-                fireNow = true;
-                listenersFired = true;
+                return waiter;
             }
         }
-        finally
+    }
+
+    @SuppressWarnings("unchecked")
+    private void fireListeners()
+    {
+        ListenerNode<T,S> node = LISTENERS.getAndSet(this, FIRED);
+        for (; node != null && node != FIRED; node = node.next)
         {
-            listenersLock.unlock();
+            if (node instanceof Waiter)
+            {
+                ((Waiter<T,S>) node).latch.countDown();
+            }
+            else
+            {
+                final RiakFutureListener<T,S> listener = node.listener;
+                if (listener != null)
+                {
+                    notifyListener(listener);
+                }
+            }
         }
+    }
 
-        if (fireNow)
+    private void notifyListener(final RiakFutureListener<T,S> listener)
+    {
+        final Executor executor = listenerExecutor;
+        if (executor != null && !(listener instanceof InlineRiakFutureListener))
         {
-            for (RiakFutureListener<T,S> listener : listeners)
+            try
             {
-                listener.handle(this);
+                executor.execute(() -> listener.handle(FutureOperation.this));
+                return;
+            }
+            catch (RejectedExecutionException ex)
+            {
+                logger.warn("Listener executor rejected listener; running it inline.");
             }
         }
+
+        ListenerTimings.notify(listener, this);
+    }
+
+    /**
+     * Sets the executor listeners are notified on when this operation completes.
+     * @param executor the executor, or null to notify on the completing thread.
+     * @see RiakCluster.Builder#withListenerExecutor(Executor)
+     */
+    final void setListenerExecutor(Executor executor)
+    {
+        this.listenerExecutor = executor;
+    }
+
+    final Executor getListenerExecutor()
+    {
+        return listenerExecutor;
     }
 
-    final synchronized void setRetrier(OperationRetrier retrier, int numTries)
+    final void setRetrier(OperationRetrier retrier, int numTries)
     {
-        stateCheck(State.CREATED);
+        if (state != State.CREATED)
+        {
+            throw illegalState("[CREATED]", state);
+        }
         this.retrier = retrier;
         this.remainingTries = numTries;
     }
@@ -189,10 +301,73 @@ public abstract class FutureOperation<T, U, S> implements RiakFuture<T,S>
         this.lastNode = node;
     }
 
+    final void setExecutedNanos(long nanos)
+    {
+        this.executedNanos = nanos;
+    }
+
+    final long getExecutedNanos()
+    {
+        return executedNanos;
+    }
+
+    final void setQueuedNanos(long nanos)
+    {
+        this.queuedNanos = nanos;
+    }
+
+    final long getQueuedNanos()
+    {
+        return queuedNanos;
+    }
+
+    /**
+     * Sets a client-side deadline for each attempt of this operation.
+     * <p>
+     * If Riak has not replied within the deadline the connection is closed and
+     * the attempt fails with a {@link TimeoutException}; it is retried if
+     * attempts remain. Overrides the node's default.
+     * </p>
+     * @param deadlineInMillis the deadline in milliseconds. 0 uses the node's default.
+     * @see RiakNode.Builder#withOperationDeadline(int)
+     */
+    public final void setDeadline(int deadlineInMillis)
+    {
+        if (deadlineInMillis < 0)
+        {
+            throw new IllegalArgumentException("Deadline cannot be negative");
+        }
+        this.deadlineInMillis = deadlineInMillis;
+    }
+
+    public final int getDeadline()
+    {
+        return deadlineInMillis;
+    }
+
+    final void setDeadlineTimeout(Timeout timeout)
+    {
+        this.deadlineTimeout = timeout;
+    }
+
+    private void cancelDeadlineTimeout()
+    {
+        final Timeout timeout = deadlineTimeout;
+        if (timeout != null)
+        {
+            timeout.cancel();
+            deadlineTimeout = null;
+        }
+    }
+
     // Exposed for testing.
-    public synchronized final void setResponse(RiakMessage rawResponse)
+    public final void setResponse(RiakMessage rawResponse)
     {
-        stateCheck(State.CREATED, State.WRITTEN, State.RETRY);
+        if (state == State.CANCELLED)
+        {
+            return;
+        }
+        checkAcceptsResult(state);
         U decodedMessage = decode(rawResponse);
 
         processMessage(decodedMessage);
@@ -201,12 +376,17 @@ public abstract class FutureOperation<T, U, S> implements RiakFuture<T,S>
         if (done(decodedMessage))
         {
             logger.debug("Setting to Cleanup Wait State");
-            remainingTries--;
+            cancelDeadlineTimeout();
+            if (!transitionFromResult(State.CLEANUP_WAIT))
+            {
+                return;
+            }
+            // Only the caller that moved the state on uses up a try
+            final int tries = REMAINING_TRIES.decrementAndGet(this);
             if (retrier != null)
             {
-                retrier.operationComplete(this, remainingTries);
+                retrier.operationComplete(this, tries);
             }
-            state = State.CLEANUP_WAIT;
         }
     }
 
@@ -217,18 +397,79 @@ public abstract class FutureOperation<T, U, S> implements RiakFuture<T,S>
 
     protected void processBatchMessage(U decodedMessage)
     {
-        this.rawResponses.add(decodedMessage);
+        if (responseCount == 0)
+        {
+            firstResponse = decodedMessage;
+        }
+        else
+        {
+            if (rawResponses == null)
+            {
+                rawResponses = new ArrayList<>();
+                rawResponses.add(firstResponse);
+            }
+            rawResponses.add(decodedMessage);
+        }
+        responseCount++;
+    }
+
+    private List<U> rawResponses()
+    {
+        switch (responseCount)
+        {
+            case 0:
+                return Collections.emptyList();
+            case 1:
+                return Collections.singletonList(firstResponse);
+            default:
+                return rawResponses;
+        }
     }
 
-    public synchronized final void setComplete()
+    public final void setComplete()
     {
         logger.debug("Setting Complete on future");
-        stateCheck(State.CLEANUP_WAIT);
-        state = State.COMPLETE;
-        latch.countDown();
+        if (!STATE.compareAndSet(this, State.CLEANUP_WAIT, State.COMPLETE))
+        {
+            if (state == State.CANCELLED)
+            {
+                return;
+            }
+            throw illegalState("[CLEANUP_WAIT]", state);
+        }
+        final CompletableFuture<T> current = stage;
+        if (current != null)
+        {
+            RiakFuture.completeStage(current, this);
+        }
         fireListeners();
     }
 
+    /**
+     * Returns a stage completed directly when this operation completes,
+     * without going through a listener.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public final CompletionStage<T> toCompletionStage()
+    {
+        CompletableFuture<T> current = stage;
+        if (current == null)
+        {
+            current = new CompletableFuture<>();
+            if (!STAGE.compareAndSet(this, null, current))
+            {
+                return stage;
+            }
+            // setComplete() or cancel() may have looked for the stage before it was set
+            if (isFinished(state))
+            {
+                RiakFuture.completeStage(current, this);
+            }
+        }
+        return current;
+    }
+
     /**
      * Detect when the streaming operation is finished
      *
@@ -240,40 +481,165 @@ public abstract class FutureOperation<T, U, S> implements RiakFuture<T,S>
         return true;
     }
 
-    synchronized final void setException(Throwable t)
+    /**
+     * Whether Riak may send more than one response message for this operation.
+     * <p>
+     * Such operations are never pipelined behind or in front of other
+     * operations; they always get exclusive use of a connection.
+     * </p>
+     *
+     * @return true if this is a streaming (multi-response) operation
+     * @see #done(java.lang.Object)
+     */
+    protected boolean isMultiResponse()
+    {
+        return false;
+    }
+
+    /**
+     * Fails the operation with its last exception without further retries.
+     */
+    final void abortRetries()
+    {
+        remainingTries = 1;
+        setException(exception);
+    }
+
+    /**
+     * Creates an unexecuted duplicate of this operation that may be sent to
+     * another node while this one is in flight.
+     * <p>
+     * Only operations that are idempotent (reads) may return one. It is
+     * created before this operation is executed.
+     * </p>
+     *
+     * @return a new operation sending the same request, or null if this
+     * operation can't be hedged.
+     * @see RiakCluster.Builder#withHedgedReads(int, int)
+     * @since 2.1.2
+     */
+    protected FutureOperation<T, U, S> createHedge()
+    {
+        return null;
+    }
+
+    final void setException(Throwable t)
     {
-        stateCheck(State.CREATED, State.WRITTEN, State.RETRY);
+        if (state == State.CANCELLED)
+        {
+            return;
+        }
+        checkAcceptsResult(state);
+        cancelDeadlineTimeout();
         this.exception = t;
 
-        remainingTries--;
-        if (remainingTries == 0)
+        final boolean lastTry = remainingTries <= 1;
+        if (!transitionFromResult(lastTry ? State.CLEANUP_WAIT : State.RETRY))
         {
-            // Connection should be returned before calling
-            state = State.CLEANUP_WAIT;
-            setComplete();
+            return;
         }
-        else
+        // Only the caller that moved the state on uses up a try
+        final int tries = REMAINING_TRIES.decrementAndGet(this);
+        if (lastTry)
         {
-            state = State.RETRY;
+            // Connection should be returned before calling
+            setComplete();
         }
 
         if (retrier != null)
         {
-            retrier.operationFailed(this, remainingTries);
+            retrier.operationFailed(this, tries);
         }
     }
 
-    public synchronized final Object channelMessage()
+    public final Object channelMessage()
     {
         final Object message = createChannelMessage();
-        state = State.WRITTEN;
-        return message;
+        for (;;)
+        {
+            final State current = state;
+            // A cancelled operation that still gets written is left to drain
+            if (current == State.CANCELLED || STATE.compareAndSet(this, current, State.WRITTEN))
+            {
+                return message;
+            }
+        }
+    }
+
+    /**
+     * Called once the operation has been written to a connection.
+     * @param channel the connection it will receive its response on.
+     */
+    protected void attachChannel(Channel channel)
+    {
+    }
+
+    /**
+     * Whether the operation is waiting for its response on a connection.
+     */
+    protected final boolean isWritten()
+    {
+        return state == State.WRITTEN;
     }
 
+    /**
+     * Cancels this operation if it hasn't completed.
+     * <p>
+     * A queued operation is removed from the cluster's queues. An operation
+     * in flight is abandoned; if it is streaming its connection is closed so
+     * Riak stops sending, otherwise its response is discarded when it arrives.
+     * Either way the connection's pool permit is released. Listeners are
+     * notified and {@link #get()} throws a {@link CancellationException}.
+     * </p>
+     * @param mayInterruptIfRunning ignored; no thread is interrupted.
+     * @return false if the operation had already completed or been cancelled.
+     */
     @Override
     public final boolean cancel(boolean mayInterruptIfRunning)
     {
-        return false;
+        for (;;)
+        {
+            final State current = state;
+            if (!acceptsResult(current))
+            {
+                return false;
+            }
+            if (STATE.compareAndSet(this, current, State.CANCELLED))
+            {
+                break;
+            }
+        }
+
+        logger.debug("Operation {} cancelled", System.identityHashCode(this));
+        cancelDeadlineTimeout();
+        onCancelled();
+
+        final OperationRetrier r = retrier;
+        if (r != null)
+        {
+            r.operationCancelled(this);
+        }
+        final RiakNode node = lastNode;
+        if (node != null)
+        {
+            node.operationCancelled(this);
+        }
+
+        final CompletableFuture<T> current = stage;
+        if (current != null)
+        {
+            RiakFuture.completeStage(current, this);
+        }
+        fireListeners();
+        return true;
+    }
+
+    /**
+     * Called once when this operation is cancelled, before listeners are
+     * notified. Subclasses can release anything held for the response.
+     */
+    protected void onCancelled()
+    {
     }
 
     @Override
@@ -285,13 +651,15 @@ public abstract class FutureOperation<T, U, S> implements RiakFuture<T,S>
     @Override
     public final boolean isDone()
     {
-        return state == State.COMPLETE || state == State.CLEANUP_WAIT;
+        final State current = state;
+        return current == State.COMPLETE || current == State.CLEANUP_WAIT || current == State.CANCELLED;
     }
 
     @Override
     public final boolean isSuccess()
     {
-        return (isDone() && exception == null);
+        final State current = state;
+        return (current == State.COMPLETE || current == State.CLEANUP_WAIT) && exception == null;
     }
 
     @Override
@@ -301,6 +669,10 @@ public abstract class FutureOperation<T, U, S> implements RiakFuture<T,S>
         {
             return null;
         }
+        else if (state == State.CANCELLED)
+        {
+            return new CancellationException("Operation was cancelled");
+        }
         else
         {
             return exception;
@@ -310,7 +682,7 @@ public abstract class FutureOperation<T, U, S> implements RiakFuture<T,S>
     @Override
     public final T get() throws InterruptedException, ExecutionException
     {
-        latch.await();
+        await();
 
         throwExceptionIfSet();
 
@@ -324,6 +696,10 @@ public abstract class FutureOperation<T, U, S> implements RiakFuture<T,S>
 
     private void throwExceptionIfSet() throws ExecutionException
     {
+        if (state == State.CANCELLED)
+        {
+            throw new CancellationException("Operation was cancelled");
+        }
         if (exception != null)
         {
             throw new ExecutionException(exception);
@@ -334,7 +710,7 @@ public abstract class FutureOperation<T, U, S> implements RiakFuture<T,S>
     {
         try
         {
-            converted = convert(rawResponses);
+            converted = convert(rawResponses());
         }
         catch (IllegalArgumentException ex)
         {
@@ -346,7 +722,7 @@ public abstract class FutureOperation<T, U, S> implements RiakFuture<T,S>
     @Override
     public final T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException
     {
-        boolean succeed = latch.await(timeout, unit);
+        boolean succeed = await(timeout, unit);
 
         if (!succeed)
         {
@@ -366,11 +742,11 @@ public abstract class FutureOperation<T, U, S> implements RiakFuture<T,S>
     @Override
     public final T getNow()
     {
-        if (latch.getCount() < 1)
+        if (state == State.COMPLETE)
         {
             if (null == converted)
             {
-                converted = convert(rawResponses);
+                converted = convert(rawResponses());
             }
 
             return converted;
@@ -384,13 +760,28 @@ public abstract class FutureOperation<T, U, S> implements RiakFuture<T,S>
     @Override
     public final void await() throws InterruptedException
     {
-        latch.await();
+        if (!isFinished(state))
+        {
+            final Waiter<T,S> waiter = pushWaiter();
+            if (waiter != null)
+            {
+                waiter.latch.await();
+            }
+        }
     }
 
     @Override
     public final boolean await(long timeout, TimeUnit unit) throws InterruptedException
     {
-        return latch.await(timeout, unit);
+        if (!isFinished(state))
+        {
+            final Waiter<T,S> waiter = pushWaiter();
+            if (waiter != null)
+            {
+                return waiter.latch.await(timeout, unit);
+            }
+        }
+        return true;
     }
 
     protected U checkAndGetSingleResponse(List<U> responses)
@@ -404,18 +795,52 @@ public abstract class FutureOperation<T, U, S> implements RiakFuture<T,S>
         return responses.get(0);
     }
 
-    private void stateCheck(State... allowedStates)
+    private void checkAcceptsResult(State current)
     {
-        if (Arrays.binarySearch(allowedStates, state) < 0)
+        if (!acceptsResult(current))
         {
-            logger.debug("IllegalStateException; required: {} current: {} ",
-                         Arrays.toString(allowedStates), state);
-            throw new IllegalStateException("required: "
-                                                    + Arrays.toString(allowedStates)
-                                                    + " current: " + state);
+            throw illegalState("[CREATED, WRITTEN, RETRY]", current);
         }
     }
 
+    private static boolean acceptsResult(State current)
+    {
+        return current == State.CREATED || current == State.WRITTEN || current == State.RETRY;
+    }
+
+    // Complete, or cancelled; listeners have been or are being fired
+    private static boolean isFinished(State current)
+    {
+        return current == State.COMPLETE || current == State.CANCELLED;
+    }
+
+    /**
+     * Moves out of a state that accepts a result.
+     * @return false if the operation was cancelled, or another thread's
+     * result was accepted, instead.
+     */
+    private boolean transitionFromResult(State next)
+    {
+        for (;;)
+        {
+            final State current = state;
+            if (current == State.CANCELLED || !acceptsResult(current))
+            {
+                return false;
+            }
+            if (STATE.compareAndSet(this, current, next))
+            {
+                return true;
+            }
+        }
+    }
+
+    private IllegalStateException illegalState(String required, State current)
+    {
+        logger.debug("IllegalStateException; required: {} current: {} ", required, current);
+        return new IllegalStateException("required: " + required + " current: " + current);
+    }
+
     abstract protected T convert(List<U> rawResponse);
 
     abstract protected RiakMessage createChannelMessage();
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.core;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides when a hedge is sent for a hedgeable operation.
+ * <p>
+ * The delay is either fixed or the observed 95th percentile latency of the
+ * operation's type. The number of hedges is capped at a percentage of
+ * hedgeable operations executed.
+ * </p>
+ */
+class HedgePolicy
+{
+    static final int SAMPLE_WINDOW = 256;
+    static final int MIN_SAMPLES = 32;
+    private static final int RECOMPUTE_INTERVAL = 32;
+
+    private final int fixedDelayMillis;
+    private final RetryBudget budget;
+    private final ConcurrentHashMap<Class<?>, LatencyWindow> windows = new ConcurrentHashMap<>();
+
+    /**
+     * @param fixedDelayMillis the hedge delay, or 0 to use the observed p95.
+     * @param maxHedgePercent hedges allowed as a percentage of hedgeable operations.
+     */
+    HedgePolicy(int fixedDelayMillis, int maxHedgePercent)
+    {
+        if (fixedDelayMillis < 0 || maxHedgePercent < 0 || maxHedgePercent > 100)
+        {
+            throw new IllegalArgumentException("delay cannot be negative and maxHedgePercent must be 0-100");
+        }
+        this.fixedDelayMillis = fixedDelayMillis;
+        this.budget = new RetryBudget(maxHedgePercent, 0);
+    }
+
+    /**
+     * Called for every hedgeable operation executed.
+     * @return the delay after which to hedge it, or -1 if it shouldn't be.
+     */
+    long onExecute(FutureOperation operation)
+    {
+        budget.deposit();
+        if (fixedDelayMillis > 0)
+        {
+            return fixedDelayMillis;
+        }
+        final LatencyWindow window = windows.get(operation.getClass());
+        return window == null ? -1 : window.p95Millis;
+    }
+
+    boolean tryHedge()
+    {
+        return budget.tryWithdraw();
+    }
+
+    void recordLatency(FutureOperation operation, long nanos)
+    {
+        if (fixedDelayMillis > 0)
+        {
+            return;
+        }
+        LatencyWindow window = windows.get(operation.getClass());
+        if (window == null)
+        {
+            final LatencyWindow newWindow = new LatencyWindow();
+            window = windows.putIfAbsent(operation.getClass(), newWindow);
+            if (window == null)
+            {
+                window = newWindow;
+            }
+        }
+        window.record(nanos);
+    }
+
+    private static class LatencyWindow
+    {
+        private final long[] samples = new long[SAMPLE_WINDOW];
+        private int count;
+        private int next;
+        private volatile long p95Millis = -1;
+
+        synchronized void record(long nanos)
+        {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            if (count < samples.length)
+            {
+                count++;
+            }
+
+            if (count >= MIN_SAMPLES && next % RECOMPUTE_INTERVAL == 0)
+            {
+                final long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                final int index = (int) Math.ceil(count * 0.95) - 1;
+                p95Millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(sorted[index]));
+            }
+        }
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.core;
+
+import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The future returned for a hedged operation.
+ * <p>
+ * Completes with the first successful response from either the original
+ * operation or its hedge, or with the original's failure if both fail.
+ * The one still outstanding when the other succeeds is cancelled so it
+ * gives back its connection and permits.
+ * </p>
+ */
+class HedgedRiakFuture<V, S> implements RiakFuture<V, S>, InlineRiakFutureListener<V, S>
+{
+    private final Logger logger = LoggerFactory.getLogger(HedgedRiakFuture.class);
+    private final FutureOperation<V, ?, S> primary;
+    private final HedgePolicy policy;
+    private final long startNanos = System.nanoTime();
+    private final CountDownLatch latch = new CountDownLatch(1);
+    private final ReentrantLock listenersLock = new ReentrantLock();
+    private final HashSet<RiakFutureListener<V, S>> listeners = new HashSet<>();
+    private boolean listenersFired;
+    private int outstanding = 1;
+    private RiakFuture<V, S> failure;
+    private FutureOperation<V, ?, S> hedge;
+    private volatile RiakFuture<V, S> winner;
+
+    HedgedRiakFuture(FutureOperation<V, ?, S> primary, HedgePolicy policy)
+    {
+        this.primary = primary;
+        this.policy = policy;
+        primary.addListener(this);
+    }
+
+    /**
+     * Registers the hedge before it is executed.
+     * @return false if this future has already completed.
+     */
+    synchronized boolean addHedge(FutureOperation<V, ?, S> hedge)
+    {
+        if (winner != null)
+        {
+            return false;
+        }
+        outstanding++;
+        this.hedge = hedge;
+        hedge.addListener(this);
+        return true;
+    }
+
+    @Override
+    public void handle(RiakFuture<V, S> f)
+    {
+        final FutureOperation<V, ?, S> loser;
+        synchronized (this)
+        {
+            if (winner != null)
+            {
+                return;
+            }
+            outstanding--;
+            if (f == primary || failure == null)
+            {
+                failure = f;
+            }
+            if (f.isSuccess())
+            {
+                winner = f;
+            }
+            else if (outstanding == 0)
+            {
+                winner = failure;
+            }
+            else
+            {
+                return;
+            }
+            loser = f == primary ? hedge : primary;
+        }
+
+        if (f.isSuccess())
+        {
+            // Time to the first success, whichever side it came from; only
+            // sampling the original would miss exactly the slow ones that
+            // lose to their hedge.
+            policy.recordLatency(primary, System.nanoTime() - startNanos);
+        }
+
+        latch.countDown();
+        fireListeners();
+
+        if (loser != null && !loser.isDone())
+        {
+            loser.cancel(false);
+        }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning)
+    {
+        final FutureOperation<V, ?, S> sent;
+        synchronized (this)
+        {
+            if (winner != null)
+            {
+                return false;
+            }
+            sent = hedge;
+        }
+        // Completes this future, with the primary's cancellation, once both are done
+        boolean cancelled = primary.cancel(mayInterruptIfRunning);
+        if (sent != null)
+        {
+            cancelled |= sent.cancel(mayInterruptIfRunning);
+        }
+        return cancelled;
+    }
+
+    @Override
+    public V get() throws InterruptedException, ExecutionException
+    {
+        latch.await();
+        return winner.get();
+    }
+
+    @Override
+    public V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException
+    {
+        if (!latch.await(timeout, unit))
+        {
+            throw new TimeoutException();
+        }
+        return winner.get();
+    }
+
+    @Override
+    public boolean isCancelled()
+    {
+        final RiakFuture<V, S> done = winner;
+        return done != null && done.isCancelled();
+    }
+
+    @Override
+    public boolean isDone()
+    {
+        return winner != null;
+    }
+
+    @Override
+    public void await() throws InterruptedException
+    {
+        latch.await();
+    }
+
+    @Override
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        return latch.await(timeout, unit);
+    }
+
+    @Override
+    public V getNow()
+    {
+        final RiakFuture<V, S> f = winner;
+        return f == null ? null : f.getNow();
+    }
+
+    @Override
+    public boolean isSuccess()
+    {
+        final RiakFuture<V, S> f = winner;
+        return f != null && f.isSuccess();
+    }
+
+    @Override
+    public Throwable cause()
+    {
+        final RiakFuture<V, S> f = winner;
+        return f == null ? null : f.cause();
+    }
+
+    @Override
+    public S getQueryInfo()
+    {
+        return primary.getQueryInfo();
+    }
+
+    @Override
+    public void addListener(RiakFutureListener<V, S> listener)
+    {
+        boolean fired;
+        listenersLock.lock();
+        try
+        {
+            fired = listenersFired;
+            if (!fired)
+            {
+                listeners.add(listener);
+            }
+        }
+        finally
+        {
+            listenersLock.unlock();
+        }
+
+        if (fired)
+        {
+            notifyListener(listener);
+        }
+    }
+
+    @Override
+    public void removeListener(RiakFutureListener<V, S> listener)
+    {
+        listenersLock.lock();
+        try
+        {
+            if (!listenersFired)
+            {
+                listeners.remove(listener);
+            }
+        }
+        finally
+        {
+            listenersLock.unlock();
+        }
+    }
+
+    private void fireListeners()
+    {
+        listenersLock.lock();
+        try
+        {
+            listenersFired = true;
+        }
+        finally
+        {
+            listenersLock.unlock();
+        }
+
+        for (RiakFutureListener<V, S> listener : listeners)
+        {
+            notifyListener(listener);
+        }
+    }
+
+    private void notifyListener(final RiakFutureListener<V, S> listener)
+    {
+        final Executor executor = primary.getListenerExecutor();
+        if (executor != null && !(listener instanceof InlineRiakFutureListener))
+        {
+            try
+            {
+                executor.execute(() -> listener.handle(HedgedRiakFuture.this));
+                return;
+            }
+            catch (RejectedExecutionException ex)
+            {
+                logger.warn("Listener executor rejected listener; running it inline.");
+            }
+        }
+
+        ListenerTimings.notify(listener, this);
+    }
+}
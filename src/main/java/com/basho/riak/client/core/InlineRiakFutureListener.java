@@ -0,0 +1,34 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.core;
+
+/**
+ * A listener that is always notified on the thread completing the future.
+ * <p>
+ * When a listener executor is configured via
+ * {@link RiakCluster.Builder#withListenerExecutor(java.util.concurrent.Executor)}
+ * listeners are normally handed off to it. Listeners implementing this
+ * interface skip the hand-off, which is appropriate for cheap bookkeeping
+ * that never blocks. Such listeners may run on a Netty I/O thread.
+ * </p>
+ *
+ * @param <T> The response type
+ * @param <S> The query info type
+ * @since 2.1.2
+ */
+public interface InlineRiakFutureListener<T,S> extends RiakFutureListener<T,S>
+{
+}
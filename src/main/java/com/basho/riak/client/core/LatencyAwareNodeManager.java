@@ -0,0 +1,257 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.core;
+
+import com.basho.riak.client.core.RiakNode.State;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link NodeManager} that favours the nodes answering fastest.
+ * <p>
+ * For each {@link RiakNode} this NodeManager tracks the number of operations
+ * it has in flight and an exponentially weighted moving average (EWMA) of
+ * their latency. Each operation is sent using "power of two choices": two
+ * healthy nodes are picked at random and the one with the lower
+ * {@code EWMA * (in-flight + 1)} score is tried first. A node that is slow but
+ * still alive (GC pauses, AAE rebuilds, a hot vnode) therefore receives
+ * proportionally less traffic, without the herding that always picking the
+ * single best node would cause.
+ * </p>
+ * <p>
+ * Until both candidates have latency data, or if neither can accept the
+ * operation, it falls back to the round-robin of {@link DefaultNodeManager}.
+ * An attempt that fails counts as at least twice the node's current average.
+ * </p>
+ *
+ * @since 2.1.2
+ */
+public class LatencyAwareNodeManager extends DefaultNodeManager
+{
+    /**
+     * The default weight given to each new latency sample: {@value #DEFAULT_ALPHA}
+     */
+    public static final double DEFAULT_ALPHA = 0.3;
+
+    private final double alpha;
+    private final ConcurrentHashMap<RiakNode, NodeStats> stats = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<FutureOperation, Attempt> attempts = new ConcurrentHashMap<>();
+    private final RiakFutureListener<Object, Object> completionListener =
+        new InlineRiakFutureListener<Object, Object>()
+        {
+            @Override
+            public void handle(RiakFuture<Object, Object> f)
+            {
+                final Attempt attempt = attempts.remove(f);
+                if (attempt != null)
+                {
+                    attempt.finish(f.isSuccess());
+                }
+            }
+        };
+
+    public LatencyAwareNodeManager()
+    {
+        this(DEFAULT_ALPHA);
+    }
+
+    /**
+     * @param alpha the weight, between 0 and 1, given to each new latency sample.
+     */
+    public LatencyAwareNodeManager(double alpha)
+    {
+        if (alpha <= 0 || alpha > 1)
+        {
+            throw new IllegalArgumentException("alpha must be greater than 0 and at most 1");
+        }
+        this.alpha = alpha;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean executeOnNode(FutureOperation operation, RiakNode previousNode)
+    {
+        final List<RiakNode> nodes = getHealthyNodes();
+        final int size = nodes.size();
+        RiakNode chosen = null;
+
+        if (size > 1)
+        {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            final int i = random.nextInt(size);
+            final int j = (i + 1 + random.nextInt(size - 1)) % size;
+            final RiakNode a = nodes.get(i);
+            final RiakNode b = nodes.get(j);
+            final NodeStats statsA = statsFor(a);
+            final NodeStats statsB = statsFor(b);
+
+            if (statsA.hasLatency() && statsB.hasLatency())
+            {
+                // A retry prefers the candidate it didn't last fail on, then
+                // one that isn't ramping up after recovery
+                final boolean aDeclines = a.declinesTraffic();
+                final boolean bDeclines = b.declinesTraffic();
+                final boolean aFirst = b == previousNode
+                    || (a != previousNode && (aDeclines != bDeclines ? bDeclines : statsA.score() <= statsB.score()));
+                final RiakNode first = aFirst ? a : b;
+                final RiakNode second = aFirst ? b : a;
+
+                if (first.execute(operation))
+                {
+                    chosen = first;
+                }
+                else if (second.execute(operation))
+                {
+                    chosen = second;
+                }
+            }
+        }
+
+        if (chosen == null)
+        {
+            if (!super.executeOnNode(operation, previousNode))
+            {
+                return false;
+            }
+            chosen = operation.getLastNode();
+        }
+
+        started(operation, chosen);
+        return true;
+    }
+
+    @Override
+    public void nodeStateChanged(RiakNode node, State state)
+    {
+        super.nodeStateChanged(node, state);
+        if (state == State.SHUTDOWN)
+        {
+            stats.remove(node);
+        }
+    }
+
+    @Override
+    public boolean removeNode(RiakNode node)
+    {
+        boolean removed = super.removeNode(node);
+        stats.remove(node);
+        return removed;
+    }
+
+    /**
+     * Returns the latency EWMA for the node.
+     * @param node the node
+     * @return the average latency in nanoseconds, or -1 if there is no data yet.
+     */
+    public long getAverageLatencyNanos(RiakNode node)
+    {
+        final NodeStats nodeStats = stats.get(node);
+        return nodeStats == null ? -1 : (long) nodeStats.ewma;
+    }
+
+    /**
+     * Returns the number of operations this NodeManager has in flight on the node.
+     * @param node the node
+     * @return the number of operations in flight.
+     */
+    public int getInFlight(RiakNode node)
+    {
+        final NodeStats nodeStats = stats.get(node);
+        return nodeStats == null ? 0 : nodeStats.inFlight.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void started(FutureOperation operation, RiakNode node)
+    {
+        final NodeStats nodeStats = statsFor(node);
+        nodeStats.inFlight.incrementAndGet();
+
+        final Attempt previous = attempts.put(operation, new Attempt(nodeStats, System.nanoTime()));
+        if (previous == null)
+        {
+            operation.addListener(completionListener);
+        }
+        else
+        {
+            // This is a retry; the previous attempt failed
+            previous.finish(false);
+        }
+    }
+
+    // Exposed for testing.
+    void recordLatency(RiakNode node, long nanos)
+    {
+        statsFor(node).record(nanos, true);
+    }
+
+    private NodeStats statsFor(RiakNode node)
+    {
+        NodeStats nodeStats = stats.get(node);
+        if (nodeStats == null)
+        {
+            final NodeStats newStats = new NodeStats();
+            nodeStats = stats.putIfAbsent(node, newStats);
+            if (nodeStats == null)
+            {
+                nodeStats = newStats;
+            }
+        }
+        return nodeStats;
+    }
+
+    private class NodeStats
+    {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile double ewma = -1;
+
+        boolean hasLatency()
+        {
+            return ewma >= 0;
+        }
+
+        double score()
+        {
+            return ewma * (inFlight.get() + 1);
+        }
+
+        synchronized void record(long nanos, boolean success)
+        {
+            double sample = success ? nanos : Math.max(nanos, ewma * 2);
+            ewma = ewma < 0 ? sample : alpha * sample + (1 - alpha) * ewma;
+        }
+    }
+
+    private static class Attempt
+    {
+        private final NodeStats nodeStats;
+        private final long startNanos;
+
+        Attempt(NodeStats nodeStats, long startNanos)
+        {
+            this.nodeStats = nodeStats;
+            this.startNanos = startNanos;
+        }
+
+        void finish(boolean success)
+        {
+            nodeStats.inFlight.decrementAndGet();
+            nodeStats.record(System.nanoTime() - startNanos, success);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.core;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations with power-of-two microsecond buckets.
+ * <p>
+ * Bucket {@code i} counts durations below {@code 2^i} microseconds (and at
+ * least {@code 2^(i-1)}); the last bucket also counts anything longer.
+ * Percentiles are therefore accurate to within a factor of two, which is
+ * plenty to tell microseconds from milliseconds.
+ * </p>
+ *
+ * @since 2.1.2
+ */
+public final class LatencyHistogram
+{
+    /**
+     * The number of buckets; the last one starts at about 1 second.
+     */
+    public static final int BUCKETS = 22;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    /**
+     * Records a duration.
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(long nanos)
+    {
+        final long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(nanos, 0));
+        final int bucket = Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+        counts.incrementAndGet(bucket);
+        count.increment();
+        totalNanos.add(nanos);
+    }
+
+    /**
+     * @return the number of durations recorded.
+     */
+    public long getCount()
+    {
+        return count.sum();
+    }
+
+    /**
+     * @return the mean duration in nanoseconds, or 0 if none were recorded.
+     */
+    public long getMeanNanos()
+    {
+        final long n = count.sum();
+        return n == 0 ? 0 : totalNanos.sum() / n;
+    }
+
+    /**
+     * @return a snapshot of the bucket counts.
+     * @see #getBucketUpperBoundMicros(int)
+     */
+    public long[] getBucketCounts()
+    {
+        final long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            snapshot[i] = counts.get(i);
+        }
+        return snapshot;
+    }
+
+    /**
+     * @param bucket the bucket index
+     * @return the exclusive upper bound of the bucket in microseconds;
+     * {@code Long.MAX_VALUE} for the last bucket.
+     */
+    public static long getBucketUpperBoundMicros(int bucket)
+    {
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+    }
+
+    /**
+     * Returns an upper bound for a percentile.
+     * @param percentile the percentile, between 0 and 100
+     * @return the upper bound, in microseconds, of the bucket holding the
+     * percentile, or 0 if nothing was recorded.
+     */
+    public long getPercentileMicros(double percentile)
+    {
+        final long[] snapshot = getBucketCounts();
+        long total = 0;
+        for (long c : snapshot)
+        {
+            total += c;
+        }
+        if (total == 0)
+        {
+            return 0;
+        }
+
+        final long target = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            seen += snapshot[i];
+            if (seen >= target && snapshot[i] > 0)
+            {
+                return getBucketUpperBoundMicros(i);
+            }
+        }
+        return getBucketUpperBoundMicros(BUCKETS - 1);
+    }
+}
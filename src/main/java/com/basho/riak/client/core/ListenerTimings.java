@@ -0,0 +1,133 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.core;
+
+import io.netty.util.concurrent.FastThreadLocalThread;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how long {@link RiakFutureListener}s hold Netty I/O threads.
+ * <p>
+ * While a listener runs on an I/O thread no other connection served by that
+ * event loop is read from or written to. Listeners that run on an I/O thread
+ * are timed, and any taking longer than {@value #SLOW_LISTENER_MILLIS}ms are
+ * logged as a warning. If these numbers are significant, configure a listener
+ * executor with
+ * {@link RiakCluster.Builder#withListenerExecutor(java.util.concurrent.Executor)}.
+ * </p>
+ *
+ * @since 2.1.2
+ */
+public final class ListenerTimings
+{
+    /**
+     * Listeners holding an I/O thread longer than this are logged.
+     */
+    public static final long SLOW_LISTENER_MILLIS = 10;
+
+    private static final Logger logger = LoggerFactory.getLogger(ListenerTimings.class);
+    private static final long SLOW_LISTENER_NANOS = TimeUnit.MILLISECONDS.toNanos(SLOW_LISTENER_MILLIS);
+    private static final LongAdder invocations = new LongAdder();
+    private static final LongAdder totalNanos = new LongAdder();
+    private static final AtomicLong maxNanos = new AtomicLong();
+
+    private ListenerTimings()
+    {
+    }
+
+    /**
+     * Notifies the listener, timing it if the current thread is an I/O thread.
+     *
+     * @param listener the listener to notify
+     * @param future the completed future
+     */
+    public static <T,S> void notify(RiakFutureListener<T,S> listener, RiakFuture<T,S> future)
+    {
+        if (!(Thread.currentThread() instanceof FastThreadLocalThread))
+        {
+            listener.handle(future);
+            return;
+        }
+
+        final long start = System.nanoTime();
+        try
+        {
+            listener.handle(future);
+        }
+        finally
+        {
+            record(System.nanoTime() - start, listener);
+        }
+    }
+
+    private static void record(long nanos, Object listener)
+    {
+        invocations.increment();
+        totalNanos.add(nanos);
+
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos))
+        {
+            max = maxNanos.get();
+        }
+
+        if (nanos > SLOW_LISTENER_NANOS)
+        {
+            logger.warn("Listener {} held I/O thread {} for {}ms",
+                        listener.getClass().getName(), Thread.currentThread().getName(),
+                        TimeUnit.NANOSECONDS.toMillis(nanos));
+        }
+    }
+
+    /**
+     * @return the number of listener invocations that ran on an I/O thread.
+     */
+    public static long getIoThreadInvocations()
+    {
+        return invocations.sum();
+    }
+
+    /**
+     * @return the total time listeners have held I/O threads, in nanoseconds.
+     */
+    public static long getIoThreadNanos()
+    {
+        return totalNanos.sum();
+    }
+
+    /**
+     * @return the longest a single listener has held an I/O thread, in nanoseconds.
+     */
+    public static long getMaxIoThreadNanos()
+    {
+        return maxNanos.get();
+    }
+
+    /**
+     * Resets all counters.
+     */
+    public static void reset()
+    {
+        invocations.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+}
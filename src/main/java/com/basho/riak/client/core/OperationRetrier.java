@@ -24,4 +24,13 @@ public interface OperationRetrier
 {
     public void operationFailed(FutureOperation operation, int remainingRetries);
     public void operationComplete(FutureOperation operation, int remainingRetries);
+
+    /**
+     * Called when an operation is cancelled before it completed.
+     * @param operation the cancelled operation.
+     * @since 2.1.2
+     */
+    public default void operationCancelled(FutureOperation operation)
+    {
+    }
 }
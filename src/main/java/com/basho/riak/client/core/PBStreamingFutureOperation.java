@@ -19,8 +19,8 @@ package com.basho.riak.client.core;
 import com.basho.riak.client.core.operations.PBFutureOperation;
 import com.basho.riak.protobuf.RiakKvPB;
 import com.google.protobuf.GeneratedMessage;
+import io.netty.channel.Channel;
 
-import java.util.concurrent.LinkedTransferQueue;
 import java.util.concurrent.TransferQueue;
 
 /**
@@ -34,8 +34,11 @@ public abstract class PBStreamingFutureOperation<ReturnType, ResponseType, Query
         extends PBFutureOperation<ReturnType, ResponseType, QueryInfoType>
         implements StreamingRiakFuture<ReturnType, QueryInfoType>
 {
-    private final TransferQueue<ReturnType> responseQueue;
+    private final StreamingResultsQueue<ReturnType> responseQueue;
     private boolean streamResults;
+    private volatile Runnable chunkListener;
+    private volatile Channel channel;
+    private volatile boolean autoRead = true;
 
     protected PBStreamingFutureOperation(final byte reqMessageCode,
                                          final byte respMessageCode,
@@ -45,7 +48,54 @@ public abstract class PBStreamingFutureOperation<ReturnType, ResponseType, Query
     {
         super(reqMessageCode, respMessageCode, reqBuilder, respParser);
         this.streamResults = streamResults;
-        this.responseQueue = streamResults ? new LinkedTransferQueue<>() : null;
+        this.responseQueue = streamResults ? new StreamingResultsQueue<>() : null;
+        if (streamResults)
+        {
+            responseQueue.setWatermarkListener(new StreamingResultsQueue.WatermarkListener()
+            {
+                @Override
+                public void watermarkCrossed(boolean above)
+                {
+                    // The queue's current state is read when this is applied;
+                    // crossings reported from different threads can arrive
+                    // out of order.
+                    final Channel c = channel;
+                    if (c != null)
+                    {
+                        applyAutoRead(c);
+                    }
+                }
+            });
+            addListener(new InlineRiakFutureListener<ReturnType, QueryInfoType>()
+            {
+                @Override
+                public void handle(RiakFuture<ReturnType, QueryInfoType> f)
+                {
+                    responseQueue.close();
+                }
+            });
+        }
+    }
+
+    /**
+     * Bounds the number of results held in the results queue.
+     * <p>
+     * Once {@code highWatermark} results are queued, reading from the
+     * connection stops until the consumer has brought the queue down to
+     * {@code lowWatermark}. Has no effect when results aren't streamed.
+     * </p>
+     *
+     * @param lowWatermark the number of queued results at which reading resumes.
+     * @param highWatermark the number of queued results at which reading stops;
+     *                      0 leaves the queue unbounded.
+     * @since 2.1.2
+     */
+    public void setQueueWatermarks(int lowWatermark, int highWatermark)
+    {
+        if (responseQueue != null)
+        {
+            responseQueue.setWatermarks(lowWatermark, highWatermark);
+        }
     }
 
     @Override
@@ -61,6 +111,78 @@ public abstract class PBStreamingFutureOperation<ReturnType, ResponseType, Query
         assert this.responseQueue != null;
         final boolean chunkAdded = responseQueue.offer(r);
         assert chunkAdded;
+
+        final Runnable listener = chunkListener;
+        if (listener != null)
+        {
+            listener.run();
+        }
+    }
+
+    @Override
+    public void setChunkListener(Runnable listener)
+    {
+        this.chunkListener = listener;
+    }
+
+    @Override
+    public void setAutoRead(boolean autoRead)
+    {
+        this.autoRead = autoRead;
+        final Channel c = channel;
+        if (c != null)
+        {
+            applyAutoRead(c);
+        }
+    }
+
+    @Override
+    protected void attachChannel(Channel channel)
+    {
+        this.channel = channel;
+        if (!autoRead || isAboveHighWatermark())
+        {
+            applyAutoRead(channel);
+        }
+    }
+
+    private void applyAutoRead(final Channel c)
+    {
+        // Run on the event loop so it's ordered with the response that
+        // completes the operation; the connection must not be paused once
+        // it's been returned to the pool.
+        c.eventLoop().execute(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                if (channel == c && isWritten())
+                {
+                    c.config().setAutoRead(autoRead && !isAboveHighWatermark());
+                }
+            }
+        });
+    }
+
+    private boolean isAboveHighWatermark()
+    {
+        return responseQueue != null && responseQueue.isAboveHighWatermark();
+    }
+
+    @Override
+    protected void onCancelled()
+    {
+        // Nobody is going to consume what has been queued
+        if (responseQueue != null)
+        {
+            responseQueue.clear();
+        }
+    }
+
+    @Override
+    protected boolean isMultiResponse()
+    {
+        return true;
     }
 
     abstract protected ReturnType processStreamingChunk(ResponseType rawResponseChunk);
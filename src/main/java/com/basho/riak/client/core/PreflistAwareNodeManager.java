@@ -0,0 +1,415 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.core;
+
+import com.basho.riak.client.core.RiakNode.State;
+import com.basho.riak.client.core.netty.RiakResponseException;
+import com.basho.riak.client.core.operations.FetchPreflistOperation;
+import com.basho.riak.client.core.query.Location;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link NodeManager} that sends key/value operations to a node that is a
+ * primary for the key.
+ * <p>
+ * Any node in a Riak cluster can coordinate any request, but a node that does
+ * not own the key forwards it to one that does, adding a hop over the
+ * intra-cluster network. This NodeManager caches the preference list for each
+ * bucket type, bucket and key it sees (fetched with a
+ * {@link FetchPreflistOperation} the first time the key is used) and routes
+ * subsequent operations whose query info is a {@link Location} to one of its
+ * primaries. Everything else, and any key whose preflist is not yet known, is
+ * round-robined by {@link DefaultNodeManager}.
+ * </p>
+ * <p>
+ * Riak identifies nodes by their Erlang name (e.g. {@code riak@10.0.0.1});
+ * the host part is matched against {@link RiakNode#getRemoteAddress()}. When
+ * that is ambiguous or doesn't match (several nodes on one host, DNS names vs.
+ * IPs) use {@link #mapNodeName(String, RiakNode)}.
+ * </p>
+ * <p>
+ * Cached entries that refer to a node are dropped when that node changes
+ * state, the whole cache is dropped when a node is added or recovers (ring
+ * ownership may be moving), and an entry is dropped after
+ * {@code maxMisses} operations could not be sent to any of its primaries.
+ * If the cluster does not support the preflist request (Riak before 2.1)
+ * this NodeManager behaves exactly like DefaultNodeManager.
+ * </p>
+ * <p>
+ * Preflists are cached per key, so each key's first operation costs an
+ * extra {@code RpbGetBucketKeyPreflistReq}. This pays off when keys are
+ * used repeatedly; with many keys that are each used only once or twice it
+ * mostly adds traffic. Preflist requests are therefore capped at
+ * {@code maxFetchesPerSecond}; keys not fetched within the cap are simply
+ * round-robined. A failed preflist request is retried the next time the key
+ * is used.
+ * </p>
+ *
+ * @since 2.1.2
+ */
+public class PreflistAwareNodeManager extends DefaultNodeManager
+{
+    /**
+     * The default maximum number of cached preflists: {@value #DEFAULT_CACHE_SIZE}
+     */
+    public static final int DEFAULT_CACHE_SIZE = 10000;
+    /**
+     * The default number of misses after which a cached preflist is dropped: {@value #DEFAULT_MAX_MISSES}
+     */
+    public static final int DEFAULT_MAX_MISSES = 3;
+    /**
+     * The default maximum number of preflist requests per second: {@value #DEFAULT_MAX_FETCHES_PER_SECOND}
+     */
+    public static final int DEFAULT_MAX_FETCHES_PER_SECOND = 100;
+
+    // What Riak replies to a message code it doesn't know
+    private static final String UNKNOWN_MESSAGE_CODE = "Unknown message code";
+    private static final long FETCH_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Logger logger = LoggerFactory.getLogger(PreflistAwareNodeManager.class);
+    private final int cacheSize;
+    private final int maxMisses;
+    private final int maxFetchesPerSecond;
+    private final AtomicLong fetchWindowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger fetchesInWindow = new AtomicInteger();
+    private final ConcurrentHashMap<Location, Entry> cache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, RiakNode> nodeNames = new ConcurrentHashMap<>();
+    private volatile boolean preflistSupported = true;
+
+    public PreflistAwareNodeManager()
+    {
+        this(DEFAULT_CACHE_SIZE, DEFAULT_MAX_MISSES);
+    }
+
+    /**
+     * @param cacheSize the maximum number of preflists to cache.
+     * @param maxMisses the number of misses after which a cached preflist is dropped.
+     */
+    public PreflistAwareNodeManager(int cacheSize, int maxMisses)
+    {
+        this(cacheSize, maxMisses, DEFAULT_MAX_FETCHES_PER_SECOND);
+    }
+
+    /**
+     * @param cacheSize the maximum number of preflists to cache.
+     * @param maxMisses the number of misses after which a cached preflist is dropped.
+     * @param maxFetchesPerSecond the maximum number of preflist requests sent per second.
+     */
+    public PreflistAwareNodeManager(int cacheSize, int maxMisses, int maxFetchesPerSecond)
+    {
+        if (cacheSize < 1 || maxMisses < 1 || maxFetchesPerSecond < 1)
+        {
+            throw new IllegalArgumentException("cacheSize, maxMisses and maxFetchesPerSecond must be at least 1");
+        }
+        this.cacheSize = cacheSize;
+        this.maxMisses = maxMisses;
+        this.maxFetchesPerSecond = maxFetchesPerSecond;
+    }
+
+    /**
+     * Maps a Riak node name to a RiakNode.
+     * <p>
+     * Only needed when the host part of the name doesn't identify exactly one
+     * RiakNode by its remote address.
+     * </p>
+     * @param riakNodeName the Erlang node name, e.g. {@code riak@10.0.0.1}
+     * @param node the RiakNode connected to it.
+     */
+    public void mapNodeName(String riakNodeName, RiakNode node)
+    {
+        nodeNames.put(riakNodeName, node);
+        cache.clear();
+    }
+
+    @Override
+    public boolean executeOnNode(FutureOperation operation, RiakNode previousNode)
+    {
+        final Object queryInfo = operation.getQueryInfo();
+        if (!(queryInfo instanceof Location) || operation instanceof FetchPreflistOperation)
+        {
+            return super.executeOnNode(operation, previousNode);
+        }
+
+        final Location location = (Location) queryInfo;
+        final Entry entry = cache.get(location);
+
+        if (entry == null)
+        {
+            fetchPreflist(location);
+        }
+        else if (entry.primaries != null && !entry.primaries.isEmpty())
+        {
+            final List<RiakNode> primaries = entry.primaries;
+            final List<RiakNode> healthyNodes = getHealthyNodes();
+            final int size = primaries.size();
+            final int start = ThreadLocalRandom.current().nextInt(size);
+            boolean missed = previousNode != null && primaries.contains(previousNode);
+
+            for (int i = 0; i < size; i++)
+            {
+                RiakNode node = primaries.get((start + i) % size);
+                if (node != previousNode && healthyNodes.contains(node) && node.execute(operation))
+                {
+                    if (missed)
+                    {
+                        entry.miss();
+                    }
+                    return true;
+                }
+            }
+
+            entry.miss();
+        }
+
+        return super.executeOnNode(operation, previousNode);
+    }
+
+    @Override
+    public void nodeStateChanged(RiakNode node, State state)
+    {
+        super.nodeStateChanged(node, state);
+        switch (state)
+        {
+            case RUNNING:
+                // A recovered node may be taking its partitions back
+                cache.clear();
+                break;
+            case HEALTH_CHECKING:
+            case SHUTTING_DOWN:
+            case SHUTDOWN:
+                invalidate(node);
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void addNode(RiakNode newNode)
+    {
+        super.addNode(newNode);
+        cache.clear();
+    }
+
+    @Override
+    public boolean removeNode(RiakNode node)
+    {
+        boolean removed = super.removeNode(node);
+        invalidate(node);
+        nodeNames.values().remove(node);
+        return removed;
+    }
+
+    /**
+     * Returns the primaries cached for a location.
+     * @param location the location
+     * @return the nodes operations on the location are routed to, or an empty list if none are known.
+     */
+    public List<RiakNode> getCachedPrimaries(Location location)
+    {
+        final Entry entry = cache.get(location);
+        if (entry == null || entry.primaries == null)
+        {
+            return Collections.emptyList();
+        }
+        return entry.primaries;
+    }
+
+    /**
+     * Drops all cached preflists.
+     */
+    public void invalidateAll()
+    {
+        cache.clear();
+    }
+
+    private void invalidate(RiakNode node)
+    {
+        for (Iterator<Entry> i = cache.values().iterator(); i.hasNext();)
+        {
+            final List<RiakNode> primaries = i.next().primaries;
+            if (primaries != null && primaries.contains(node))
+            {
+                i.remove();
+            }
+        }
+    }
+
+    private void fetchPreflist(final Location location)
+    {
+        if (!preflistSupported || cache.containsKey(location) || !tryAcquireFetch())
+        {
+            return;
+        }
+
+        final Entry pending = new Entry(location);
+        if (cache.putIfAbsent(location, pending) != null)
+        {
+            return;
+        }
+        evictIfFull();
+
+        final FetchPreflistOperation operation = new FetchPreflistOperation.Builder(location).build();
+        operation.addListener(new InlineRiakFutureListener<FetchPreflistOperation.Response, Location>()
+        {
+            @Override
+            public void handle(RiakFuture<FetchPreflistOperation.Response, Location> f)
+            {
+                if (f.isSuccess())
+                {
+                    pending.primaries = resolve(f.getNow().getPrimaryNodes());
+                }
+                else
+                {
+                    // Fetched again the next time the key is used
+                    cache.remove(location, pending);
+                    if (isUnsupported(f.cause()))
+                    {
+                        logger.info("Preflist request not supported by the cluster; routing round-robin. {}",
+                                    f.cause().getMessage());
+                        preflistSupported = false;
+                    }
+                    else
+                    {
+                        logger.debug("Preflist request for {} failed; {}", location, f.cause());
+                    }
+                }
+            }
+        });
+
+        if (!super.executeOnNode(operation, null))
+        {
+            cache.remove(location, pending);
+        }
+    }
+
+    /**
+     * Whether a failed preflist request means the cluster doesn't support it,
+     * rather than a transient error.
+     */
+    static boolean isUnsupported(Throwable cause)
+    {
+        if (!(cause instanceof RiakResponseException))
+        {
+            return false;
+        }
+        final String message = cause.getMessage();
+        return message != null && message.startsWith(UNKNOWN_MESSAGE_CODE);
+    }
+
+    private boolean tryAcquireFetch()
+    {
+        final long now = System.nanoTime();
+        final long start = fetchWindowStart.get();
+        if (now - start >= FETCH_WINDOW_NANOS && fetchWindowStart.compareAndSet(start, now))
+        {
+            fetchesInWindow.set(0);
+        }
+        return fetchesInWindow.get() < maxFetchesPerSecond
+            && fetchesInWindow.incrementAndGet() <= maxFetchesPerSecond;
+    }
+
+    // Exposed for testing.
+    void cachePrimaries(Location location, List<String> riakNodeNames)
+    {
+        final Entry entry = new Entry(location);
+        entry.primaries = resolve(riakNodeNames);
+        cache.put(location, entry);
+    }
+
+    private List<RiakNode> resolve(List<String> riakNodeNames)
+    {
+        final List<RiakNode> healthyNodes = getHealthyNodes();
+        final List<RiakNode> resolved = new ArrayList<>(riakNodeNames.size());
+
+        for (String name : riakNodeNames)
+        {
+            RiakNode node = nodeNames.get(name);
+            if (node == null)
+            {
+                final String host = name.substring(name.indexOf('@') + 1);
+                for (RiakNode candidate : healthyNodes)
+                {
+                    if (host.equalsIgnoreCase(candidate.getRemoteAddress()))
+                    {
+                        if (node != null)
+                        {
+                            // Ambiguous; several nodes on one host
+                            node = null;
+                            break;
+                        }
+                        node = candidate;
+                    }
+                }
+            }
+
+            if (node != null && !resolved.contains(node))
+            {
+                resolved.add(node);
+            }
+        }
+
+        return Collections.unmodifiableList(resolved);
+    }
+
+    private void evictIfFull()
+    {
+        if (cache.size() > cacheSize)
+        {
+            // Approximate: evict whatever the iterator yields first
+            final Iterator<Map.Entry<Location, Entry>> i = cache.entrySet().iterator();
+            while (cache.size() > cacheSize && i.hasNext())
+            {
+                i.next();
+                i.remove();
+            }
+        }
+    }
+
+    private class Entry
+    {
+        private final Location location;
+        // null while the preflist is being fetched
+        private volatile List<RiakNode> primaries;
+        private final AtomicInteger misses = new AtomicInteger();
+
+        Entry(Location location)
+        {
+            this.location = location;
+        }
+
+        void miss()
+        {
+            if (misses.incrementAndGet() >= maxMisses)
+            {
+                cache.remove(location, this);
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.core;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps retries (or hedges) at a percentage of live traffic.
+ * <p>
+ * Every new operation deposits {@code percent / 100} of a retry, and every
+ * retry withdraws a whole one. On top of that a fixed number of retries per
+ * second is always allowed so a quiet client can still retry. Savings are
+ * capped so a long quiet period can't be spent in one burst.
+ * </p>
+ */
+class RetryBudget
+{
+    private static final long SCALE = 1000;
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long deposit;
+    private final long maxBalance;
+    private final int minRetriesPerSecond;
+    private final AtomicLong balance = new AtomicLong();
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger reserveUsed = new AtomicInteger();
+
+    RetryBudget(int percent, int minRetriesPerSecond)
+    {
+        if (percent < 0 || minRetriesPerSecond < 0)
+        {
+            throw new IllegalArgumentException("percent and minRetriesPerSecond cannot be negative");
+        }
+        this.deposit = percent * SCALE / 100;
+        // What 1000 operations would have deposited
+        this.maxBalance = Math.max(SCALE, deposit * 1000);
+        this.minRetriesPerSecond = minRetriesPerSecond;
+    }
+
+    void deposit()
+    {
+        long current;
+        do
+        {
+            current = balance.get();
+            if (current >= maxBalance)
+            {
+                return;
+            }
+        } while (!balance.compareAndSet(current, Math.min(maxBalance, current + deposit)));
+    }
+
+    boolean tryWithdraw()
+    {
+        final long now = System.nanoTime();
+        final long start = windowStart.get();
+        if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now))
+        {
+            reserveUsed.set(0);
+        }
+
+        if (reserveUsed.get() < minRetriesPerSecond
+            && reserveUsed.incrementAndGet() <= minRetriesPerSecond)
+        {
+            return true;
+        }
+
+        long current;
+        do
+        {
+            current = balance.get();
+            if (current < SCALE)
+            {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+}
@@ -17,13 +17,26 @@ package com.basho.riak.client.core;
 
 import com.basho.riak.client.core.util.HostAndPort;
 import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollMode;
+import io.netty.channel.epoll.EpollSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.DefaultPromise;
+import io.netty.util.concurrent.GenericFutureListener;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import io.netty.util.concurrent.Promise;
 
 import java.net.UnknownHostException;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.slf4j.Logger;
@@ -44,18 +57,47 @@ import org.slf4j.LoggerFactory;
 public class  RiakCluster implements OperationRetrier, NodeStateListener
 {
     enum State { CREATED, RUNNING, QUEUING, SHUTTING_DOWN, SHUTDOWN }
+
+    private static final long DRAIN_SIGNAL_TIMEOUT_MILLIS = 50;
     private final Logger logger = LoggerFactory.getLogger(RiakCluster.class);
     private final int executionAttempts;
     private final NodeManager nodeManager;
     private final AtomicInteger inFlightCount = new AtomicInteger();
     private final ScheduledExecutorService executor;
     private final Bootstrap bootstrap;
+    private final HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS);
+    private final Executor listenerExecutor;
     private final List<RiakNode> nodeList;
     private final ReentrantReadWriteLock nodeListLock = new ReentrantReadWriteLock();
     private final LinkedBlockingQueue<FutureOperation> retryQueue = new LinkedBlockingQueue<>();
+    private final int retryBaseDelayMillis;
+    private final int retryMaxDelayMillis;
+    private final RetryBudget retryBudget;
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder retriesOverBudget = new LongAdder();
+    private final LongAdder retryDelayMillis = new LongAdder();
+    private final HedgePolicy hedgePolicy;
+    private final LongAdder hedges = new LongAdder();
     private final boolean queueOperations;
     private final ConcurrentLinkedDeque<FutureOperation> operationQueue;
     private final RiakNode.Sync operationQueuePermits;
+    // Released whenever a queued operation may be able to run; see QueueDrainTask
+    private final Semaphore drainSignal = new Semaphore(0);
+    private final Runnable drainSignaller = new Runnable()
+    {
+        @Override
+        public void run()
+        {
+            if (!operationQueue.isEmpty() && drainSignal.availablePermits() == 0)
+            {
+                drainSignal.release();
+            }
+        }
+    };
+    private final LatencyHistogram queueWaitHistogram = new LatencyHistogram();
+    private final int startupReadyPercent;
+    private final int streamingLowWatermark;
+    private final int streamingHighWatermark;
     private final List<NodeStateListener> stateListeners =
         Collections.synchronizedList(new LinkedList<NodeStateListener>());
 
@@ -63,13 +105,24 @@ public class  RiakCluster implements OperationRetrier, NodeStateListener
     private volatile ScheduledFuture<?> retrierFuture;
     private volatile ScheduledFuture<?> queueDrainFuture;
 
+    private volatile long startupReadyMillis = -1;
+    private volatile long startupMillis = -1;
+
     private volatile State state;
     private final CountDownLatch shutdownLatch = new CountDownLatch(1);
 
     private RiakCluster(Builder builder)
     {
         this.executionAttempts = builder.executionAttempts;
+        this.listenerExecutor = builder.listenerExecutor;
         this.queueOperations =  builder.operationQueueMaxDepth > 0;
+        this.retryBaseDelayMillis = builder.retryBaseDelayMillis;
+        this.retryMaxDelayMillis = builder.retryMaxDelayMillis;
+        this.retryBudget = builder.retryBudget;
+        this.hedgePolicy = builder.hedgePolicy;
+        this.startupReadyPercent = builder.startupReadyPercent;
+        this.streamingLowWatermark = builder.streamingLowWatermark;
+        this.streamingHighWatermark = builder.streamingHighWatermark;
 
         if (null == builder.nodeManager)
         {
@@ -84,8 +137,23 @@ public class  RiakCluster implements OperationRetrier, NodeStateListener
         {
             this.bootstrap = builder.bootstrap.clone();
         }
+        else if (builder.useEpollTransport && Epoll.isAvailable())
+        {
+            logger.info("Using native epoll transport");
+            this.bootstrap = new Bootstrap()
+                .group(new EpollEventLoopGroup())
+                .channel(EpollSocketChannel.class)
+                .option(EpollChannelOption.EPOLL_MODE,
+                        builder.epollEdgeTriggered ? EpollMode.EDGE_TRIGGERED : EpollMode.LEVEL_TRIGGERED)
+                .option(EpollChannelOption.TCP_QUICKACK, builder.tcpQuickAck);
+        }
         else
         {
+            if (builder.useEpollTransport)
+            {
+                logger.warn("Native epoll transport unavailable, falling back to NIO; {}",
+                            Epoll.unavailabilityCause().toString());
+            }
             this.bootstrap = new Bootstrap()
                 .group(new NioEventLoopGroup())
                 .channel(NioSocketChannel.class);
@@ -109,6 +177,11 @@ public class  RiakCluster implements OperationRetrier, NodeStateListener
         {
             node.setExecutor(executor);
             node.setBootstrap(bootstrap);
+            node.setTimer(timer);
+            if (builder.maxPendingFlushes >= 0)
+            {
+                node.setFlushConsolidation(builder.maxPendingFlushes);
+            }
             node.addStateListener(nodeManager);
             nodeList.add(node);
         }
@@ -121,6 +194,7 @@ public class  RiakCluster implements OperationRetrier, NodeStateListener
             for (RiakNode node : nodeList)
             {
                 node.setBlockOnMaxConnections(false);
+                node.setCapacityListener(drainSignaller);
             }
         }
         else
@@ -165,6 +239,91 @@ public class  RiakCluster implements OperationRetrier, NodeStateListener
             }
         }
 
+        startTasks();
+    }
+
+    /**
+     * Starts this cluster without waiting for its nodes' minimum connections.
+     * <p>
+     * Where {@link #start()} starts the nodes one after another, each opening
+     * its connections in turn, here every node is started with
+     * {@link RiakNode#startAsync()} so all of their minimum connections,
+     * including TLS and authentication, are opened concurrently. The cluster
+     * accepts operations as soon as this returns.
+     * </p>
+     *
+     * @return a future that is {@code true} once the share of minimum connections
+     *         set by {@link Builder#withStartupReadyPercent(int)} is up, or
+     *         {@code false} if every connection was attempted without reaching it.
+     * @since 2.1.2
+     * @see #getStartupReadyMillis()
+     * @see #getStartupMillis()
+     */
+    public synchronized Future<Boolean> startAsync()
+    {
+        stateCheck(State.CREATED);
+        final long startNanos = System.nanoTime();
+        final List<RiakNode> nodes = getNodes();
+
+        int totalConnections = 0;
+        for (RiakNode node : nodes)
+        {
+            totalConnections += node.getMinConnections();
+        }
+        final int readyConnections = (int) Math.ceil(totalConnections * startupReadyPercent / 100.0);
+
+        final Promise<Boolean> readyPromise = new DefaultPromise<>(GlobalEventExecutor.INSTANCE);
+        final AtomicInteger connections = new AtomicInteger();
+        // One extra so startup can't complete before every node has been started
+        final AtomicInteger startingNodes = new AtomicInteger(nodes.size() + 1);
+
+        final Runnable connectionListener = new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                if (connections.incrementAndGet() == readyConnections)
+                {
+                    startupReady(readyPromise, startNanos);
+                }
+            }
+        };
+
+        final GenericFutureListener<io.netty.util.concurrent.Future<RiakNode>> nodeListener =
+            new GenericFutureListener<io.netty.util.concurrent.Future<RiakNode>>()
+            {
+                @Override
+                public void operationComplete(io.netty.util.concurrent.Future<RiakNode> future)
+                {
+                    nodeStartupComplete(startingNodes, readyPromise, startNanos);
+                }
+            };
+
+        for (RiakNode node : nodes)
+        {
+            try
+            {
+                node.startAsync(connectionListener).addListener(nodeListener);
+            }
+            catch (UnknownHostException e)
+            {
+                logger.error("RiakCluster::startAsync - Failed starting node: {}", e.getMessage());
+                nodeStartupComplete(startingNodes, readyPromise, startNanos);
+            }
+        }
+
+        startTasks();
+
+        if (readyConnections == 0)
+        {
+            startupReady(readyPromise, startNanos);
+        }
+        nodeStartupComplete(startingNodes, readyPromise, startNanos);
+        return readyPromise;
+    }
+
+    private void startTasks()
+    {
         retrierFuture = executor.schedule(new RetryTask(), 0, TimeUnit.SECONDS);
 
         if (this.queueOperations)
@@ -176,6 +335,58 @@ public class  RiakCluster implements OperationRetrier, NodeStateListener
         state = State.RUNNING;
     }
 
+    private void startupReady(Promise<Boolean> readyPromise, long startNanos)
+    {
+        final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        if (startupReadyMillis < 0)
+        {
+            startupReadyMillis = elapsed;
+        }
+        if (readyPromise.trySuccess(true))
+        {
+            logger.info("RiakCluster is ready after {}ms.", elapsed);
+        }
+    }
+
+    private void nodeStartupComplete(AtomicInteger startingNodes, Promise<Boolean> readyPromise, long startNanos)
+    {
+        if (startingNodes.decrementAndGet() == 0)
+        {
+            startupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            if (readyPromise.trySuccess(false))
+            {
+                logger.warn("RiakCluster started in {}ms without reaching {}% of its minimum connections.",
+                            startupMillis, startupReadyPercent);
+            }
+            else
+            {
+                logger.info("RiakCluster attempted all minimum connections in {}ms.", startupMillis);
+            }
+        }
+    }
+
+    /**
+     * Returns how long {@link #startAsync()} took to become ready.
+     * @return the time in milliseconds, or -1 if the cluster isn't ready yet.
+     * @since 2.1.2
+     * @see Builder#withStartupReadyPercent(int)
+     */
+    public long getStartupReadyMillis()
+    {
+        return startupReadyMillis;
+    }
+
+    /**
+     * Returns how long {@link #startAsync()} took to attempt every node's
+     * minimum connections.
+     * @return the time in milliseconds, or -1 if startup hasn't finished.
+     * @since 2.1.2
+     */
+    public long getStartupMillis()
+    {
+        return startupMillis;
+    }
+
     public synchronized Future<Boolean> shutdown()
     {
         stateCheck(State.RUNNING, State.QUEUING);
@@ -221,11 +432,87 @@ public class  RiakCluster implements OperationRetrier, NodeStateListener
 
     public <V,S> RiakFuture<V,S> execute(FutureOperation<V, ?, S> operation)
     {
-        return executeFutureOperation(operation);
+        // Duplicated before it's executed; its request is built while writing
+        final FutureOperation<V, ?, S> hedge = hedgePolicy == null ? null : operation.createHedge();
+        final RiakFuture<V,S> future = executeFutureOperation(operation);
+        if (hedge == null)
+        {
+            return future;
+        }
+        return hedge(operation, hedge);
+    }
+
+    private <V,S> RiakFuture<V,S> hedge(final FutureOperation<V, ?, S> operation,
+                                        final FutureOperation<V, ?, S> hedge)
+    {
+        final HedgedRiakFuture<V,S> future = new HedgedRiakFuture<>(operation, hedgePolicy);
+        final long delay = hedgePolicy.onExecute(operation);
+        if (delay >= 0)
+        {
+            scheduleHedge(operation, hedge, future, delay);
+        }
+        return future;
+    }
+
+    private <V,S> void scheduleHedge(final FutureOperation<V, ?, S> operation,
+                                     final FutureOperation<V, ?, S> hedge,
+                                     final HedgedRiakFuture<V,S> future,
+                                     final long delay)
+    {
+        if (future.isDone())
+        {
+            return;
+        }
+        timer.newTimeout(new TimerTask()
+        {
+            @Override
+            public void run(Timeout timeout)
+            {
+                sendHedge(operation, hedge, future, delay);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private <V,S> void sendHedge(FutureOperation<V, ?, S> operation, FutureOperation<V, ?, S> hedge,
+                                 HedgedRiakFuture<V,S> future, long delay)
+    {
+        if (future.isDone() || (state != State.RUNNING && state != State.QUEUING))
+        {
+            return;
+        }
+
+        if (operation.getLastNode() == null)
+        {
+            // Still queued or waiting for a connection; there's no node yet
+            // for the hedge to avoid, so look again later.
+            scheduleHedge(operation, hedge, future, Math.max(1, delay));
+            return;
+        }
+
+        if (!hedgePolicy.tryHedge())
+        {
+            return;
+        }
+
+        hedge.setDeadline(operation.getDeadline());
+        hedge.setRetrier(this, 1);
+        // The retrier executes it on a node other than the original's
+        hedge.setLastNode(operation.getLastNode());
+        if (future.addHedge(hedge))
+        {
+            logger.debug("hedging operation {}", System.identityHashCode(operation));
+            inFlightCount.incrementAndGet();
+            hedges.increment();
+            retryQueue.add(hedge);
+        }
     }
 
     public <V, S> StreamingRiakFuture<V,S> execute(PBStreamingFutureOperation<V, ?, S> operation)
     {
+        if (streamingHighWatermark > 0)
+        {
+            operation.setQueueWatermarks(streamingLowWatermark, streamingHighWatermark);
+        }
         execute((FutureOperation<V,?,S>)operation);
         // N.B. Currently the operation and future are one in the same,
         // so we can just return the operation to accomplish our
@@ -237,7 +524,15 @@ public class  RiakCluster implements OperationRetrier, NodeStateListener
     {
         stateCheck(State.RUNNING, State.QUEUING);
         operation.setRetrier(this, executionAttempts);
+        if (listenerExecutor != null && operation.getListenerExecutor() == null)
+        {
+            operation.setListenerExecutor(listenerExecutor);
+        }
         inFlightCount.incrementAndGet();
+        if (retryBudget != null)
+        {
+            retryBudget.deposit();
+        }
 
         boolean gotConnection = false;
 
@@ -279,6 +574,7 @@ public class  RiakCluster implements OperationRetrier, NodeStateListener
             return;
         }
 
+        operation.setQueuedNanos(System.nanoTime());
         operationQueue.offer(operation);
         verifyQueueStatus();
 
@@ -308,6 +604,7 @@ public class  RiakCluster implements OperationRetrier, NodeStateListener
         else
         {
             operationQueuePermits.release();
+            queueWaitHistogram.record(System.nanoTime() - operation.getQueuedNanos());
         }
 
         verifyQueueStatus();
@@ -336,6 +633,11 @@ public class  RiakCluster implements OperationRetrier, NodeStateListener
 
     private boolean execute(FutureOperation operation, RiakNode previousNode)
     {
+        if (operation.isCancelled())
+        {
+            // Nothing to run; treated as executed so it isn't queued again
+            return true;
+        }
         return nodeManager.executeOnNode(operation, previousNode);
     }
 
@@ -353,6 +655,11 @@ public class  RiakCluster implements OperationRetrier, NodeStateListener
         stateCheck(State.CREATED, State.RUNNING, State.QUEUING);
         node.setExecutor(executor);
         node.setBootstrap(bootstrap);
+        node.setTimer(timer);
+        if (queueOperations)
+        {
+            node.setCapacityListener(drainSignaller);
+        }
 
         try
         {
@@ -440,6 +747,7 @@ public class  RiakCluster implements OperationRetrier, NodeStateListener
                 {
                     this.state = State.SHUTDOWN;
                     executor.shutdown();
+                    timer.stop();
                     bootstrap.config().group().shutdownGracefully();
                     logger.debug("RiakCluster shut down bootstrap");
                     logger.info("RiakCluster has shut down");
@@ -459,7 +767,33 @@ public class  RiakCluster implements OperationRetrier, NodeStateListener
         logger.debug("operation {} failed; remaining retries: {}", System.identityHashCode(operation), remainingRetries);
         if (remainingRetries > 0)
         {
-            retryQueue.add(operation);
+            if (retryBudget != null && !retryBudget.tryWithdraw())
+            {
+                logger.debug("operation {} not retried; retry budget exhausted", System.identityHashCode(operation));
+                retriesOverBudget.increment();
+                // Comes back through here with no remaining retries
+                operation.abortRetries();
+                return;
+            }
+
+            retries.increment();
+            final long delay = retryDelay(executionAttempts - remainingRetries);
+            if (delay > 0)
+            {
+                retryDelayMillis.add(delay);
+                timer.newTimeout(new TimerTask()
+                {
+                    @Override
+                    public void run(Timeout timeout)
+                    {
+                        retryQueue.add(operation);
+                    }
+                }, delay, TimeUnit.MILLISECONDS);
+            }
+            else
+            {
+                retryQueue.add(operation);
+            }
         }
         else
         {
@@ -467,6 +801,62 @@ public class  RiakCluster implements OperationRetrier, NodeStateListener
         }
     }
 
+    // Exponential backoff with "full jitter": a random delay of up to
+    // base * 2^(attempt - 1), capped at the maximum.
+    private long retryDelay(int failedAttempts)
+    {
+        if (retryBaseDelayMillis <= 0)
+        {
+            return 0;
+        }
+        final int shift = Math.min(Math.max(failedAttempts - 1, 0), 30);
+        final long ceiling = Math.min((long) retryBaseDelayMillis << shift, retryMaxDelayMillis);
+        return 1 + ThreadLocalRandom.current().nextLong(ceiling);
+    }
+
+    /**
+     * Returns the number of retries this cluster has performed.
+     * @return the number of retries.
+     * @since 2.1.2
+     */
+    public long getRetryCount()
+    {
+        return retries.sum();
+    }
+
+    /**
+     * Returns the number of hedges this cluster has sent.
+     * @return the number of hedged requests.
+     * @since 2.1.2
+     * @see Builder#withHedgedReads(int, int)
+     */
+    public long getHedgeCount()
+    {
+        return hedges.sum();
+    }
+
+    /**
+     * Returns the number of retries refused because the retry budget was exhausted.
+     * @return the number of operations failed instead of being retried.
+     * @since 2.1.2
+     * @see Builder#withRetryBudget(int, int)
+     */
+    public long getRetriesOverBudgetCount()
+    {
+        return retriesOverBudget.sum();
+    }
+
+    /**
+     * Returns the total backoff applied to retries.
+     * @return the sum of all retry delays in milliseconds.
+     * @since 2.1.2
+     * @see Builder#withRetryBackoff(int, int)
+     */
+    public long getTotalRetryDelayMillis()
+    {
+        return retryDelayMillis.sum();
+    }
+
     @Override
     public void operationComplete(FutureOperation operation, int remainingRetries)
     {
@@ -474,6 +864,26 @@ public class  RiakCluster implements OperationRetrier, NodeStateListener
         logger.debug("operation {} complete; remaining retries: {}", System.identityHashCode(operation), remainingRetries);
     }
 
+    /**
+     * Removes a cancelled operation from the operation and retry queues.
+     * <p>
+     * If it has already been taken from a queue it is not executed; see
+     * {@link #execute(FutureOperation, RiakNode)}.
+     * </p>
+     */
+    @Override
+    public void operationCancelled(FutureOperation operation)
+    {
+        logger.debug("operation {} cancelled", System.identityHashCode(operation));
+        inFlightCount.decrementAndGet();
+        if (this.queueOperations && operationQueue.remove(operation))
+        {
+            operationQueuePermits.release();
+            verifyQueueStatus();
+        }
+        retryQueue.remove(operation);
+    }
+
     private void retryOperation() throws InterruptedException
     {
         FutureOperation operation = retryQueue.take();
@@ -492,26 +902,44 @@ public class  RiakCluster implements OperationRetrier, NodeStateListener
         FutureOperation operation = operationQueue.poll();
         if (operation == null)
         {
-            logger.debug("QueueDrainer - No queued operation available, sleeping.");
-            Thread.sleep(50);
+            logger.debug("QueueDrainer - No queued operation available, waiting.");
+            awaitDrainSignal();
             return;
         }
 
         boolean connectionSuccess = executeWithRequeueOnNoConnection(operation);
 
-        // If we didn't get a connection here, then we are thrashing on connections
-        // Sleep for a bit so we don't spinwait our CPUs to death
+        // If we didn't get a connection here, wait until a node frees one
+        // rather than spinning on the queue.
         if (!connectionSuccess)
         {
-            logger.debug("QueueDrainer - Pulled queued operation {}, but no connection available, sleeping.",
+            logger.debug("QueueDrainer - Pulled queued operation {}, but no connection available, waiting.",
                          System.identityHashCode(operation));
-
-            // TODO: should this timeout be configurable, or based on an
-            // average command execution time?
-            Thread.sleep(50);
+            awaitDrainSignal();
         }
     }
 
+    private void awaitDrainSignal() throws InterruptedException
+    {
+        // Nodes signal as soon as a connection or permit is freed. The timeout
+        // only covers capacity appearing some other way, e.g. a node recovering.
+        drainSignal.tryAcquire(DRAIN_SIGNAL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns how long operations waited in the operation queue.
+     * <p>
+     * Only operations that were queued are recorded.
+     * </p>
+     * @return the histogram of queue wait times.
+     * @since 2.1.2
+     * @see Builder#withOperationQueueMaxDepth(int)
+     */
+    public LatencyHistogram getQueueWaitHistogram()
+    {
+        return queueWaitHistogram;
+    }
+
     /**
      * Register a NodeStateListener.
      * <p>
@@ -680,6 +1108,18 @@ public class  RiakCluster implements OperationRetrier, NodeStateListener
         private NodeManager nodeManager;
         private ScheduledExecutorService executor;
         private Bootstrap bootstrap;
+        private boolean useEpollTransport;
+        private boolean epollEdgeTriggered = true;
+        private boolean tcpQuickAck;
+        private int maxPendingFlushes = -1;
+        private Executor listenerExecutor;
+        private int retryBaseDelayMillis;
+        private int retryMaxDelayMillis;
+        private RetryBudget retryBudget;
+        private HedgePolicy hedgePolicy;
+        private int startupReadyPercent = 100;
+        private int streamingLowWatermark;
+        private int streamingHighWatermark;
 
         /**
          * Instantiate a Builder containing the supplied {@link RiakNode}s
@@ -745,6 +1185,103 @@ public class  RiakCluster implements OperationRetrier, NodeStateListener
             return this;
         }
 
+        /**
+         * Delays retries using exponential backoff with jitter.
+         * <p>
+         * By default a failed operation is retried immediately, which when a
+         * node flaps turns into a retry storm on the surviving nodes. With
+         * backoff the n-th retry waits a random time of up to
+         * {@code baseDelayMillis * 2^(n-1)}, capped at {@code maxDelayMillis}.
+         * </p>
+         * @param baseDelayMillis the ceiling of the first retry's delay. 0 disables backoff.
+         * @param maxDelayMillis the maximum delay of any retry.
+         * @return this
+         * @since 2.1.2
+         * @see RiakCluster#getTotalRetryDelayMillis()
+         */
+        public Builder withRetryBackoff(int baseDelayMillis, int maxDelayMillis)
+        {
+            if (baseDelayMillis < 0 || maxDelayMillis < baseDelayMillis)
+            {
+                throw new IllegalArgumentException("baseDelayMillis cannot be negative or exceed maxDelayMillis");
+            }
+            this.retryBaseDelayMillis = baseDelayMillis;
+            this.retryMaxDelayMillis = maxDelayMillis;
+            return this;
+        }
+
+        /**
+         * Caps retries at a percentage of live traffic.
+         * <p>
+         * Each operation executed earns {@code percent}/100 of a retry; an
+         * operation that fails once the budget is spent is failed rather than
+         * retried. {@code minRetriesPerSecond} retries are always allowed.
+         * By default retries are only limited by the execution attempts.
+         * </p>
+         * @param percent retries allowed as a percentage of operations executed.
+         * @param minRetriesPerSecond retries allowed per second regardless of traffic.
+         * @return this
+         * @since 2.1.2
+         * @see RiakCluster#getRetriesOverBudgetCount()
+         */
+        public Builder withRetryBudget(int percent, int minRetriesPerSecond)
+        {
+            this.retryBudget = new RetryBudget(percent, minRetriesPerSecond);
+            return this;
+        }
+
+        /**
+         * Enables hedged reads.
+         * <p>
+         * If a fetch ({@code FetchValue}, {@code FetchDatatype} or any other
+         * idempotent operation) has not completed after {@code delayMillis},
+         * a duplicate is sent to a different node and whichever responds first
+         * completes the future. A delay of 0 uses the observed 95th percentile
+         * latency for the operation's type, and hedges nothing until enough
+         * responses have been seen. Hedges are capped at
+         * {@code maxHedgePercent} of hedgeable operations so they can't double
+         * the load on the cluster. Non-idempotent operations are never hedged.
+         * </p>
+         * @param delayMillis how long to wait before hedging, or 0 to use the observed p95.
+         * @param maxHedgePercent hedges allowed as a percentage of hedgeable operations.
+         * @return this
+         * @since 2.1.2
+         * @see RiakCluster#getHedgeCount()
+         */
+        public Builder withHedgedReads(int delayMillis, int maxHedgePercent)
+        {
+            this.hedgePolicy = new HedgePolicy(delayMillis, maxHedgePercent);
+            return this;
+        }
+
+        /**
+         * Bounds the results a streaming operation holds in memory.
+         * <p>
+         * Once {@code highWatermark} results (chunks, as Riak sent them) are
+         * waiting to be consumed, reading from the operation's connection
+         * stops until the consumer has brought them down to
+         * {@code lowWatermark}. By default the results queue is unbounded.
+         * A consumer that waits for the operation to complete before
+         * consuming must not use this, as the operation can't complete while
+         * reading is stopped.
+         * </p>
+         * @param lowWatermark the number of queued results at which reading resumes.
+         * @param highWatermark the number of queued results at which reading stops.
+         * @return this
+         * @since 2.1.2
+         * @see PBStreamingFutureOperation#setQueueWatermarks(int, int)
+         */
+        public Builder withStreamingWatermarks(int lowWatermark, int highWatermark)
+        {
+            if (lowWatermark < 0 || highWatermark <= lowWatermark)
+            {
+                throw new IllegalArgumentException("Watermarks must satisfy 0 <= lowWatermark < highWatermark");
+            }
+            this.streamingLowWatermark = lowWatermark;
+            this.streamingHighWatermark = highWatermark;
+            return this;
+        }
+
         /**
          * Sets the {@link NodeManager} for this {@link RiakCluster}
          *
@@ -791,6 +1328,115 @@ public class  RiakCluster implements OperationRetrier, NodeStateListener
             return this;
         }
 
+        /**
+         * Use Netty's native epoll transport rather than NIO.
+         * <p>
+         * This only applies if no {@link Bootstrap} is supplied. If the native
+         * transport is not available on this platform a warning is logged and
+         * NIO is used.
+         * </p>
+         * @param useEpoll true to use the epoll transport when available.
+         * @return this
+         * @since 2.1.2
+         * @see #withEpollEdgeTriggered(boolean)
+         * @see #withTcpQuickAck(boolean)
+         */
+        public Builder withEpollTransport(boolean useEpoll)
+        {
+            this.useEpollTransport = useEpoll;
+            return this;
+        }
+
+        /**
+         * Sets whether the epoll transport uses edge-triggered (the default)
+         * or level-triggered mode.
+         * Ignored unless the epoll transport is in use.
+         * @param edgeTriggered false to use level-triggered mode.
+         * @return this
+         * @since 2.1.2
+         * @see #withEpollTransport(boolean)
+         */
+        public Builder withEpollEdgeTriggered(boolean edgeTriggered)
+        {
+            this.epollEdgeTriggered = edgeTriggered;
+            return this;
+        }
+
+        /**
+         * Sets TCP_QUICKACK on connections made with the epoll transport.
+         * Ignored unless the epoll transport is in use.
+         * @param quickAck true to enable TCP_QUICKACK.
+         * @return this
+         * @since 2.1.2
+         * @see #withEpollTransport(boolean)
+         */
+        public Builder withTcpQuickAck(boolean quickAck)
+        {
+            this.tcpQuickAck = quickAck;
+            return this;
+        }
+
+        /**
+         * Sets the executor {@link RiakFutureListener}s are notified on.
+         * <p>
+         * By default listeners are notified on the thread that completes the
+         * operation, which is usually a Netty I/O thread. A slow listener then
+         * stalls every other connection served by that thread. With an executor
+         * set, listeners are handed off to it, except for those implementing
+         * {@link InlineRiakFutureListener}. Individual listeners can also be given
+         * their own executor with {@link RiakFuture#addListener(RiakFutureListener, Executor)}.
+         * </p>
+         * @param executor the executor to notify listeners on.
+         * @return this
+         * @since 2.1.2
+         * @see ListenerTimings
+         */
+        public Builder withListenerExecutor(Executor executor)
+        {
+            this.listenerExecutor = executor;
+            return this;
+        }
+
+        /**
+         * Sets flush consolidation for all of this cluster's {@link RiakNode}s,
+         * overriding their own setting.
+         * @param maxPendingFlushes the number of deferred flushes after which a
+         *                          flush is forced. 0 disables consolidation.
+         * @return this
+         * @since 2.1.2
+         * @see RiakNode.Builder#withFlushConsolidation(int)
+         */
+        public Builder withFlushConsolidation(int maxPendingFlushes)
+        {
+            if (maxPendingFlushes < 0)
+            {
+                throw new IllegalArgumentException("maxPendingFlushes cannot be negative");
+            }
+            this.maxPendingFlushes = maxPendingFlushes;
+            return this;
+        }
+
+        /**
+         * Sets when {@link RiakCluster#startAsync()} reports the cluster ready.
+         * <p>
+         * By default the cluster is ready once all of its nodes' minimum
+         * connections are up. A lower percentage lets a service take traffic
+         * sooner, with the remaining connections still being opened.
+         * </p>
+         * @param percent the percentage of minimum connections that must be up; 0-100.
+         * @return this
+         * @since 2.1.2
+         */
+        public Builder withStartupReadyPercent(int percent)
+        {
+            if (percent < 0 || percent > 100)
+            {
+                throw new IllegalArgumentException("percent must be 0-100");
+            }
+            this.startupReadyPercent = percent;
+            return this;
+        }
+
         /**
          * Set the maximum number of operations to queue.
          * A value of 0 disables the command queue.
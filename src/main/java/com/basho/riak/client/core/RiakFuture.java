@@ -15,7 +15,11 @@
  */
 package com.basho.riak.client.core;
 
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -194,9 +198,85 @@ public interface RiakFuture<V, T> extends Future<V>
      * @param listener a RiakFutureListener that will be notified when this RiakFuture completes.
      */
     void addListener(RiakFutureListener<V,T> listener);
+
+    /**
+     * Add a listener to be notified on the supplied executor.
+     * <p>
+     * Listeners added this way can't be removed with
+     * {@link #removeListener(RiakFutureListener)}.
+     * </p>
+     * @param listener the listener
+     * @param executor the executor the listener is notified on
+     * @since 2.1.2
+     */
+    default void addListener(final RiakFutureListener<V,T> listener, final Executor executor)
+    {
+        // Inline, so it isn't handed to the cluster's listener executor first
+        addListener(new InlineRiakFutureListener<V,T>()
+        {
+            @Override
+            public void handle(final RiakFuture<V,T> f)
+            {
+                executor.execute(() -> listener.handle(f));
+            }
+        });
+    }
+
     /**
      * Remove a listener from this RiakFuture.
      * @param listener The listener to remove.
      */
     void removeListener(RiakFutureListener<V,T> listener);
+
+    /**
+     * Returns a CompletionStage completed with this RiakFuture's result.
+     * <p>
+     * The stage is completed on the thread completing this future, which may
+     * be a Netty I/O thread; use the {@code *Async} stage methods for work that
+     * blocks or takes a while.
+     * </p>
+     * @return a stage completed normally with the response, or exceptionally
+     *         with the cause of the failure.
+     * @since 2.1.2
+     */
+    default CompletionStage<V> toCompletionStage()
+    {
+        final CompletableFuture<V> stage = new CompletableFuture<>();
+        addListener(new InlineRiakFutureListener<V,T>()
+        {
+            @Override
+            public void handle(RiakFuture<V,T> f)
+            {
+                completeStage(stage, f);
+            }
+        });
+        return stage;
+    }
+
+    /**
+     * Completes a stage with a completed RiakFuture's outcome.
+     * @param stage the stage to complete.
+     * @param future the completed future.
+     * @param <V> the response type.
+     * @since 2.1.2
+     */
+    static <V> void completeStage(CompletableFuture<V> stage, RiakFuture<V,?> future)
+    {
+        if (future.isSuccess())
+        {
+            try
+            {
+                stage.complete(future.getNow());
+            }
+            catch (RuntimeException ex)
+            {
+                stage.completeExceptionally(ex);
+            }
+        }
+        else
+        {
+            final Throwable cause = future.cause();
+            stage.completeExceptionally(cause != null ? cause : new CancellationException());
+        }
+    }
 }
@@ -6,13 +6,33 @@ import com.basho.riak.protobuf.RiakPB;
 import com.ericsson.otp.erlang.OtpErlangDecodeException;
 import com.ericsson.otp.erlang.OtpExternal;
 import com.ericsson.otp.erlang.OtpInputStream;
-import com.google.protobuf.InvalidProtocolBufferException;
+import com.ericsson.otp.erlang.OtpOutputStream;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.MessageLite;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Encapsulates the raw bytes sent to or received from Riak.
+ * <p>
+ * A message is normally backed by a {@code byte[]}. Inbound messages may instead
+ * be backed by a retained, reference-counted {@link ByteBuf} slice of the
+ * channel's read buffer, in which case the payload is parsed directly from
+ * that buffer and the message must be {@link #release() released} once it
+ * has been consumed.
+ * </p>
+ * <p>
+ * Outbound messages may be created from an unserialized protocol buffers
+ * message or a TTB {@link OtpOutputStream}; these are written directly into
+ * the outbound buffer by {@link #writeDataTo(ByteBuf)} rather than first being
+ * copied into an intermediate array.
+ * </p>
  *
  * @author Brian Roach <roach at basho dot com>
  * @author Sergey Galkin <sgalkin at basho dot com>
@@ -22,7 +42,10 @@ public final class RiakMessage
 {
     private static final Logger logger = LoggerFactory.getLogger(RiakMessage.class);
     private final byte code;
-    private final byte[] data;
+    private final ByteBuf dataBuffer;
+    private final MessageLite protobuf;
+    private final OtpOutputStream ttbStream;
+    private volatile byte[] data;
     private final RiakResponseException riakError;
     private static final String ERROR_RESP = "rpberrorresp";
 
@@ -35,36 +58,98 @@ public final class RiakMessage
     {
         this.code = code;
         this.data = data;
+        this.dataBuffer = null;
+        this.protobuf = null;
+        this.ttbStream = null;
+        this.riakError = doErrorCheck ? checkForRiakError() : null;
+    }
+
+    /**
+     * Creates an outbound message from a protocol buffers message.
+     * <p>
+     * The message is not serialized until it is written to the channel.
+     * </p>
+     *
+     * @param code the message code
+     * @param protobuf the request
+     * @since 2.1.2
+     */
+    public RiakMessage(byte code, MessageLite protobuf)
+    {
+        this.code = code;
+        this.protobuf = protobuf;
+        this.ttbStream = null;
+        this.dataBuffer = null;
+        this.riakError = null;
+    }
+
+    /**
+     * Creates an outbound message from an encoded TTB request.
+     *
+     * @param code the message code
+     * @param ttbStream the encoded request
+     * @since 2.1.2
+     */
+    public RiakMessage(byte code, OtpOutputStream ttbStream)
+    {
+        this.code = code;
+        this.ttbStream = ttbStream;
+        this.protobuf = null;
+        this.dataBuffer = null;
+        this.riakError = null;
+    }
 
-        if (doErrorCheck)
+    /**
+     * Creates a message backed by a reference-counted buffer.
+     * <p>
+     * Ownership of {@code data} is transferred to the new message; the caller
+     * must not release it. The buffer is released via {@link #release()}.
+     * </p>
+     *
+     * @param code the message code
+     * @param data a retained buffer containing the message payload
+     * @since 2.1.2
+     */
+    public RiakMessage(byte code, ByteBuf data)
+    {
+        this.code = code;
+        this.dataBuffer = data;
+        this.protobuf = null;
+        this.ttbStream = null;
+
+        try
         {
-            switch (this.code)
-            {
-                case RiakMessageCodes.MSG_ErrorResp:
-                    this.riakError = getRiakErrorFromPbuf(this.data);
-                    break;
-                case RiakMessageCodes.MSG_TsTtbMsg:
-                    OtpInputStream ttbInputStream = new OtpInputStream(data);
-                    this.riakError = getRiakErrorFromTtb(ttbInputStream);
-                    break;
-                default:
-                    this.riakError = null;
-            }
+            this.riakError = checkForRiakError();
         }
-        else
+        catch (RuntimeException ex)
+        {
+            data.release();
+            throw ex;
+        }
+    }
+
+    private RiakResponseException checkForRiakError()
+    {
+        switch (this.code)
         {
-            this.riakError = null;
+            case RiakMessageCodes.MSG_ErrorResp:
+                return getRiakErrorFromPbuf(getDataInputStream());
+            case RiakMessageCodes.MSG_TsTtbMsg:
+                OtpInputStream ttbInputStream = new OtpInputStream(getData());
+                return getRiakErrorFromTtb(ttbInputStream);
+            default:
+                return null;
         }
     }
 
-    private static RiakResponseException getRiakErrorFromPbuf(byte[] data)
+    private static RiakResponseException getRiakErrorFromPbuf(CodedInputStream data)
     {
         try
         {
             RiakPB.RpbErrorResp err = RiakPB.RpbErrorResp.parseFrom(data);
             return new RiakResponseException(err.getErrcode(), err.getErrmsg().toStringUtf8());
         }
-        catch (InvalidProtocolBufferException ex)
+        catch (IOException ex)
         {
             logger.error("exception", ex);
             return new RiakResponseException(0, "Could not parse protocol buffers error");
@@ -76,9 +161,160 @@ public final class RiakMessage
         return code;
     }
 
+    /**
+     * Returns the message payload as a byte array.
+     * <p>
+     * For a message that is not array-backed this copies (or serializes) the
+     * payload the first time it is called. Prefer {@link #getDataInputStream()}
+     * when the payload is going to be parsed.
+     * </p>
+     *
+     * @return the payload
+     */
     public byte[] getData()
     {
-        return data;
+        byte[] bytes = data;
+        if (bytes == null)
+        {
+            if (dataBuffer != null)
+            {
+                bytes = new byte[dataBuffer.readableBytes()];
+                dataBuffer.getBytes(dataBuffer.readerIndex(), bytes);
+            }
+            else if (protobuf != null)
+            {
+                bytes = protobuf.toByteArray();
+            }
+            else
+            {
+                bytes = ttbStream.toByteArray();
+            }
+            data = bytes;
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the length of the message payload without copying it.
+     *
+     * @return the payload length in bytes
+     * @since 2.1.2
+     */
+    public int getDataLength()
+    {
+        if (dataBuffer != null)
+        {
+            return dataBuffer.readableBytes();
+        }
+        else if (protobuf != null)
+        {
+            return protobuf.getSerializedSize();
+        }
+        else if (ttbStream != null)
+        {
+            return ttbStream.size();
+        }
+        return data.length;
+    }
+
+    /**
+     * Writes the message payload to the supplied buffer.
+     * <p>
+     * Protocol buffers messages are serialized straight into the buffer and
+     * TTB streams are copied from their internal array, so in neither case is
+     * an intermediate {@code byte[]} created.
+     * </p>
+     *
+     * @param out the buffer to write to
+     * @throws IOException if the payload could not be serialized
+     * @since 2.1.2
+     */
+    public void writeDataTo(ByteBuf out) throws IOException
+    {
+        if (protobuf != null)
+        {
+            final int size = protobuf.getSerializedSize();
+            if (size == 0)
+            {
+                return;
+            }
+
+            out.ensureWritable(size);
+            if (out.hasArray())
+            {
+                final int writerIndex = out.writerIndex();
+                final CodedOutputStream cos =
+                    CodedOutputStream.newInstance(out.array(), out.arrayOffset() + writerIndex, size);
+                protobuf.writeTo(cos);
+                cos.checkNoSpaceLeft();
+                out.writerIndex(writerIndex + size);
+            }
+            else
+            {
+                final CodedOutputStream cos =
+                    CodedOutputStream.newInstance(new ByteBufOutputStream(out),
+                                                  Math.min(size, CodedOutputStream.DEFAULT_BUFFER_SIZE));
+                protobuf.writeTo(cos);
+                cos.flush();
+            }
+        }
+        else if (ttbStream != null)
+        {
+            ttbStream.writeTo(new ByteBufOutputStream(out));
+        }
+        else if (dataBuffer != null)
+        {
+            out.writeBytes(dataBuffer, dataBuffer.readerIndex(), dataBuffer.readableBytes());
+        }
+        else
+        {
+            out.writeBytes(data);
+        }
+    }
+
+    /**
+     * Returns a protocol buffers input stream positioned over the payload.
+     * <p>
+     * Heap buffers are parsed in place; direct buffers are streamed through
+     * a small read buffer rather than being copied into a full-sized array.
+     * Messages decoded by {@link com.basho.riak.client.core.netty.RiakMessageCodec}
+     * are always heap-backed. Note that protocol buffers still copies every
+     * {@code bytes} field it parses into its own {@code ByteString}.
+     * </p>
+     *
+     * @return a CodedInputStream over the payload
+     * @since 2.1.2
+     */
+    public CodedInputStream getDataInputStream()
+    {
+        if (dataBuffer == null)
+        {
+            return CodedInputStream.newInstance(getData());
+        }
+        else if (dataBuffer.hasArray())
+        {
+            return CodedInputStream.newInstance(dataBuffer.array(),
+                                                dataBuffer.arrayOffset() + dataBuffer.readerIndex(),
+                                                dataBuffer.readableBytes());
+        }
+        else
+        {
+            return CodedInputStream.newInstance(new ByteBufInputStream(dataBuffer.duplicate()));
+        }
+    }
+
+    /**
+     * Releases the buffer backing this message, if any.
+     * <p>
+     * This is a no-op for array-backed messages.
+     * </p>
+     *
+     * @return true if the buffer was deallocated
+     * @since 2.1.2
+     */
+    public boolean release()
+    {
+        return dataBuffer != null && dataBuffer.refCnt() > 0 && dataBuffer.release();
     }
 
     public boolean isRiakError()
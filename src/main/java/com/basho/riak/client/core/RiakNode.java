@@ -23,10 +23,20 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoop;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
 import io.netty.util.concurrent.BlockingOperationException;
 import io.netty.util.concurrent.DefaultPromise;
+import io.netty.util.concurrent.FastThreadLocalThread;
+import io.netty.util.concurrent.GenericFutureListener;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import io.netty.util.concurrent.Promise;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,6 +51,7 @@ import java.security.KeyStore;
 import java.security.Security;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -56,13 +67,36 @@ public class RiakNode implements RiakResponseListener
         CREATED, RUNNING, HEALTH_CHECKING, SHUTTING_DOWN, SHUTDOWN;
     }
 
+    /**
+     * The state of a node's circuit breaker.
+     * @since 2.1.2
+     * @see Builder#withCircuitBreaker(int, int, int)
+     */
+    public enum CircuitState
+    {
+        CLOSED, OPEN, HALF_OPEN;
+    }
+
+    private static final int AFFINITY_SCAN_LIMIT = 8;
+    private static final double MIN_TRAFFIC_WEIGHT = 0.05;
+    /**
+     * The error messages with which Riak reports it is overloaded or timed
+     * out. Its error code is always 0, so only the message can tell these
+     * apart; they're Riak's {@code {error, overload}} and
+     * {@code {error, timeout}} replies.
+     */
+    static final Set<String> OVERLOAD_ERROR_MESSAGES =
+        Collections.unmodifiableSet(new HashSet<>(Arrays.asList("overload", "timeout")));
     private final Logger logger = LoggerFactory.getLogger(RiakNode.class);
 
-    private final LinkedBlockingDeque<ChannelWithIdleTime> available = new LinkedBlockingDeque<>();
+    private final ConcurrentLinkedDeque<ChannelWithIdleTime> available = new ConcurrentLinkedDeque<>();
     private final ConcurrentLinkedQueue<ChannelWithIdleTime> recentlyClosed = new ConcurrentLinkedQueue<>();
     private final List<NodeStateListener> stateListeners =
         Collections.synchronizedList(new LinkedList<NodeStateListener>());
     private final Map<Channel, FutureOperation> inProgressMap = new ConcurrentHashMap<>();
+    private final Map<Channel, Pipeline> pipelines = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Promise<Channel>> pendingAcquires = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Promise<Channel>> pendingConnects = new ConcurrentLinkedQueue<>();
 
     private final Sync permits;
     private final String remoteAddress;
@@ -79,16 +113,45 @@ public class RiakNode implements RiakResponseListener
     private volatile boolean ownsBootstrap;
     private volatile ScheduledExecutorService executor;
     private volatile boolean ownsExecutor;
+    private volatile Timer timer;
+    private volatile boolean ownsTimer;
     private volatile State state;
     private volatile ScheduledFuture<?> idleReaperFuture;
     private volatile ScheduledFuture<?> healthMonitorFuture;
+    private volatile ScheduledFuture<?> addressRefreshFuture;
     private volatile int minConnections;
     private volatile long idleTimeoutInNanos;
     private volatile int connectionTimeout;
     private volatile boolean blockOnMaxConnections;
+    private volatile int operationDeadline;
+    private volatile int maxPendingFlushes;
+    private final boolean zeroCopyDecoding;
+    private final int pipelineDepth;
+    private final boolean asyncConnectionAcquisition;
+    private final CircuitBreaker circuitBreaker;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final CachingAddressResolver addressResolver;
+    private final boolean backgroundAddressRefresh;
+    private final Semaphore connectPermits;
+    private final long rampNanos;
+    private volatile Runnable capacityListener;
+    private volatile long startupMillis = -1;
+    private volatile long rampStartNanos;
+    private volatile boolean ramping;
 
     private HealthCheckFactory healthCheckFactory;
 
+    private final GenericFutureListener<io.netty.util.concurrent.Future<Channel>> connectCompleteListener =
+        new GenericFutureListener<io.netty.util.concurrent.Future<Channel>>()
+        {
+            @Override
+            public void operationComplete(io.netty.util.concurrent.Future<Channel> future)
+            {
+                connectPermits.release();
+                drainPendingConnects();
+            }
+        };
+
     private final ChannelFutureListener writeListener =
         new ChannelFutureListener()
         {
@@ -107,18 +170,13 @@ public class RiakNode implements RiakResponseListener
                     FutureOperation inProgress = inProgressMap.remove(future.channel());
                     if (inProgress != null)
                     {
-                        future.channel().close();
+                        closeConnection(future.channel());
                         returnConnection(future.channel()); // to release permit
                         recentlyClosed.add(new ChannelWithIdleTime(future.channel()));
+                        recordOutcome(inProgress, false);
                         inProgress.setException(future.cause());
                     }
                 }
-                else
-                {
-                    // On a successful write we add the in-progress close listener
-                    // and let it handle a disco during an op.
-                    future.channel().closeFuture().addListener(inProgressCloseListener);
-                }
             }
         };
 
@@ -151,6 +209,7 @@ public class RiakNode implements RiakResponseListener
                 {
                     returnConnection(future.channel()); // to release permit
                     recentlyClosed.add(new ChannelWithIdleTime(future.channel()));
+                    recordOutcome(inProgress, false);
 
                     // Netty seems to not bother telling you *why* the connection
                     // was closed.
@@ -166,12 +225,79 @@ public class RiakNode implements RiakResponseListener
             }
         };
 
+    private final ChannelFutureListener pipelineWriteListener =
+        new ChannelFutureListener()
+        {
+            @Override
+            public void operationComplete(ChannelFuture future) throws Exception
+            {
+                // Any write failure leaves the request/response ordering on the
+                // connection unknown, so everything pipelined on it is failed.
+                if (!future.isSuccess())
+                {
+                    logger.error("Pipelined write failed on RiakNode {}:{} id: {}; cause: {}",
+                                remoteAddress, port, future.channel().hashCode(),
+                                future.cause());
+                    failPipeline(future.channel(), future.cause());
+                }
+            }
+        };
+
+    private final ChannelFutureListener pipelineCloseListener =
+        new ChannelFutureListener()
+        {
+            @Override
+            public void operationComplete(ChannelFuture future) throws Exception
+            {
+                logger.error("Channel closed while pipelined operations in progress; id:{} {}:{}",
+                             future.channel().hashCode(), remoteAddress, port);
+                if (future.cause() != null)
+                {
+                    failPipeline(future.channel(), future.cause());
+                }
+                else
+                {
+                    failPipeline(future.channel(), new Exception("Connection closed unexpectantly"));
+                }
+            }
+        };
+
+    /**
+     * Added once to every connection when it is made, and removed only when
+     * we close it ourselves. Dispatches to the close handling for whichever
+     * state the channel is in when it closes, so channels moving between the
+     * pool and in-progress don't churn listeners on every operation.
+     */
+    private final ChannelFutureListener closeListener =
+        new ChannelFutureListener()
+        {
+            @Override
+            public void operationComplete(ChannelFuture future) throws Exception
+            {
+                final Channel channel = future.channel();
+                if (inProgressMap.containsKey(channel))
+                {
+                    inProgressCloseListener.operationComplete(future);
+                }
+                else if (pipelines.containsKey(channel))
+                {
+                    pipelineCloseListener.operationComplete(future);
+                }
+                else
+                {
+                    inAvailableCloseListener.operationComplete(future);
+                }
+            }
+        };
+
     private final CountDownLatch shutdownLatch = new CountDownLatch(1);
 
     private RiakNode(Builder builder)
     {
         this.executor = builder.executor;
         this.connectionTimeout = builder.connectionTimeout;
+        this.operationDeadline = builder.operationDeadline;
+        this.maxPendingFlushes = builder.maxPendingFlushes;
         this.idleTimeoutInNanos = TimeUnit.NANOSECONDS.convert(builder.idleTimeout, TimeUnit.MILLISECONDS);
         this.minConnections = builder.minConnections;
         this.port = builder.port;
@@ -183,6 +309,22 @@ public class RiakNode implements RiakResponseListener
         this.keyStore = builder.keyStore;
         this.keyPassword = builder.keyPassword;
         this.healthCheckFactory = builder.healthCheckFactory;
+        this.zeroCopyDecoding = builder.zeroCopyDecoding;
+        this.pipelineDepth = builder.pipelineDepth;
+        this.asyncConnectionAcquisition = builder.asyncConnectionAcquisition;
+        this.addressResolver = builder.addressCacheTtlMillis > 0
+            ? new CachingAddressResolver(builder.remoteAddress, builder.port, builder.addressCacheTtlMillis)
+            : null;
+        this.backgroundAddressRefresh = builder.backgroundAddressRefresh;
+        this.connectPermits = builder.maxConcurrentConnects > 0
+            ? new Semaphore(builder.maxConcurrentConnects)
+            : null;
+        this.rampNanos = TimeUnit.MILLISECONDS.toNanos(builder.rampMillis);
+        this.circuitBreaker = builder.circuitBreakerFailureRate > 0
+            ? new CircuitBreaker(builder.circuitBreakerFailureRate,
+                                 builder.circuitBreakerSlowCallMillis,
+                                 builder.circuitBreakerOpenMillis)
+            : null;
 
         if (builder.bootstrap != null)
         {
@@ -198,6 +340,18 @@ public class RiakNode implements RiakResponseListener
             permits = new Sync(builder.maxConnections);
         }
 
+        if (builder.initialConcurrencyLimit > 0)
+        {
+            this.concurrencyLimiter = new ConcurrencyLimiter(permits,
+                                                             builder.initialConcurrencyLimit,
+                                                             Math.max(1, builder.minConnections),
+                                                             permits.getMaxPermits());
+        }
+        else
+        {
+            this.concurrencyLimiter = null;
+        }
+
         checkNetworkAddressCacheSettings();
 
         this.state = State.CREATED;
@@ -222,35 +376,19 @@ public class RiakNode implements RiakResponseListener
      */
     int getNumInProgress()
     {
-        return inProgressMap.size();
+        int numInProgress = inProgressMap.size();
+        for (Pipeline pipeline : pipelines.values())
+        {
+            numInProgress += pipeline.size();
+        }
+        return numInProgress;
     }
 
     public synchronized RiakNode start() throws UnknownHostException
     {
         stateCheck(State.CREATED);
-
-        if (executor == null)
-        {
-            executor = Executors.newSingleThreadScheduledExecutor();
-            ownsExecutor = true;
-        }
-
-        if (bootstrap == null)
-        {
-            bootstrap = new Bootstrap()
-                .group(new NioEventLoopGroup())
-                .channel(NioSocketChannel.class);
-            ownsBootstrap = true;
-        }
-
-        bootstrap.handler(new RiakChannelInitializer(this));
-
-        refreshBootstrapRemoteAddress();
-
-        if (connectionTimeout > 0)
-        {
-            bootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectionTimeout);
-        }
+        final long startNanos = System.nanoTime();
+        prepareStart();
 
         if (minConnections > 0)
         {
@@ -260,7 +398,7 @@ public class RiakNode implements RiakResponseListener
                 Channel channel;
                 try
                 {
-                    channel = doGetConnection(false);
+                    channel = doGetConnection(false, false);
                     minChannels.add(channel);
                 }
                 catch (ConnectionFailedException ex)
@@ -272,21 +410,170 @@ public class RiakNode implements RiakResponseListener
             for (Channel c : minChannels)
             {
                 available.offerFirst(new ChannelWithIdleTime(c));
-                c.closeFuture().addListener(inAvailableCloseListener);
             }
         }
+        startupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        finishStart();
+        return this;
+    }
+
+    /**
+     * Starts this node without waiting for its minimum connections.
+     * <p>
+     * Where {@link #start()} opens the minimum connections one after another,
+     * here they are all opened concurrently, including TLS and authentication,
+     * and the node is {@code RUNNING} as soon as this returns. Connections that
+     * fail are not retried; they are replaced on demand as usual.
+     * </p>
+     *
+     * @return a future completed once every minimum connection has been
+     *         attempted.
+     * @throws UnknownHostException if the node's address can't be resolved.
+     * @since 2.1.2
+     */
+    public io.netty.util.concurrent.Future<RiakNode> startAsync() throws UnknownHostException
+    {
+        return startAsync(null);
+    }
+
+    /**
+     * @param connectionListener run each time a minimum connection is made; may be null.
+     */
+    synchronized io.netty.util.concurrent.Future<RiakNode> startAsync(final Runnable connectionListener)
+        throws UnknownHostException
+    {
+        stateCheck(State.CREATED);
+        final long startNanos = System.nanoTime();
+        prepareStart();
+
+        final Promise<RiakNode> startupPromise = new DefaultPromise<>(GlobalEventExecutor.INSTANCE);
+        final int toOpen = minConnections;
+        if (toOpen > 0)
+        {
+            final AtomicInteger remaining = new AtomicInteger(toOpen);
+            final GenericFutureListener<io.netty.util.concurrent.Future<Channel>> listener =
+                new GenericFutureListener<io.netty.util.concurrent.Future<Channel>>()
+                {
+                    @Override
+                    public void operationComplete(io.netty.util.concurrent.Future<Channel> future)
+                    {
+                        // Failures are no-ops, we don't care right now
+                        if (future.isSuccess())
+                        {
+                            addIdleConnection(future.getNow(), connectionListener);
+                        }
+                        if (remaining.decrementAndGet() == 0)
+                        {
+                            startupComplete(startupPromise, startNanos);
+                        }
+                    }
+                };
+
+            for (int i = 0; i < toOpen; i++)
+            {
+                connect().addListener(listener);
+            }
+        }
+        else
+        {
+            startupComplete(startupPromise, startNanos);
+        }
+
+        finishStart();
+        return startupPromise;
+    }
+
+    private void prepareStart() throws UnknownHostException
+    {
+        if (executor == null)
+        {
+            executor = Executors.newSingleThreadScheduledExecutor();
+            ownsExecutor = true;
+        }
+
+        if (timer == null)
+        {
+            timer = new HashedWheelTimer();
+            ownsTimer = true;
+        }
+
+        if (bootstrap == null)
+        {
+            bootstrap = new Bootstrap()
+                .group(new NioEventLoopGroup())
+                .channel(NioSocketChannel.class);
+            ownsBootstrap = true;
+        }
+
+        bootstrap.handler(new RiakChannelInitializer(this, zeroCopyDecoding, maxPendingFlushes));
+
+        refreshBootstrapRemoteAddress();
+
+        if (connectionTimeout > 0)
+        {
+            bootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectionTimeout);
+        }
+    }
 
+    private void finishStart()
+    {
         idleReaperFuture = executor.scheduleWithFixedDelay(new IdleReaper(), 1, 5, TimeUnit.SECONDS);
         healthMonitorFuture = executor.scheduleWithFixedDelay(new HealthMonitorTask(), 1000, 1000, TimeUnit.MILLISECONDS);
 
+        if (addressResolver != null && backgroundAddressRefresh)
+        {
+            final long ttl = addressResolver.getTtlMillis();
+            addressRefreshFuture = executor.scheduleWithFixedDelay(new AddressRefreshTask(), ttl, ttl, TimeUnit.MILLISECONDS);
+        }
+
         state = State.RUNNING;
         logger.info("RiakNode started; {}:{}", remoteAddress, port);
         notifyStateListeners();
-        return this;
+    }
+
+    private void addIdleConnection(Channel c, Runnable connectionListener)
+    {
+        if (state == State.SHUTTING_DOWN || state == State.SHUTDOWN)
+        {
+            closeConnection(c);
+            return;
+        }
+        available.offerFirst(new ChannelWithIdleTime(c));
+        capacityAvailable();
+        if (connectionListener != null)
+        {
+            connectionListener.run();
+        }
+    }
+
+    private void startupComplete(Promise<RiakNode> startupPromise, long startNanos)
+    {
+        startupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        logger.debug("RiakNode opened {} of {} min connections in {}ms; {}:{}",
+            available.size(), minConnections, startupMillis, remoteAddress, port);
+        startupPromise.trySuccess(this);
+    }
+
+    /**
+     * Returns how long this node took to attempt its minimum connections.
+     *
+     * @return the time in milliseconds, or -1 if startup hasn't finished.
+     * @since 2.1.2
+     */
+    public long getStartupMillis()
+    {
+        return startupMillis;
     }
 
     private void refreshBootstrapRemoteAddress() throws UnknownHostException
     {
+        if (addressResolver != null)
+        {
+            bootstrap.remoteAddress(addressResolver.resolve(executor));
+            return;
+        }
+
         // Refresh the address, hope their DNS TTL settings allow this.
         InetSocketAddress socketAddress = new InetSocketAddress(remoteAddress, port);
 
@@ -306,6 +593,10 @@ public class RiakNode implements RiakResponseListener
         notifyStateListeners();
         idleReaperFuture.cancel(true);
         healthMonitorFuture.cancel(true);
+        if (addressRefreshFuture != null)
+        {
+            addressRefreshFuture.cancel(true);
+        }
         ChannelWithIdleTime cwi = available.poll();
         while (cwi != null)
         {
@@ -313,6 +604,20 @@ public class RiakNode implements RiakResponseListener
             closeConnection(c);
             cwi = available.poll();
         }
+        Promise<Channel> pending = pendingAcquires.poll();
+        while (pending != null)
+        {
+            pending.tryFailure(new ConnectionFailedException(
+                new IllegalStateException("RiakNode shutting down")));
+            pending = pendingAcquires.poll();
+        }
+        pending = pendingConnects.poll();
+        while (pending != null)
+        {
+            pending.tryFailure(new ConnectionFailedException(
+                new IllegalStateException("RiakNode shutting down")));
+            pending = pendingConnects.poll();
+        }
 
         executor.schedule(new ShutdownTask(), 0, TimeUnit.SECONDS);
 
@@ -389,6 +694,28 @@ public class RiakNode implements RiakResponseListener
         return this;
     }
 
+    /**
+     * Sets the {@link Timer} used to enforce operation deadlines.
+     * <p>
+     * A {@link HashedWheelTimer} is created on start if none is set; a
+     * {@link RiakCluster} shares one among its nodes.
+     * </p>
+     * @param timer - the Timer to use.
+     * @return a reference to this RiakNode
+     * @throws IllegalArgumentException if it was already set.
+     * @throws IllegalStateException    if the node has already been started.
+     */
+    public RiakNode setTimer(Timer timer)
+    {
+        stateCheck(State.CREATED);
+        if (this.timer != null)
+        {
+            throw new IllegalArgumentException("Timer already set");
+        }
+        this.timer = timer;
+        return this;
+    }
+
     /**
      * Sets the maximum number of connections allowed.
      *
@@ -401,7 +728,14 @@ public class RiakNode implements RiakResponseListener
         stateCheck(State.CREATED, State.RUNNING, State.HEALTH_CHECKING);
         if (maxConnections >= getMinConnections())
         {
-            permits.setMaxPermits(maxConnections);
+            if (concurrencyLimiter != null)
+            {
+                concurrencyLimiter.setMaxLimit(maxConnections);
+            }
+            else
+            {
+                permits.setMaxPermits(maxConnections);
+            }
         }
         else
         {
@@ -413,6 +747,9 @@ public class RiakNode implements RiakResponseListener
 
     /**
      * Returns the maximum number of connections allowed.
+     * <p>
+     * With an adaptive concurrency limit this is the current limit.
+     * </p>
      *
      * @return the maxConnections
      * @see Builder#withMaxConnections(int)
@@ -530,6 +867,105 @@ public class RiakNode implements RiakResponseListener
         return connectionTimeout;
     }
 
+    /**
+     * Enables flush consolidation on this node's connections.
+     *
+     * @param maxPendingFlushes the number of deferred flushes after which a
+     *                          flush is forced. 0 disables consolidation.
+     * @return a reference to this RiakNode
+     * @throws IllegalStateException if the node has already been started.
+     * @see Builder#withFlushConsolidation(int)
+     */
+    public RiakNode setFlushConsolidation(int maxPendingFlushes)
+    {
+        stateCheck(State.CREATED);
+        if (maxPendingFlushes < 0)
+        {
+            throw new IllegalArgumentException("maxPendingFlushes cannot be negative");
+        }
+        this.maxPendingFlushes = maxPendingFlushes;
+        return this;
+    }
+
+    /**
+     * Sets the default client-side deadline for operations on this node.
+     *
+     * @param deadlineInMillis the deadline in milliseconds. 0 disables it.
+     * @return a reference to this RiakNode
+     * @see Builder#withOperationDeadline(int)
+     */
+    public RiakNode setOperationDeadline(int deadlineInMillis)
+    {
+        if (deadlineInMillis < 0)
+        {
+            throw new IllegalArgumentException("Deadline cannot be negative");
+        }
+        this.operationDeadline = deadlineInMillis;
+        return this;
+    }
+
+    /**
+     * Returns the default client-side deadline for operations on this node.
+     *
+     * @return the deadline in milliseconds. 0 means none.
+     */
+    public int getOperationDeadline()
+    {
+        return operationDeadline;
+    }
+
+    /**
+     * Returns the maximum number of operations in flight on a single connection.
+     *
+     * @return the pipeline depth; 1 if pipelining is disabled.
+     * @see Builder#withPipelineDepth(int)
+     */
+    public int getPipelineDepth()
+    {
+        return pipelineDepth;
+    }
+
+    /**
+     * Returns the state of this node's circuit breaker.
+     *
+     * @return the breaker's state; always {@code CLOSED} if it isn't enabled.
+     * @see Builder#withCircuitBreaker(int, int, int)
+     */
+    public CircuitState getCircuitState()
+    {
+        return circuitBreaker == null ? CircuitState.CLOSED : circuitBreaker.getState();
+    }
+
+    /**
+     * Returns this node's current concurrency limit.
+     * <p>
+     * Sampled over time this gives the limit's trajectory; without an adaptive
+     * limit it is simply the maximum number of connections.
+     * </p>
+     *
+     * @return the number of connections this node may currently have in use.
+     * @since 2.1.2
+     * @see Builder#withAdaptiveConcurrency(int)
+     */
+    public int getConcurrencyLimit()
+    {
+        return permits.getMaxPermits();
+    }
+
+    /**
+     * Returns the baseline round trip time the adaptive concurrency limit
+     * compares operations against.
+     *
+     * @return the baseline RTT in nanoseconds; 0 if there is none yet or the
+     *         limit isn't adaptive.
+     * @since 2.1.2
+     * @see Builder#withAdaptiveConcurrency(int)
+     */
+    public long getBaselineRttNanos()
+    {
+        return concurrencyLimiter == null ? 0 : concurrencyLimiter.getBaselineRttNanos();
+    }
+
     /**
      * Returns the number of permits currently available.
      * The number of available permits indicates how many additional
@@ -578,15 +1014,41 @@ public class RiakNode implements RiakResponseListener
     {
         stateCheck(State.RUNNING, State.HEALTH_CHECKING);
 
-        operation.setLastNode(this);
-        Channel channel = getConnection();
-        if (channel != null)
+        if (operation.isCancelled())
         {
-            inProgressMap.put(channel, operation);
-            ChannelFuture writeFuture = channel.writeAndFlush(operation);
-            writeFuture.addListener(writeListener);
-            logger.debug("Operation {} being executed on RiakNode {}:{}",
-                         System.identityHashCode(operation), remoteAddress, port);
+            return true;
+        }
+
+        if (circuitBreaker != null)
+        {
+            // Refusing sends the operation straight on to another node
+            if (!circuitBreaker.allowRequest())
+            {
+                return false;
+            }
+        }
+
+        if (circuitBreaker != null || concurrencyLimiter != null)
+        {
+            operation.setExecutedNanos(System.nanoTime());
+        }
+
+        operation.setLastNode(this);
+
+        if (pipelineDepth > 1 && !operation.isMultiResponse())
+        {
+            return executePipelined(operation);
+        }
+
+        if (asyncConnectionAcquisition)
+        {
+            return executeWhenAcquired(operation, false);
+        }
+
+        Channel channel = getConnection();
+        if (channel != null)
+        {
+            writeOperation(channel, operation);
             return true;
         }
         else
@@ -597,6 +1059,273 @@ public class RiakNode implements RiakResponseListener
         }
     }
 
+    private void writeOperation(Channel channel, FutureOperation operation)
+    {
+        inProgressMap.put(channel, operation);
+        // Cancelled while being handed a connection; operationCancelled()
+        // may have missed it in the map
+        if (operation.isCancelled() && inProgressMap.remove(channel, operation))
+        {
+            returnConnection(channel);
+            return;
+        }
+        ChannelFuture writeFuture = channel.writeAndFlush(operation);
+        writeFuture.addListener(writeListener);
+        operation.attachChannel(channel);
+        scheduleDeadline(channel, operation);
+        logger.debug("Operation {} being executed on RiakNode {}:{}",
+                     System.identityHashCode(operation), remoteAddress, port);
+    }
+
+    /**
+     * Acquires a connection without blocking and writes the operation once
+     * it is available.
+     * <p>
+     * If the connection can't be made the operation is failed, which hands
+     * it back to the cluster to be retried.
+     * </p>
+     */
+    private boolean executeWhenAcquired(final FutureOperation operation, final boolean pipelined)
+    {
+        io.netty.util.concurrent.Future<Channel> acquireFuture = acquireConnection();
+        if (acquireFuture == null)
+        {
+            logger.debug("Operation {} not being executed Riaknode {}:{}; no connections available",
+                         System.identityHashCode(operation), remoteAddress, port);
+            return false;
+        }
+
+        acquireFuture.addListener(new GenericFutureListener<io.netty.util.concurrent.Future<Channel>>()
+        {
+            @Override
+            public void operationComplete(io.netty.util.concurrent.Future<Channel> future) throws Exception
+            {
+                if (!future.isSuccess())
+                {
+                    logger.debug("Operation {} failed to acquire a connection on RiakNode {}:{}",
+                                 System.identityHashCode(operation), remoteAddress, port);
+                    operation.setException(future.cause());
+                }
+                else if (pipelined)
+                {
+                    startPipeline(future.getNow(), operation);
+                }
+                else
+                {
+                    writeOperation(future.getNow(), operation);
+                }
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Submits the operation to a connection that already has operations in
+     * flight, or to a newly acquired one if all of those are at the pipeline depth.
+     * <p>
+     * Riak answers requests on a connection in the order they were sent, so each
+     * pipelined connection keeps a FIFO of its in-flight operations and every
+     * response is handed to the operation at its head.
+     * </p>
+     */
+    private boolean executePipelined(FutureOperation operation)
+    {
+        for (Pipeline pipeline : pipelines.values())
+        {
+            if (pipeline.offer(operation))
+            {
+                logger.debug("Operation {} pipelined on RiakNode {}:{} channel id:{}",
+                             System.identityHashCode(operation), remoteAddress, port,
+                             pipeline.channel.hashCode());
+                return true;
+            }
+        }
+
+        if (asyncConnectionAcquisition)
+        {
+            return executeWhenAcquired(operation, true);
+        }
+
+        Channel channel = getConnection();
+        if (channel == null)
+        {
+            logger.debug("Operation {} not being executed Riaknode {}:{}; no connections available",
+                         System.identityHashCode(operation), remoteAddress, port);
+            return false;
+        }
+
+        startPipeline(channel, operation);
+        return true;
+    }
+
+    private void startPipeline(Channel channel, FutureOperation operation)
+    {
+        // Publishing the pipeline and writing the first operation are done
+        // under its lock so a write failure can't race past the registration.
+        final Pipeline pipeline = new Pipeline(channel);
+        boolean offered;
+        synchronized (pipeline)
+        {
+            pipelines.put(channel, pipeline);
+            offered = pipeline.offer(operation);
+        }
+
+        if (!offered)
+        {
+            // The channel closed before anything was written to it
+            pipelines.remove(channel);
+            returnConnection(channel);
+            operation.setException(new ConnectionFailedException(
+                new IOException("Connection closed before operation could be written")));
+            return;
+        }
+        logger.debug("Operation {} being executed on RiakNode {}:{}; new pipeline id:{}",
+                     System.identityHashCode(operation), remoteAddress, port, channel.hashCode());
+    }
+
+    /**
+     * Removes an empty, retired pipeline and returns its channel to the pool.
+     */
+    private void retirePipeline(Pipeline pipeline)
+    {
+        pipelines.remove(pipeline.channel);
+        returnConnection(pipeline.channel); // release permit
+    }
+
+    /**
+     * Fails every operation pipelined on the channel and discards the channel.
+     */
+    private void failPipeline(Channel channel, Throwable cause)
+    {
+        final Pipeline pipeline = pipelines.remove(channel);
+        if (pipeline == null)
+        {
+            return;
+        }
+
+        final List<FutureOperation> inFlight = pipeline.retire();
+        closeConnection(channel);
+        returnConnection(channel); // release permit
+        recentlyClosed.add(new ChannelWithIdleTime(channel));
+
+        for (FutureOperation operation : inFlight)
+        {
+            recordOutcome(operation, false);
+            operation.setException(cause);
+        }
+    }
+
+    /**
+     * Releases the connection of an operation cancelled while in flight.
+     * <p>
+     * A streaming operation's connection is closed, as that's the only way to
+     * make Riak stop sending, and the pool permit released. Any other
+     * operation is left to drain; its response is discarded when it arrives
+     * and the connection returned to the pool as usual.
+     * </p>
+     * @param operation the cancelled operation.
+     */
+    void operationCancelled(final FutureOperation operation)
+    {
+        if (!operation.isMultiResponse())
+        {
+            return;
+        }
+
+        for (Map.Entry<Channel, FutureOperation> entry : inProgressMap.entrySet())
+        {
+            if (entry.getValue() == operation)
+            {
+                final Channel channel = entry.getKey();
+                // Ordered with respect to responses arriving for the operation
+                channel.eventLoop().execute(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        if (inProgressMap.remove(channel, operation))
+                        {
+                            logger.debug("Closing connection of cancelled operation {} on RiakNode {}:{} id: {}",
+                                         System.identityHashCode(operation), remoteAddress, port,
+                                         channel.hashCode());
+                            closeConnection(channel);
+                            returnConnection(channel); // release permit
+                        }
+                    }
+                });
+                return;
+            }
+        }
+    }
+
+    private void scheduleDeadline(Channel channel, FutureOperation operation)
+    {
+        final int deadline = operation.getDeadline() > 0 ? operation.getDeadline() : operationDeadline;
+        if (deadline > 0)
+        {
+            operation.setDeadlineTimeout(
+                timer.newTimeout(new DeadlineTask(channel, operation, deadline), deadline, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    /**
+     * Fails an operation that has been in flight longer than its deadline.
+     * <p>
+     * The expiry is handled on the channel's event loop so it is ordered with
+     * respect to responses arriving for the operation. The channel is closed
+     * (there's no way to tell Riak to stop) which releases the pool permit, and
+     * the failure is handed to the cluster to be retried.
+     * </p>
+     */
+    private class DeadlineTask implements TimerTask, Runnable
+    {
+        private final Channel channel;
+        private final FutureOperation operation;
+        private final int deadline;
+
+        DeadlineTask(Channel channel, FutureOperation operation, int deadline)
+        {
+            this.channel = channel;
+            this.operation = operation;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run(Timeout timeout) throws Exception
+        {
+            channel.eventLoop().execute(this);
+        }
+
+        @Override
+        public void run()
+        {
+            final TimeoutException ex =
+                new TimeoutException("Operation exceeded deadline of " + deadline + "ms");
+
+            if (inProgressMap.remove(channel, operation))
+            {
+                logger.error("Operation {} exceeded deadline of {}ms on RiakNode {}:{} id: {}",
+                             System.identityHashCode(operation), deadline, remoteAddress, port,
+                             channel.hashCode());
+                closeConnection(channel);
+                returnConnection(channel); // release permit
+                recentlyClosed.add(new ChannelWithIdleTime(channel));
+                recordOutcome(operation, false);
+                operation.setException(ex);
+                return;
+            }
+
+            final Pipeline pipeline = pipelines.get(channel);
+            if (pipeline != null && pipeline.contains(operation))
+            {
+                logger.error("Pipelined operation {} exceeded deadline of {}ms on RiakNode {}:{} id: {}",
+                             System.identityHashCode(operation), deadline, remoteAddress, port,
+                             channel.hashCode());
+                failPipeline(channel, ex);
+            }
+        }
+    }
+
     // ConnectionPool Stuff
 
     /**
@@ -654,8 +1383,7 @@ public class RiakNode implements RiakResponseListener
         {
             try
             {
-                channel = doGetConnection(true);
-                channel.closeFuture().removeListener(inAvailableCloseListener);
+                channel = doGetConnection(true, false);
             }
             catch (ConnectionFailedException ex)
             {
@@ -670,10 +1398,263 @@ public class RiakNode implements RiakResponseListener
         return channel;
     }
 
-    private Channel doGetConnection(boolean forceAddressRefresh) throws ConnectionFailedException, UnknownHostException
+    /**
+     * Acquires a connection without blocking the calling thread.
+     * <p>
+     * If a permit is available the returned future completes with an idle
+     * connection from the pool or, if there are none, once a new connection has
+     * been made (and secured, if security is enabled). If all permits are in use
+     * and the node is set to block on max connections, the request waits in a
+     * queue and is completed when a connection is returned to the pool.
+     * </p>
+     * @return a future for a connected channel, or {@code null} if no permit is
+     *         available and the node is not set to wait for one.
+     * @see Builder#withAsyncConnectionAcquisition(boolean)
+     */
+    private io.netty.util.concurrent.Future<Channel> acquireConnection()
+    {
+        stateCheck(State.RUNNING, State.HEALTH_CHECKING);
+        final Promise<Channel> promise = ImmediateEventExecutor.INSTANCE.newPromise();
+
+        logger.debug("Attempting to acquire channel permit");
+        if (permits.tryAcquire())
+        {
+            openConnection(promise);
+        }
+        else if (blockOnMaxConnections)
+        {
+            logger.info("All connections in use for {}; queueing for one.", remoteAddress);
+            pendingAcquires.offer(promise);
+            // A permit may have been released between the tryAcquire() and the offer()
+            drainPendingAcquires();
+        }
+        else
+        {
+            return null;
+        }
+        return promise;
+    }
+
+    /**
+     * Hands released permits to requests waiting in the pending-acquire queue.
+     */
+    private void drainPendingAcquires()
+    {
+        while (!pendingAcquires.isEmpty() && permits.tryAcquire())
+        {
+            Promise<Channel> promise = pendingAcquires.poll();
+            if (promise == null)
+            {
+                permits.release();
+                break;
+            }
+            openConnection(promise);
+        }
+    }
+
+    /**
+     * Completes the promise with a pooled or newly made connection.
+     * The caller must hold a permit; it is released if the connection fails.
+     */
+    private void openConnection(final Promise<Channel> promise)
+    {
+        ChannelWithIdleTime cwi;
+        while ((cwi = pollAvailable()) != null)
+        {
+            Channel channel = cwi.getChannel();
+            if (channel.isOpen())
+            {
+                if (!promise.trySuccess(channel))
+                {
+                    returnConnection(channel);
+                }
+                return;
+            }
+        }
+
+        try
+        {
+            refreshBootstrapRemoteAddress();
+        }
+        catch (UnknownHostException ex)
+        {
+            logger.error("Unknown host encountered while trying to open connection; {}", ex);
+            connectionFailed(promise, ex);
+            return;
+        }
+
+        connect().addListener(new GenericFutureListener<io.netty.util.concurrent.Future<Channel>>()
+        {
+            @Override
+            public void operationComplete(io.netty.util.concurrent.Future<Channel> future)
+            {
+                if (future.isSuccess())
+                {
+                    connectionSucceeded(promise, future.getNow());
+                }
+                else
+                {
+                    connectionFailed(promise, future.cause());
+                }
+            }
+        });
+    }
+
+    /**
+     * Opens a new connection, including TLS and authentication, without blocking.
+     * If the node's concurrent connects are limited and all are in progress, the
+     * connect waits its turn.
+     * @return a future completed with the connection.
+     */
+    private io.netty.util.concurrent.Future<Channel> connect()
+    {
+        final Promise<Channel> promise = ImmediateEventExecutor.INSTANCE.newPromise();
+        if (connectPermits == null)
+        {
+            doConnect(promise);
+        }
+        else
+        {
+            pendingConnects.offer(promise);
+            drainPendingConnects();
+        }
+        return promise;
+    }
+
+    /**
+     * Starts waiting connects while there are connect permits available.
+     */
+    private void drainPendingConnects()
+    {
+        while (!pendingConnects.isEmpty() && connectPermits.tryAcquire())
+        {
+            Promise<Channel> promise = pendingConnects.poll();
+            if (promise == null)
+            {
+                connectPermits.release();
+                break;
+            }
+            promise.addListener(connectCompleteListener);
+            doConnect(promise);
+        }
+    }
+
+    private void doConnect(final Promise<Channel> promise)
+    {
+        bootstrap.connect().addListener(new ChannelFutureListener()
+        {
+            @Override
+            public void operationComplete(ChannelFuture future) throws Exception
+            {
+                if (!future.isSuccess())
+                {
+                    logger.error("Connection attempt failed: {}:{}; {}",
+                        remoteAddress, port, future.cause());
+                    consecutiveFailedConnectionAttempts.incrementAndGet();
+                    recordOutcome(null, false);
+                    promise.tryFailure(future.cause());
+                    return;
+                }
+
+                consecutiveFailedConnectionAttempts.set(0);
+                final Channel c = future.channel();
+                c.closeFuture().addListener(closeListener);
+
+                if (trustStore == null)
+                {
+                    promise.trySuccess(c);
+                    return;
+                }
+
+                // We're on the channel's event loop here, so the security
+                // decoder's promise is created as soon as it is added.
+                final DefaultPromise<Void> authPromise;
+                try
+                {
+                    authPromise = addSecurityDecoder(c).getPromise();
+                }
+                catch (ConnectionFailedException ex)
+                {
+                    promise.tryFailure(ex);
+                    return;
+                }
+
+                authPromise.addListener(new GenericFutureListener<io.netty.util.concurrent.Future<Void>>()
+                {
+                    @Override
+                    public void operationComplete(io.netty.util.concurrent.Future<Void> authFuture) throws Exception
+                    {
+                        if (authFuture.isSuccess())
+                        {
+                            logger.debug("Auth succeeded; {}:{}", remoteAddress, port);
+                            promise.trySuccess(c);
+                        }
+                        else
+                        {
+                            c.close();
+                            logger.error("Failure during Auth; {}:{} {}",
+                                remoteAddress, port, authFuture.cause());
+                            promise.tryFailure(authFuture.cause());
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private void connectionSucceeded(Promise<Channel> promise, Channel c)
+    {
+        if (!promise.trySuccess(c))
+        {
+            returnConnection(c);
+        }
+    }
+
+    private void connectionFailed(Promise<Channel> promise, Throwable cause)
+    {
+        permits.release();
+        promise.tryFailure(cause instanceof ConnectionFailedException
+                               ? cause
+                               : new ConnectionFailedException(cause));
+        drainPendingAcquires();
+        capacityAvailable();
+    }
+
+    /**
+     * Takes a channel from the pool.
+     * <p>
+     * When called on one of Netty's I/O threads, a channel owned by that
+     * thread's event loop is preferred so the operation's write, and the
+     * response, stay on the calling thread rather than being handed off to
+     * another loop. Only the first few pooled channels are considered.
+     * </p>
+     */
+    private ChannelWithIdleTime pollAvailable()
+    {
+        if (Thread.currentThread() instanceof FastThreadLocalThread)
+        {
+            int scanned = 0;
+            for (ChannelWithIdleTime cwi : available)
+            {
+                if (++scanned > AFFINITY_SCAN_LIMIT)
+                {
+                    break;
+                }
+                EventLoop loop = cwi.getChannel().eventLoop();
+                if (loop != null && loop.inEventLoop() && available.remove(cwi))
+                {
+                    return cwi;
+                }
+            }
+        }
+        return available.poll();
+    }
+
+    private Channel doGetConnection(boolean forceAddressRefresh, boolean bypassConnectRamp)
+        throws ConnectionFailedException, UnknownHostException
     {
         ChannelWithIdleTime cwi;
-        while ((cwi = available.poll()) != null)
+        while ((cwi = pollAvailable()) != null)
         {
             Channel channel = cwi.getChannel();
             // If the channel from available is closed, try again. This will result in
@@ -691,6 +1672,31 @@ public class RiakNode implements RiakResponseListener
             refreshBootstrapRemoteAddress();
         }
 
+        if (connectPermits == null || bypassConnectRamp)
+        {
+            return connectAndWait();
+        }
+
+        if (!connectPermits.tryAcquire())
+        {
+            logger.debug("Too many connection attempts in progress; {}:{}", remoteAddress, port);
+            throw new ConnectionFailedException(
+                new IllegalStateException("Too many connection attempts in progress"));
+        }
+
+        try
+        {
+            return connectAndWait();
+        }
+        finally
+        {
+            connectPermits.release();
+            drainPendingConnects();
+        }
+    }
+
+    private Channel connectAndWait() throws ConnectionFailedException
+    {
         ChannelFuture f = bootstrap.connect();
 
         try
@@ -716,11 +1722,13 @@ public class RiakNode implements RiakResponseListener
             logger.error("Connection attempt failed: {}:{}; {}",
                 remoteAddress, port, f.cause());
             consecutiveFailedConnectionAttempts.incrementAndGet();
+            recordOutcome(null, false);
             throw new ConnectionFailedException(f.cause());
         }
 
         consecutiveFailedConnectionAttempts.set(0);
         Channel c = f.channel();
+        c.closeFuture().addListener(closeListener);
 
         if (trustStore != null)
         {
@@ -731,6 +1739,37 @@ public class RiakNode implements RiakResponseListener
     }
 
     private void setupTLSAndAuthenticate(Channel c) throws ConnectionFailedException
+    {
+        RiakSecurityDecoder decoder = addSecurityDecoder(c);
+
+        try
+        {
+            DefaultPromise<Void> promise = decoder.getPromise();
+                logger.debug("Waiting on SSL Promise");
+            promise.await();
+
+            if (promise.isSuccess())
+            {
+                logger.debug("Auth succeeded; {}:{}", remoteAddress, port);
+            }
+            else
+            {
+                c.close();
+                logger.error("Failure during Auth; {}:{} {}",remoteAddress, port, promise.cause());
+                throw new ConnectionFailedException(promise.cause());
+            }
+        }
+        catch (InterruptedException e)
+        {
+            c.close();
+            logger.error("Thread interrupted during Auth; {}:{}",
+                remoteAddress, port);
+            Thread.currentThread().interrupt();
+            throw new ConnectionFailedException(e);
+        }
+    }
+
+    private RiakSecurityDecoder addSecurityDecoder(Channel c) throws ConnectionFailedException
     {
         SSLContext context;
         try
@@ -775,32 +1814,7 @@ public class RiakNode implements RiakResponseListener
         engine.setUseClientMode(true);
         RiakSecurityDecoder decoder = new RiakSecurityDecoder(engine, username, password);
         c.pipeline().addFirst(decoder);
-
-        try
-        {
-            DefaultPromise<Void> promise = decoder.getPromise();
-                logger.debug("Waiting on SSL Promise");
-            promise.await();
-
-            if (promise.isSuccess())
-            {
-                logger.debug("Auth succeeded; {}:{}", remoteAddress, port);
-            }
-            else
-            {
-                c.close();
-                logger.error("Failure during Auth; {}:{} {}",remoteAddress, port, promise.cause());
-                throw new ConnectionFailedException(promise.cause());
-            }
-        }
-        catch (InterruptedException e)
-        {
-            c.close();
-            logger.error("Thread interrupted during Auth; {}:{}",
-                remoteAddress, port);
-            Thread.currentThread().interrupt();
-            throw new ConnectionFailedException(e);
-        }
+        return decoder;
     }
 
     /**
@@ -828,9 +1842,12 @@ public class RiakNode implements RiakResponseListener
                 {
                     if (c.isOpen())
                     {
+                        // A streaming operation may have paused reading
+                        if (!c.config().isAutoRead())
+                        {
+                            c.config().setAutoRead(true);
+                        }
                         logger.debug("Channel id:{} returned to pool", c.hashCode());
-                        c.closeFuture().removeListener(inProgressCloseListener);
-                        c.closeFuture().addListener(inAvailableCloseListener);
                         available.offerFirst(new ChannelWithIdleTime(c));
                     }
                     else
@@ -839,16 +1856,36 @@ public class RiakNode implements RiakResponseListener
                     }
                     logger.debug("Released pool permit");
                     permits.release();
+                    drainPendingAcquires();
+                    capacityAvailable();
                 }
             }
     }
 
+    /**
+     * Sets a callback run whenever this node may be able to accept another
+     * operation; a connection was returned, or a permit freed.
+     * @param listener the callback. It must be cheap; it may run on an I/O thread.
+     */
+    void setCapacityListener(Runnable listener)
+    {
+        this.capacityListener = listener;
+    }
+
+    private void capacityAvailable()
+    {
+        final Runnable listener = capacityListener;
+        if (listener != null)
+        {
+            listener.run();
+        }
+    }
+
     private void closeConnection(Channel c)
     {
         // If we are explicitly closing the connection we don't want to hear
         // about it.
-        c.closeFuture().removeListener(inProgressCloseListener);
-        c.closeFuture().removeListener(inAvailableCloseListener);
+        c.closeFuture().removeListener(closeListener);
         c.close();
     }
 
@@ -859,16 +1896,31 @@ public class RiakNode implements RiakResponseListener
     {
         logger.debug("Operation onSuccess() channel: id:{} {}:{}", channel.hashCode(), remoteAddress, port);
         consecutiveFailedOperations.set(0);
+
+        final Pipeline pipeline = pipelines.get(channel);
+        if (pipeline != null)
+        {
+            onPipelinedSuccess(pipeline, response);
+            return;
+        }
+
         final FutureOperation inProgress = inProgressMap.get(channel);
 
         // Especially with a streaming op, the close listener may trigger causing
         // a race. This check guards that.
         if (inProgress != null)
         {
+            if (inProgress.isCancelled() && inProgress.isMultiResponse())
+            {
+                // Still streaming; the cancellation closes the connection
+                return;
+            }
+
             inProgress.setResponse(response);
 
             if (inProgress.isDone())
             {
+                recordOutcome(inProgress, true);
                 try
                 {
                     inProgressMap.remove(channel);
@@ -882,15 +1934,65 @@ public class RiakNode implements RiakResponseListener
         }
     }
 
+    private void onPipelinedSuccess(Pipeline pipeline, RiakMessage response)
+    {
+        final FutureOperation inProgress = pipeline.peek();
+        if (inProgress != null)
+        {
+            inProgress.setResponse(response);
+
+            if (inProgress.isDone())
+            {
+                recordOutcome(inProgress, true);
+                try
+                {
+                    if (pipeline.removeHead())
+                    {
+                        retirePipeline(pipeline);
+                    }
+                    else
+                    {
+                        // A slot in the pipeline is free again
+                        capacityAvailable();
+                    }
+                }
+                finally
+                {
+                    inProgress.setComplete();
+                }
+            }
+        }
+    }
+
     @Override
     public void onRiakErrorResponse(Channel channel, RiakResponseException ex)
     {
         logger.debug("Riak replied with error; {}:{}", ex.getCode(), ex.getMessage());
-        final FutureOperation inProgress = inProgressMap.remove(channel);
         consecutiveFailedOperations.incrementAndGet();
+
+        // An error response only answers the operation at the head of a
+        // pipeline; the connection itself is still usable.
+        final Pipeline pipeline = pipelines.get(channel);
+        if (pipeline != null)
+        {
+            final FutureOperation head = pipeline.peek();
+            if (head != null)
+            {
+                if (pipeline.removeHead())
+                {
+                    retirePipeline(pipeline);
+                }
+                recordOutcome(head, !isOverloadError(ex));
+                head.setException(ex);
+            }
+            return;
+        }
+
+        final FutureOperation inProgress = inProgressMap.remove(channel);
         if (inProgress != null)
         {
             returnConnection(channel); // release permit
+            recordOutcome(inProgress, !isOverloadError(ex));
             inProgress.setException(ex);
         }
     }
@@ -901,6 +2003,12 @@ public class RiakNode implements RiakResponseListener
         logger.error("Operation onException() channel: id:{} {}:{} {}",
             channel.hashCode(), remoteAddress, port, t);
 
+        if (pipelines.containsKey(channel))
+        {
+            failPipeline(channel, t);
+            return;
+        }
+
         final FutureOperation inProgress = inProgressMap.remove(channel);
         // There are fail cases where multiple exceptions are thrown from
         // the pipeline. In that case we'll get an exception from the
@@ -909,6 +2017,7 @@ public class RiakNode implements RiakResponseListener
         if (inProgress != null)
         {
             returnConnection(channel); // release permit
+            recordOutcome(inProgress, false);
             inProgress.setException(t);
         }
     }
@@ -993,6 +2102,76 @@ public class RiakNode implements RiakResponseListener
         }
     }
 
+    /**
+     * The FIFO of operations in flight on a pipelined connection.
+     */
+    private class Pipeline
+    {
+        private final Channel channel;
+        private final ArrayDeque<FutureOperation> inFlight = new ArrayDeque<>();
+        private boolean retired;
+
+        Pipeline(Channel channel)
+        {
+            this.channel = channel;
+        }
+
+        /**
+         * Queues and writes the operation if there is room.
+         * The write is issued under the lock so that the order of writes
+         * on the wire matches the order of the queue.
+         */
+        synchronized boolean offer(FutureOperation operation)
+        {
+            if (retired || inFlight.size() >= pipelineDepth || !channel.isOpen())
+            {
+                return false;
+            }
+
+            inFlight.add(operation);
+            channel.writeAndFlush(operation).addListener(pipelineWriteListener);
+            scheduleDeadline(channel, operation);
+            return true;
+        }
+
+        synchronized boolean contains(FutureOperation operation)
+        {
+            return inFlight.contains(operation);
+        }
+
+        synchronized FutureOperation peek()
+        {
+            return inFlight.peek();
+        }
+
+        /**
+         * Removes the head operation.
+         * @return true if the pipeline is now empty and has been retired.
+         */
+        synchronized boolean removeHead()
+        {
+            inFlight.poll();
+            if (inFlight.isEmpty())
+            {
+                retired = true;
+            }
+            return retired;
+        }
+
+        synchronized List<FutureOperation> retire()
+        {
+            retired = true;
+            List<FutureOperation> remaining = new ArrayList<>(inFlight);
+            inFlight.clear();
+            return remaining;
+        }
+
+        synchronized int size()
+        {
+            return inFlight.size();
+        }
+    }
+
     static class Sync extends Semaphore
     {
         private static final long serialVersionUID = -5118488872281021072L;
@@ -1030,13 +2209,29 @@ public class RiakNode implements RiakResponseListener
             }
             else if (diff < 0)
             {
-                reducePermits(diff);
+                reducePermits(-diff);
             }
 
             this.maxPermits = maxPermits;
         }
     }
 
+    private class AddressRefreshTask implements Runnable
+    {
+        @Override
+        public void run()
+        {
+            try
+            {
+                addressResolver.refresh();
+            }
+            catch (UnknownHostException ex)
+            {
+                logger.error("Failed resolving host; {}:{} {}", remoteAddress, port, ex.getMessage());
+            }
+        }
+    }
+
     private class IdleReaper implements Runnable
     {
         @Override
@@ -1050,7 +2245,7 @@ public class RiakNode implements RiakResponseListener
     {
         // with all the concurrency there's really no reason to keep
         // checking the sizes. This is really just a "best guess"
-        int currentNum = inProgressMap.size() + available.size();
+        int currentNum = inProgressMap.size() + pipelines.size() + available.size();
         if (currentNum > minConnections)
         {
             // Note this will not throw a ConncurrentModificationException
@@ -1135,7 +2330,9 @@ public class RiakNode implements RiakResponseListener
             // connections from the available queue and either
             // return/create a new one (meaning the node is up) or throw
             // an exception if a connection can't be made.
-            Channel c = doGetConnection(true);
+            // The health check isn't held back by the connection ramp; it's
+            // how a recovering node gets back to RUNNING.
+            Channel c = doGetConnection(true, true);
             logger.debug("Healthcheck channel: {} isOpen: {} handlers:{}", c.hashCode(), c.isOpen(), c.pipeline().names());
 
             // If the channel closes between when we got it and now, the pipeline is emptied. If the handlers
@@ -1213,20 +2410,179 @@ public class RiakNode implements RiakResponseListener
 
     private void healthCheckSucceeded()
     {
+        // An open breaker keeps the node out until its open period is over,
+        // then lets it back in half-open to be probed with real traffic.
+        if (circuitBreaker != null && circuitBreaker.getState() == CircuitState.OPEN
+            && !circuitBreaker.tryHalfOpen())
+        {
+            return;
+        }
+
         if (state == State.HEALTH_CHECKING)
         {
             logger.info("RiakNode recovered; {}:{}", remoteAddress, port);
+            startRamp();
             state = State.RUNNING;
             notifyStateListeners();
         }
     }
 
+    /**
+     * Brings a recovered node back gradually: its traffic weight climbs over
+     * the ramp window while the pool is refilled to minConnections with
+     * connects spread randomly over the first half of it.
+     */
+    private void startRamp()
+    {
+        if (rampNanos == 0)
+        {
+            return;
+        }
+
+        rampStartNanos = System.nanoTime();
+        ramping = true;
+
+        final Runnable warmUp = new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                if (state != State.RUNNING || available.size() >= minConnections)
+                {
+                    return;
+                }
+                connect().addListener(new GenericFutureListener<io.netty.util.concurrent.Future<Channel>>()
+                {
+                    @Override
+                    public void operationComplete(io.netty.util.concurrent.Future<Channel> future)
+                    {
+                        if (future.isSuccess())
+                        {
+                            addIdleConnection(future.getNow(), null);
+                        }
+                    }
+                });
+            }
+        };
+
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int missing = minConnections - available.size();
+        for (int i = 0; i < missing; i++)
+        {
+            executor.schedule(warmUp, random.nextLong(rampNanos / 2 + 1), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Returns the share of its normal traffic this node should receive.
+     * <p>
+     * This is 1 except while the node is ramping up after recovering, when it
+     * climbs from {@value #MIN_TRAFFIC_WEIGHT} to 1 over the ramp window.
+     * </p>
+     *
+     * @return the weight, between 0 and 1.
+     * @since 2.1.2
+     * @see Builder#withConnectionRamp(int, int)
+     */
+    public double getTrafficWeight()
+    {
+        if (!ramping)
+        {
+            return 1.0;
+        }
+
+        final long elapsed = System.nanoTime() - rampStartNanos;
+        if (elapsed >= rampNanos)
+        {
+            ramping = false;
+            return 1.0;
+        }
+        return Math.max(MIN_TRAFFIC_WEIGHT, (double) elapsed / rampNanos);
+    }
+
+    /**
+     * Decides, in proportion to the traffic weight, whether this node should
+     * be passed over for an operation.
+     * @return true if another node should be used if possible.
+     */
+    boolean declinesTraffic()
+    {
+        if (!ramping)
+        {
+            return false;
+        }
+        final double weight = getTrafficWeight();
+        return weight < 1.0 && ThreadLocalRandom.current().nextDouble() >= weight;
+    }
+
+    /**
+     * Feeds an operation's outcome to the concurrency limiter and circuit
+     * breaker, if enabled.
+     * @param operation the operation, or null for a failed connection attempt
+     * @param success whether it succeeded
+     */
+    private void recordOutcome(FutureOperation operation, boolean success)
+    {
+        if (circuitBreaker == null && concurrencyLimiter == null)
+        {
+            return;
+        }
+
+        final long latency = operation == null ? 0 : System.nanoTime() - operation.getExecutedNanos();
+
+        if (concurrencyLimiter != null)
+        {
+            final int change = concurrencyLimiter.onSample(success, latency);
+            if (change != 0)
+            {
+                logger.debug("RiakNode concurrency limit now {}; {}:{}",
+                    concurrencyLimiter.getLimit(), remoteAddress, port);
+            }
+            if (change > 0)
+            {
+                drainPendingAcquires();
+                capacityAvailable();
+            }
+        }
+
+        if (circuitBreaker == null)
+        {
+            return;
+        }
+
+        final CircuitState newState = circuitBreaker.record(success, latency);
+        if (newState == CircuitState.OPEN)
+        {
+            logger.warn("RiakNode circuit breaker opened; ejecting {}:{}", remoteAddress, port);
+            if (state == State.RUNNING)
+            {
+                state = State.HEALTH_CHECKING;
+                notifyStateListeners();
+            }
+        }
+        else if (newState == CircuitState.CLOSED)
+        {
+            logger.info("RiakNode circuit breaker closed; {}:{}", remoteAddress, port);
+        }
+    }
+
+    /**
+     * Riak answers most errors (e.g. failed preconditions) normally; only
+     * these indicate the node itself is struggling.
+     * @see #OVERLOAD_ERROR_MESSAGES
+     */
+    static boolean isOverloadError(RiakResponseException ex)
+    {
+        final String message = ex.getMessage();
+        return message != null && OVERLOAD_ERROR_MESSAGES.contains(message.trim());
+    }
+
     private class ShutdownTask implements Runnable
     {
         @Override
         public void run()
         {
-            if (inProgressMap.isEmpty())
+            if (inProgressMap.isEmpty() && pipelines.isEmpty())
             {
                 state = State.SHUTDOWN;
                 notifyStateListeners();
@@ -1234,6 +2590,10 @@ public class RiakNode implements RiakResponseListener
                 {
                     executor.shutdown();
                 }
+                if (ownsTimer)
+                {
+                    timer.stop();
+                }
                 if (ownsBootstrap)
                 {
                     bootstrap.config().group().shutdownGracefully();
@@ -1285,6 +2645,20 @@ public class RiakNode implements RiakResponseListener
          * @see #withConnectionTimeout(int)
          */
         public final static int DEFAULT_CONNECTION_TIMEOUT = 0;
+        /**
+         * The default client-side operation deadline in milliseconds if not specified: {@value #DEFAULT_OPERATION_DEADLINE}
+         * A value of 0 means no deadline.
+         *
+         * @see #withOperationDeadline(int)
+         */
+        public final static int DEFAULT_OPERATION_DEADLINE = 0;
+        /**
+         * The default number of operations allowed in flight on a single
+         * connection if not specified: {@value #DEFAULT_PIPELINE_DEPTH}
+         *
+         * @see #withPipelineDepth(int)
+         */
+        public final static int DEFAULT_PIPELINE_DEPTH = 1;
 
         /**
          * The default HealthCheckFactory.
@@ -1302,6 +2676,16 @@ public class RiakNode implements RiakResponseListener
         private int maxConnections = DEFAULT_MAX_CONNECTIONS;
         private int idleTimeout = DEFAULT_IDLE_TIMEOUT;
         private int connectionTimeout = DEFAULT_CONNECTION_TIMEOUT;
+        private int operationDeadline = DEFAULT_OPERATION_DEADLINE;
+        private int circuitBreakerFailureRate;
+        private int circuitBreakerSlowCallMillis;
+        private int circuitBreakerOpenMillis;
+        private int initialConcurrencyLimit;
+        private int addressCacheTtlMillis;
+        private boolean backgroundAddressRefresh;
+        private int maxConcurrentConnects;
+        private int rampMillis;
+        private int maxPendingFlushes;
         private HealthCheckFactory healthCheckFactory = DEFAULT_HEALTHCHECK_FACTORY;
         private Bootstrap bootstrap;
         private ScheduledExecutorService executor;
@@ -1311,6 +2695,9 @@ public class RiakNode implements RiakResponseListener
         private KeyStore trustStore;
         private KeyStore keyStore;
         private String keyPassword;
+        private boolean zeroCopyDecoding;
+        private int pipelineDepth = DEFAULT_PIPELINE_DEPTH;
+        private boolean asyncConnectionAcquisition;
 
         /**
          * Default constructor. Returns a new builder for a RiakNode with
@@ -1447,6 +2834,180 @@ public class RiakNode implements RiakResponseListener
             return this;
         }
 
+        /**
+         * Set the default client-side deadline for operations on this node.
+         * <p>
+         * If Riak hasn't replied to an operation within the deadline the
+         * connection is closed, returning its permit to the pool, and the attempt
+         * fails with a {@link TimeoutException}. The operation is then retried by
+         * the cluster if attempts remain. A per-command deadline can be given via
+         * {@link com.basho.riak.client.api.RiakClient#executeAsync(com.basho.riak.client.api.RiakCommand, int)}.
+         * </p>
+         * @param deadlineInMillis the deadline in milliseconds. 0 disables it.
+         * @return this
+         * @see #DEFAULT_OPERATION_DEADLINE
+         * @since 2.1.2
+         */
+        public Builder withOperationDeadline(int deadlineInMillis)
+        {
+            if (deadlineInMillis < 0)
+            {
+                throw new IllegalArgumentException("Deadline cannot be negative");
+            }
+            this.operationDeadline = deadlineInMillis;
+            return this;
+        }
+
+        /**
+         * Enable a passive circuit breaker on this node.
+         * <p>
+         * The breaker watches the outcome of real operations: connection and
+         * transport failures, deadline timeouts, Riak "timeout"/"overload"
+         * errors and, if {@code slowCallMillis} is set, operations slower than
+         * that. Once {@code failureRatePercent} of the recent operations are bad
+         * the breaker opens and the node reports {@code HEALTH_CHECKING}, so the
+         * {@link NodeManager} stops using it straight away rather than each
+         * request waiting for a timeout. After {@code openMillis}, once the node
+         * also answers a health check, it returns half-open and accepts only a
+         * small fraction of the operations sent to it until enough of those
+         * succeed to close the breaker again.
+         * </p>
+         * @param failureRatePercent the percentage of bad operations that opens the breaker; 1-100.
+         * @param slowCallMillis operations slower than this count as bad. 0 to ignore latency.
+         * @param openMillis the minimum time the node is ejected for.
+         * @return this
+         * @since 2.1.2
+         */
+        public Builder withCircuitBreaker(int failureRatePercent, int slowCallMillis, int openMillis)
+        {
+            if (failureRatePercent < 1 || failureRatePercent > 100 || slowCallMillis < 0 || openMillis < 0)
+            {
+                throw new IllegalArgumentException("failureRatePercent must be 1-100 and durations cannot be negative");
+            }
+            this.circuitBreakerFailureRate = failureRatePercent;
+            this.circuitBreakerSlowCallMillis = slowCallMillis;
+            this.circuitBreakerOpenMillis = openMillis;
+            return this;
+        }
+
+        /**
+         * Adapt this node's concurrency limit to how it is coping.
+         * <p>
+         * Instead of allowing up to {@link #withMaxConnections(int)} connections
+         * at all times, the node starts at {@code initialLimit} and adjusts the
+         * limit with each operation (AIMD): a failure, or a round trip well above
+         * the node's usual RTT, cuts it by 10%; otherwise it grows by one while
+         * at least half of it is in use. The limit stays between
+         * {@link #withMinConnections(int)} (at least 1) and the max connections.
+         * </p>
+         * <p>
+         * Operations over the limit are handled as when max connections is
+         * reached: rejected straight away, so the cluster tries another node or
+         * queues them, or if {@link #withBlockOnMaxConnections(boolean)} is set,
+         * blocked until the limit allows them.
+         * </p>
+         * @param initialLimit the limit to start at; 0 (the default) disables adaptation.
+         * @return this
+         * @see RiakNode#getConcurrencyLimit()
+         * @since 2.1.2
+         */
+        public Builder withAdaptiveConcurrency(int initialLimit)
+        {
+            if (initialLimit < 0)
+            {
+                throw new IllegalArgumentException("initialLimit cannot be negative");
+            }
+            this.initialConcurrencyLimit = initialLimit;
+            return this;
+        }
+
+        /**
+         * Protect this node from connection storms when it recovers.
+         * <p>
+         * At most {@code maxConcurrentConnects} new connections are made at a
+         * time; an operation that would need another is refused (and so goes to
+         * another node or the cluster's queue), while background connects wait
+         * their turn. When the node returns from {@code HEALTH_CHECKING} to
+         * {@code RUNNING} its pool is refilled to {@link #withMinConnections(int)}
+         * with connects spread randomly over the first half of
+         * {@code rampMillis}, and its traffic weight climbs from 5% to 100% over
+         * {@code rampMillis}; the {@link NodeManager}s send it operations in
+         * proportion to that weight.
+         * </p>
+         * @param maxConcurrentConnects the most connects in progress at once; 0 (the default) for no limit.
+         * @param rampMillis the window a recovered node is brought back over; 0 (the default) to not ramp.
+         * @return this
+         * @see RiakNode#getTrafficWeight()
+         * @since 2.1.2
+         */
+        public Builder withConnectionRamp(int maxConcurrentConnects, int rampMillis)
+        {
+            if (maxConcurrentConnects < 0 || rampMillis < 0)
+            {
+                throw new IllegalArgumentException("maxConcurrentConnects and rampMillis cannot be negative");
+            }
+            this.maxConcurrentConnects = maxConcurrentConnects;
+            this.rampMillis = rampMillis;
+            return this;
+        }
+
+        /**
+         * Cache the node's resolved address.
+         * <p>
+         * By default the node's host is looked up, on the caller's thread,
+         * before every new connection. With a cache the address is looked up
+         * once and then reused; once it is older than {@code ttlMillis} it is
+         * refreshed on the node's executor while the cached address carries on
+         * being used, so making a connection never waits on DNS. If a lookup
+         * fails the last known address is kept rather than failing connections.
+         * With {@code backgroundRefresh} the address is also refreshed every
+         * {@code ttlMillis} whether or not connections are being made.
+         * </p>
+         * <p>
+         * Note the JVM's own {@code networkaddress.cache.ttl} still applies to
+         * each lookup.
+         * </p>
+         * @param ttlMillis how long a lookup is used for; 0 (the default) disables the cache.
+         * @param backgroundRefresh whether to refresh the address periodically.
+         * @return this
+         * @since 2.1.2
+         */
+        public Builder withAddressCache(int ttlMillis, boolean backgroundRefresh)
+        {
+            if (ttlMillis < 0)
+            {
+                throw new IllegalArgumentException("ttlMillis cannot be negative");
+            }
+            this.addressCacheTtlMillis = ttlMillis;
+            this.backgroundAddressRefresh = backgroundRefresh;
+            return this;
+        }
+
+        /**
+         * Consolidate flushes on this node's connections.
+         * <p>
+         * By default every operation is written and flushed on its own, costing
+         * a syscall per request. With consolidation enabled, flushes issued within
+         * the same event loop tick are combined into one; a flush is forced once
+         * {@code maxPendingFlushes} have been deferred. This helps bursty
+         * workloads (MultiFetch, pipelining) without delaying a lone request.
+         * </p>
+         * @param maxPendingFlushes the number of deferred flushes after which a
+         *                          flush is forced. 0 (the default) disables consolidation.
+         * @return this
+         * @see com.basho.riak.client.core.netty.RiakFlushConsolidationHandler
+         * @since 2.1.2
+         */
+        public Builder withFlushConsolidation(int maxPendingFlushes)
+        {
+            if (maxPendingFlushes < 0)
+            {
+                throw new IllegalArgumentException("maxPendingFlushes cannot be negative");
+            }
+            this.maxPendingFlushes = maxPendingFlushes;
+            return this;
+        }
+
         /**
          * Provides an executor for this node to use for internal maintenance tasks.
          * If not provided one will be created via
@@ -1560,6 +3121,86 @@ public class RiakNode implements RiakResponseListener
             return this;
         }
 
+        /**
+         * Set whether responses are decoded without copying them off the wire.
+         * <p>
+         * By default every inbound frame is copied into a new {@code byte[]}
+         * before being parsed. When enabled, responses are instead parsed from
+         * a pooled buffer that is released as soon as the operation has
+         * consumed it, so no garbage is created per response. This is most
+         * useful when fetching large objects.
+         * </p>
+         * <p>
+         * Frames read into heap buffers are parsed from a retained slice of
+         * the read buffer. Netty normally reads into direct buffers, which
+         * protocol buffers can't parse in place; those frames are still copied
+         * once, into a pooled heap buffer. The values of parsed
+         * objects are always copied by protocol buffers itself.
+         * </p>
+         * @param zeroCopy true to parse responses directly from the read buffer.
+         * @return a reference to this object.
+         * @since 2.1.2
+         */
+        public Builder withZeroCopyDecoding(boolean zeroCopy)
+        {
+            this.zeroCopyDecoding = zeroCopy;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of operations that may be in flight on a single connection.
+         * <p>
+         * Riak answers requests on a connection in the order they were sent. With a
+         * depth greater than 1 the node sends new operations on connections that
+         * already have operations outstanding, and only acquires a new connection
+         * once every existing one has reached this depth. Streaming operations
+         * (ListKeys, 2i, MapReduce, etc) are never pipelined and always get
+         * exclusive use of a connection.
+         * </p>
+         * <p>
+         * A failure on a pipelined connection fails every operation in flight on it.
+         * </p>
+         * @param depth maximum operations in flight per connection. 1 disables pipelining.
+         * @return this
+         * @see #DEFAULT_PIPELINE_DEPTH
+         * @since 2.1.2
+         */
+        public Builder withPipelineDepth(int depth)
+        {
+            if (depth < 1)
+            {
+                throw new IllegalArgumentException("Pipeline depth must be at least 1");
+            }
+            this.pipelineDepth = depth;
+            return this;
+        }
+
+        /**
+         * Acquire connections without blocking the calling thread.
+         * <p>
+         * By default a new connection is made, and secured if security is enabled,
+         * on the thread calling {@link RiakNode#execute(FutureOperation)}, and
+         * with {@link #withBlockOnMaxConnections(boolean)} set that thread waits
+         * for a permit when all connections are in use. As that thread can be a
+         * Netty I/O thread (e.g. a listener issuing a follow-up command) this can
+         * stall the event loop.
+         * </p>
+         * <p>
+         * When enabled, the operation is accepted immediately and written once a
+         * connection is available. Operations waiting for a permit are queued and
+         * handed connections as they are returned to the pool. If a connection
+         * can't be made the operation is failed and retried by the cluster.
+         * </p>
+         * @param async true to acquire connections asynchronously.
+         * @return this
+         * @since 2.1.2
+         */
+        public Builder withAsyncConnectionAcquisition(boolean async)
+        {
+            this.asyncConnectionAcquisition = async;
+            return this;
+        }
+
         /**
          * Builds a RiakNode.
          * If a Netty {@code Bootstrap} and/or a {@code ScheduledExecutorService} has not been provided they
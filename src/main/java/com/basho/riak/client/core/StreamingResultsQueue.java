@@ -0,0 +1,400 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.core;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TransferQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The queue a streaming operation hands its results to the consumer through.
+ * <p>
+ * It can be given high and low watermarks, counted in results. Reaching the
+ * high watermark tells the operation to stop reading from Riak; reading
+ * resumes once the consumer has brought the queue down to the low watermark.
+ * This keeps the memory a slow consumer can cause to be used bounded.
+ * </p>
+ * <p>
+ * The operation closes the queue when it completes. A consumer waiting in
+ * {@link #takeUnlessClosed()} is woken by each result and by the close, so it
+ * doesn't need to poll. Only one consumer is expected to wait at a time.
+ * </p>
+ * <p>
+ * The results are held in a {@link LinkedTransferQueue} that is only reached
+ * through this class, so every insertion and removal is counted.
+ * </p>
+ *
+ * @param <E> The type of the results.
+ * @since 2.1.2
+ */
+public class StreamingResultsQueue<E> extends AbstractQueue<E> implements TransferQueue<E>
+{
+    /**
+     * Told when the queue crosses a watermark.
+     */
+    interface WatermarkListener
+    {
+        /**
+         * @param aboveHighWatermark true when the high watermark was reached,
+         *                           false when the queue drained to the low one.
+         */
+        void watermarkCrossed(boolean aboveHighWatermark);
+    }
+
+    private final LinkedTransferQueue<E> queue = new LinkedTransferQueue<>();
+    private final AtomicInteger count = new AtomicInteger();
+    private final AtomicBoolean aboveHighWatermark = new AtomicBoolean();
+    private volatile int lowWatermark;
+    private volatile int highWatermark;
+    private volatile WatermarkListener watermarkListener;
+    private volatile boolean closed;
+    private volatile Thread waiter;
+
+    /**
+     * Sets the watermarks.
+     * @param lowWatermark the number of queued results at which reading resumes.
+     * @param highWatermark the number of queued results at which reading stops;
+     *                      0 disables the watermarks.
+     */
+    void setWatermarks(int lowWatermark, int highWatermark)
+    {
+        if (highWatermark < 0 || lowWatermark < 0 || (highWatermark > 0 && lowWatermark >= highWatermark))
+        {
+            throw new IllegalArgumentException("Watermarks must satisfy 0 <= low < high");
+        }
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+    }
+
+    void setWatermarkListener(WatermarkListener listener)
+    {
+        this.watermarkListener = listener;
+    }
+
+    /**
+     * Marks the end of the results and wakes a waiting consumer.
+     */
+    void close()
+    {
+        closed = true;
+        signal();
+    }
+
+    /**
+     * Whether the high watermark has been reached and the queue not yet
+     * drained to the low watermark.
+     * @return true if reading should be stopped.
+     */
+    public boolean isAboveHighWatermark()
+    {
+        return aboveHighWatermark.get();
+    }
+
+    /**
+     * Whether the operation has completed; no more results will be added.
+     * @return true if closed.
+     */
+    public boolean isClosed()
+    {
+        return closed;
+    }
+
+    /**
+     * Retrieves and removes the next result, waiting for one if necessary.
+     * @return the next result, or null if the queue is closed and empty.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public E takeUnlessClosed() throws InterruptedException
+    {
+        for (;;)
+        {
+            final E e = poll();
+            if (e != null || (closed && isEmpty()))
+            {
+                return e;
+            }
+            awaitResultOrClose();
+        }
+    }
+
+    /**
+     * Waits until the queue is non-empty or closed.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public void awaitResultOrClose() throws InterruptedException
+    {
+        while (isEmpty() && !closed)
+        {
+            waiter = Thread.currentThread();
+            // Re-checked after publishing the waiter so a signal isn't missed
+            if (isEmpty() && !closed)
+            {
+                LockSupport.park(this);
+            }
+            waiter = null;
+            if (Thread.interrupted())
+            {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    private void signal()
+    {
+        final Thread t = waiter;
+        if (t != null)
+        {
+            LockSupport.unpark(t);
+        }
+    }
+
+    @Override
+    public boolean offer(E e)
+    {
+        queue.offer(e);
+        added();
+        return true;
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit)
+    {
+        return offer(e);
+    }
+
+    @Override
+    public void put(E e)
+    {
+        offer(e);
+    }
+
+    @Override
+    public boolean tryTransfer(E e)
+    {
+        // Counted first; a waiting consumer takes it through this class
+        added();
+        if (queue.tryTransfer(e))
+        {
+            return true;
+        }
+        removed(e);
+        return false;
+    }
+
+    @Override
+    public void transfer(E e) throws InterruptedException
+    {
+        added();
+        try
+        {
+            queue.transfer(e);
+        }
+        catch (InterruptedException ex)
+        {
+            // The element isn't left in the queue
+            removed(e);
+            throw ex;
+        }
+    }
+
+    @Override
+    public boolean tryTransfer(E e, long timeout, TimeUnit unit) throws InterruptedException
+    {
+        added();
+        try
+        {
+            if (queue.tryTransfer(e, timeout, unit))
+            {
+                return true;
+            }
+        }
+        catch (InterruptedException ex)
+        {
+            removed(e);
+            throw ex;
+        }
+        removed(e);
+        return false;
+    }
+
+    @Override
+    public boolean hasWaitingConsumer()
+    {
+        return queue.hasWaitingConsumer();
+    }
+
+    @Override
+    public int getWaitingConsumerCount()
+    {
+        return queue.getWaitingConsumerCount();
+    }
+
+    @Override
+    public E poll()
+    {
+        return removed(queue.poll());
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        return removed(queue.poll(timeout, unit));
+    }
+
+    @Override
+    public E take() throws InterruptedException
+    {
+        return removed(queue.take());
+    }
+
+    @Override
+    public E peek()
+    {
+        return queue.peek();
+    }
+
+    @Override
+    public boolean remove(Object o)
+    {
+        if (queue.remove(o))
+        {
+            removed(o);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c)
+    {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements)
+    {
+        if (c == this)
+        {
+            throw new IllegalArgumentException();
+        }
+        int drained = 0;
+        E e;
+        while (drained < maxElements && (e = poll()) != null)
+        {
+            c.add(e);
+            drained++;
+        }
+        return drained;
+    }
+
+    @Override
+    public int remainingCapacity()
+    {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return queue.isEmpty();
+    }
+
+    @Override
+    public int size()
+    {
+        return queue.size();
+    }
+
+    @Override
+    public boolean contains(Object o)
+    {
+        return queue.contains(o);
+    }
+
+    @Override
+    public Iterator<E> iterator()
+    {
+        final Iterator<E> it = queue.iterator();
+        return new Iterator<E>()
+        {
+            private E last;
+
+            @Override
+            public boolean hasNext()
+            {
+                return it.hasNext();
+            }
+
+            @Override
+            public E next()
+            {
+                last = it.next();
+                return last;
+            }
+
+            @Override
+            public void remove()
+            {
+                if (last == null)
+                {
+                    throw new IllegalStateException();
+                }
+                // Only counted if it was still queued
+                StreamingResultsQueue.this.remove(last);
+                last = null;
+            }
+        };
+    }
+
+    private void added()
+    {
+        final int queued = count.incrementAndGet();
+        final int high = highWatermark;
+        if (high > 0 && queued >= high && aboveHighWatermark.compareAndSet(false, true))
+        {
+            notifyWatermark(true);
+        }
+        signal();
+    }
+
+    private <T> T removed(T e)
+    {
+        if (e != null)
+        {
+            final int queued = count.decrementAndGet();
+            if (queued <= lowWatermark && aboveHighWatermark.compareAndSet(true, false))
+            {
+                notifyWatermark(false);
+            }
+        }
+        return e;
+    }
+
+    private void notifyWatermark(boolean above)
+    {
+        final WatermarkListener listener = watermarkListener;
+        if (listener != null)
+        {
+            listener.watermarkCrossed(above);
+        }
+    }
+}
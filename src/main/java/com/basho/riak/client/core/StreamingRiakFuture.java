@@ -35,4 +35,30 @@ public interface StreamingRiakFuture<ResultType, QueryInfoType>
      * @return An Queue.
      */
     TransferQueue<ResultType> getResultsQueue();
+
+    /**
+     * Sets a callback run each time a result is added to the results queue.
+     * <p>
+     * It runs on a Netty I/O thread and must not block.
+     * </p>
+     * @param listener the callback, or null to remove it.
+     * @since 2.1.2
+     */
+    default void setChunkListener(Runnable listener)
+    {
+    }
+
+    /**
+     * Pauses or resumes reading results from Riak.
+     * <p>
+     * While paused, Riak is held back by TCP flow control once the socket
+     * buffers fill, so the results queue stops growing. Reading is always
+     * resumed once the operation completes.
+     * </p>
+     * @param autoRead false to pause, true to resume.
+     * @since 2.1.2
+     */
+    default void setAutoRead(boolean autoRead)
+    {
+    }
 }
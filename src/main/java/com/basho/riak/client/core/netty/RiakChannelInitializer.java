@@ -29,17 +29,52 @@ import io.netty.channel.socket.SocketChannel;
 public class RiakChannelInitializer extends ChannelInitializer<SocketChannel>
 {
     private final RiakResponseListener listener;
+    private final boolean zeroCopyDecoding;
+    private final int maxPendingFlushes;
+
     public RiakChannelInitializer(RiakResponseListener listener)
+    {
+        this(listener, false);
+    }
+
+    /**
+     * @param listener the listener notified of responses
+     * @param zeroCopyDecoding whether inbound frames are decoded into
+     *                         buffer-backed messages
+     * @see RiakMessageCodec#RiakMessageCodec(boolean)
+     * @since 2.1.2
+     */
+    public RiakChannelInitializer(RiakResponseListener listener, boolean zeroCopyDecoding)
+    {
+        this(listener, zeroCopyDecoding, 0);
+    }
+
+    /**
+     * @param listener the listener notified of responses
+     * @param zeroCopyDecoding whether inbound frames are decoded into
+     *                         buffer-backed messages
+     * @param maxPendingFlushes if greater than 0, flushes are consolidated and
+     *                          forced after this many; 0 flushes every write.
+     * @see RiakFlushConsolidationHandler
+     * @since 2.1.2
+     */
+    public RiakChannelInitializer(RiakResponseListener listener, boolean zeroCopyDecoding, int maxPendingFlushes)
     {
         super();
         this.listener = listener;
+        this.zeroCopyDecoding = zeroCopyDecoding;
+        this.maxPendingFlushes = maxPendingFlushes;
     }
 
     @Override
     public void initChannel(SocketChannel ch) throws Exception
     {
         ChannelPipeline p = ch.pipeline();
-        p.addLast(Constants.MESSAGE_CODEC, new RiakMessageCodec());
+        if (maxPendingFlushes > 0)
+        {
+            p.addLast(Constants.FLUSH_CONSOLIDATION_HANDLER, new RiakFlushConsolidationHandler(maxPendingFlushes));
+        }
+        p.addLast(Constants.MESSAGE_CODEC, new RiakMessageCodec(zeroCopyDecoding));
         p.addLast(Constants.OPERATION_ENCODER, new RiakOperationEncoder());
         p.addLast(Constants.RESPONSE_HANDLER, new RiakResponseHandler(listener));
     }
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.core.netty;
+
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+
+/**
+ * Consolidates flushes so that a burst of writes reaches the socket in a
+ * single syscall.
+ * <p>
+ * A flush is deferred to a task on the channel's event loop, so writes issued
+ * within the same event loop tick (e.g. a MultiFetch's operations being
+ * written from other threads) are flushed together once the loop gets to it.
+ * If {@code maxPendingFlushes} flushes have been deferred the flush is
+ * performed immediately. A single request is flushed on the next loop
+ * iteration, so its latency is unaffected.
+ * </p>
+ * <p>
+ * While a read is in progress flushes are deferred until the read completes,
+ * as replies to pipelined requests often trigger follow-up writes.
+ * </p>
+ *
+ * @since 2.1.2
+ */
+public class RiakFlushConsolidationHandler extends ChannelDuplexHandler
+{
+    private final int maxPendingFlushes;
+    private final Runnable flushTask;
+    private ChannelHandlerContext ctx;
+    private int pendingFlushes;
+    private boolean readInProgress;
+    private boolean flushScheduled;
+
+    /**
+     * @param maxPendingFlushes the number of deferred flushes after which
+     *                          a flush is performed immediately.
+     */
+    public RiakFlushConsolidationHandler(int maxPendingFlushes)
+    {
+        if (maxPendingFlushes < 1)
+        {
+            throw new IllegalArgumentException("maxPendingFlushes must be at least 1");
+        }
+        this.maxPendingFlushes = maxPendingFlushes;
+        this.flushTask = new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                flushScheduled = false;
+                if (pendingFlushes > 0 && !readInProgress)
+                {
+                    flushNow(ctx);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) throws Exception
+    {
+        this.ctx = ctx;
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception
+    {
+        if (++pendingFlushes >= maxPendingFlushes)
+        {
+            flushNow(ctx);
+        }
+        else if (!readInProgress && !flushScheduled)
+        {
+            flushScheduled = true;
+            ctx.channel().eventLoop().execute(flushTask);
+        }
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception
+    {
+        readInProgress = true;
+        ctx.fireChannelRead(msg);
+    }
+
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) throws Exception
+    {
+        readInProgress = false;
+        flushIfNeeded(ctx);
+        ctx.fireChannelReadComplete();
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception
+    {
+        flushIfNeeded(ctx);
+        ctx.fireExceptionCaught(cause);
+    }
+
+    @Override
+    public void disconnect(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception
+    {
+        flushIfNeeded(ctx);
+        ctx.disconnect(promise);
+    }
+
+    @Override
+    public void close(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception
+    {
+        flushIfNeeded(ctx);
+        ctx.close(promise);
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception
+    {
+        if (!ctx.channel().isWritable())
+        {
+            // Don't hold back data that is already piling up
+            flushIfNeeded(ctx);
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception
+    {
+        flushIfNeeded(ctx);
+    }
+
+    private void flushIfNeeded(ChannelHandlerContext ctx)
+    {
+        if (pendingFlushes > 0)
+        {
+            flushNow(ctx);
+        }
+    }
+
+    private void flushNow(ChannelHandlerContext ctx)
+    {
+        pendingFlushes = 0;
+        ctx.flush();
+    }
+}
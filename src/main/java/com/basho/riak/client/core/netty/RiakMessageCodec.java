@@ -27,13 +27,43 @@ import java.util.List;
  */
 public class RiakMessageCodec extends ByteToMessageCodec<RiakMessage>
 {
+    private final boolean zeroCopyDecoding;
+
+    public RiakMessageCodec()
+    {
+        this(false);
+    }
+
+    /**
+     * Creates a codec, optionally decoding inbound frames without copying them.
+     * <p>
+     * When {@code zeroCopyDecoding} is true each decoded {@link RiakMessage} wraps
+     * a retained slice of the inbound buffer rather than a copy of it. Whoever
+     * consumes the message is then responsible for calling {@link RiakMessage#release()}.
+     * </p>
+     * <p>
+     * Only array-backed inbound buffers can be sliced this way. Netty's
+     * default allocator reads into direct buffers, whose frames are instead
+     * copied once into a pooled heap buffer from the channel's allocator.
+     * </p>
+     *
+     * @param zeroCopyDecoding true to produce buffer-backed messages
+     * @since 2.1.2
+     */
+    public RiakMessageCodec(boolean zeroCopyDecoding)
+    {
+        super();
+        this.zeroCopyDecoding = zeroCopyDecoding;
+    }
+
     @Override
     protected void encode(ChannelHandlerContext ctx, RiakMessage msg, ByteBuf out) throws Exception
     {
-        int length = msg.getData().length + 1;
+        int length = msg.getDataLength() + 1;
+        out.ensureWritable(length + 4);
         out.writeInt(length);
         out.writeByte(msg.getCode());
-        out.writeBytes(msg.getData());
+        msg.writeDataTo(out);
     }
 
     @Override
@@ -54,9 +84,25 @@ public class RiakMessageCodec extends ByteToMessageCodec<RiakMessage>
             else
             {
                 byte code = in.readByte();
-                byte[] array = new byte[length - 1];
-                in.readBytes(array);
-                out.add(new RiakMessage(code,array));
+                if (zeroCopyDecoding && in.hasArray())
+                {
+                    out.add(new RiakMessage(code, in.readRetainedSlice(length - 1)));
+                }
+                else if (zeroCopyDecoding)
+                {
+                    // Protobuf can only parse a direct buffer through a
+                    // stream; one copy into a pooled heap buffer lets it
+                    // parse in place without allocating a byte[] per frame.
+                    ByteBuf frame = ctx.alloc().heapBuffer(length - 1);
+                    in.readBytes(frame);
+                    out.add(new RiakMessage(code, frame));
+                }
+                else
+                {
+                    byte[] array = new byte[length - 1];
+                    in.readBytes(array);
+                    out.add(new RiakMessage(code,array));
+                }
             }
         }
     }
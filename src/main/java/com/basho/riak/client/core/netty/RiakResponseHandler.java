@@ -24,13 +24,23 @@ public class RiakResponseHandler extends ChannelInboundHandlerAdapter
     public void channelRead(ChannelHandlerContext chc, Object message) throws Exception
     {
         RiakMessage riakMessage = (RiakMessage) message;
-        if (riakMessage.isRiakError())
+        try
         {
-            listener.onRiakErrorResponse(chc.channel(), riakMessage.getRiakError());
+            if (riakMessage.isRiakError())
+            {
+                listener.onRiakErrorResponse(chc.channel(), riakMessage.getRiakError());
+            }
+            else
+            {
+                listener.onSuccess(chc.channel(), riakMessage);
+            }
         }
-        else
+        finally
         {
-            listener.onSuccess(chc.channel(), riakMessage);
+            // The operation decodes the message synchronously in
+            // FutureOperation.setResponse(), so by now nothing refers to
+            // the (possibly) buffer-backed payload.
+            riakMessage.release();
         }
     }
 
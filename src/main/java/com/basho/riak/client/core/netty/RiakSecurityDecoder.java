@@ -221,8 +221,7 @@ public class RiakSecurityDecoder extends ByteToMessageDecoder
                     .setUser(ByteString.copyFromUtf8(username))
                     .setPassword(ByteString.copyFromUtf8(password))
                     .build();
-                c.writeAndFlush(new RiakMessage(RiakMessageCodes.MSG_AuthReq,
-                                authReq.toByteArray()));
+                c.writeAndFlush(new RiakMessage(RiakMessageCodes.MSG_AuthReq, authReq));
             }
             else
             {
@@ -78,7 +78,7 @@ public class CoveragePlanOperation extends FutureOperation<CoveragePlanOperation
     @Override
     protected RiakMessage createChannelMessage()
     {
-        return new RiakMessage(RiakMessageCodes.MSG_CoverageReq, reqBuilder.build().toByteArray());
+        return new RiakMessage(RiakMessageCodes.MSG_CoverageReq, reqBuilder.build());
     }
 
     @Override
@@ -60,7 +60,7 @@ public class DeleteOperation extends FutureOperation<Void, Void, Location>
     @Override
     protected RiakMessage createChannelMessage()
     {
-        return new RiakMessage(RiakMessageCodes.MSG_DelReq, reqBuilder.build().toByteArray());
+        return new RiakMessage(RiakMessageCodes.MSG_DelReq, reqBuilder.build());
     }
 
     @Override
@@ -39,6 +39,18 @@ public class DtFetchOperation extends FutureOperation<DtFetchOperation.Response,
         this.location = builder.location;
     }
 
+    private DtFetchOperation(DtFetchOperation original)
+    {
+        this.reqBuilder = original.reqBuilder.clone();
+        this.location = original.location;
+    }
+
+    @Override
+    protected DtFetchOperation createHedge()
+    {
+        return new DtFetchOperation(this);
+    }
+
     @Override
     protected Response convert(List<RiakDtPB.DtFetchResp> rawResponse)
     {
@@ -75,7 +87,7 @@ public class DtFetchOperation extends FutureOperation<DtFetchOperation.Response,
     @Override
     protected RiakMessage createChannelMessage()
     {
-        return new RiakMessage(RiakMessageCodes.MSG_DtFetchReq, reqBuilder.build().toByteArray());
+        return new RiakMessage(RiakMessageCodes.MSG_DtFetchReq, reqBuilder.build());
     }
 
     @Override
@@ -84,7 +96,7 @@ public class DtFetchOperation extends FutureOperation<DtFetchOperation.Response,
         Operations.checkPBMessageType(rawMessage, RiakMessageCodes.MSG_DtFetchResp);
         try
         {
-            return RiakDtPB.DtFetchResp.parseFrom(rawMessage.getData());
+            return RiakDtPB.DtFetchResp.PARSER.parseFrom(rawMessage.getDataInputStream());
         }
         catch (InvalidProtocolBufferException ex)
         {
@@ -74,7 +74,7 @@ public class DtUpdateOperation extends FutureOperation<DtUpdateOperation.Respons
     @Override
     protected RiakMessage createChannelMessage()
     {
-        return new RiakMessage(RiakMessageCodes.MSG_DtUpdateReq, reqBuilder.build().toByteArray());
+        return new RiakMessage(RiakMessageCodes.MSG_DtUpdateReq, reqBuilder.build());
     }
 
     @Override
@@ -54,7 +54,7 @@ public class FetchBucketPropsOperation extends FutureOperation<FetchBucketPropsO
     protected RiakMessage createChannelMessage()
     {
         RiakPB.RpbGetBucketReq req = reqBuilder.build();
-        return new RiakMessage(RiakMessageCodes.MSG_GetBucketReq, req.toByteArray());
+        return new RiakMessage(RiakMessageCodes.MSG_GetBucketReq, req);
     }
 
     @Override
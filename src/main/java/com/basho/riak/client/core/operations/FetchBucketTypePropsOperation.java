@@ -55,7 +55,7 @@ public class FetchBucketTypePropsOperation extends FutureOperation<FetchBucketTy
     protected RiakMessage createChannelMessage()
     {
         RiakPB.RpbGetBucketTypeReq req = reqBuilder.build();
-        return new RiakMessage(RiakMessageCodes.MSG_GetBucketTypeReq, req.toByteArray());
+        return new RiakMessage(RiakMessageCodes.MSG_GetBucketTypeReq, req);
     }
 
     @Override
@@ -49,6 +49,18 @@ public class FetchOperation extends FutureOperation<FetchOperation.Response, Ria
         this.location = builder.location;
     }
 
+    private FetchOperation(FetchOperation original)
+    {
+        this.reqBuilder = original.reqBuilder.clone();
+        this.location = original.location;
+    }
+
+    @Override
+    protected FetchOperation createHedge()
+    {
+        return new FetchOperation(this);
+    }
+
     @Override
     protected RiakKvPB.RpbGetResp decode(RiakMessage message)
     {
@@ -56,14 +68,12 @@ public class FetchOperation extends FutureOperation<FetchOperation.Response, Ria
 
         try
         {
-            byte[] data = message.getData();
-
-            if (data.length == 0) // not found
+            if (message.getDataLength() == 0) // not found
             {
                 return null;
             }
 
-            return RiakKvPB.RpbGetResp.parseFrom(data);
+            return RiakKvPB.RpbGetResp.PARSER.parseFrom(message.getDataInputStream());
         }
         catch (InvalidProtocolBufferException e)
         {
@@ -125,7 +135,7 @@ public class FetchOperation extends FutureOperation<FetchOperation.Response, Ria
     protected RiakMessage createChannelMessage()
     {
         RiakKvPB.RpbGetReq req = reqBuilder.build();
-        return new RiakMessage(RiakMessageCodes.MSG_GetReq, req.toByteArray());
+        return new RiakMessage(RiakMessageCodes.MSG_GetReq, req);
     }
 
     @Override
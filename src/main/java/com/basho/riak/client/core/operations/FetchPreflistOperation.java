@@ -0,0 +1,206 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.core.operations;
+
+import com.basho.riak.client.core.FutureOperation;
+import com.basho.riak.client.core.RiakMessage;
+import com.basho.riak.client.core.query.Location;
+import com.basho.riak.protobuf.RiakKvPB;
+import com.basho.riak.protobuf.RiakMessageCodes;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An operation to retrieve the preference list (the partitions and nodes
+ * responsible) for a key.
+ * <p>
+ * Requires Riak 2.1 or later.
+ * </p>
+ *
+ * @since 2.1.2
+ */
+public class FetchPreflistOperation extends FutureOperation<FetchPreflistOperation.Response, RiakKvPB.RpbGetBucketKeyPreflistResp, Location>
+{
+    private final RiakKvPB.RpbGetBucketKeyPreflistReq.Builder reqBuilder;
+    private final Location location;
+
+    private FetchPreflistOperation(Builder builder)
+    {
+        this.reqBuilder = builder.reqBuilder;
+        this.location = builder.location;
+    }
+
+    @Override
+    protected Response convert(List<RiakKvPB.RpbGetBucketKeyPreflistResp> rawResponse)
+    {
+        List<PreflistItem> items = new ArrayList<>();
+        for (RiakKvPB.RpbGetBucketKeyPreflistResp resp : rawResponse)
+        {
+            for (RiakKvPB.RpbBucketKeyPreflistItem item : resp.getPreflistList())
+            {
+                items.add(new PreflistItem(item.getPartition(),
+                                           item.getNode().toStringUtf8(),
+                                           item.getPrimary()));
+            }
+        }
+        return new Response(items);
+    }
+
+    @Override
+    protected RiakMessage createChannelMessage()
+    {
+        return new RiakMessage(RiakMessageCodes.MSG_GetBucketKeyPreflistReq, reqBuilder.build());
+    }
+
+    @Override
+    protected RiakKvPB.RpbGetBucketKeyPreflistResp decode(RiakMessage rawMessage)
+    {
+        Operations.checkPBMessageType(rawMessage, RiakMessageCodes.MSG_GetBucketKeyPreflistResp);
+        try
+        {
+            return RiakKvPB.RpbGetBucketKeyPreflistResp.parseFrom(rawMessage.getData());
+        }
+        catch (InvalidProtocolBufferException e)
+        {
+            throw new IllegalArgumentException("Invalid message received", e);
+        }
+    }
+
+    @Override
+    public Location getQueryInfo()
+    {
+        return location;
+    }
+
+    public static class Builder
+    {
+        private final RiakKvPB.RpbGetBucketKeyPreflistReq.Builder reqBuilder =
+            RiakKvPB.RpbGetBucketKeyPreflistReq.newBuilder();
+        private final Location location;
+
+        /**
+         * Construct a builder for a FetchPreflistOperation.
+         * @param location Location of the key whose preflist is to be fetched.
+         */
+        public Builder(Location location)
+        {
+            if (location == null)
+            {
+                throw new IllegalArgumentException("Location can not be null");
+            }
+
+            reqBuilder.setType(ByteString.copyFrom(location.getNamespace().getBucketType().unsafeGetValue()));
+            reqBuilder.setBucket(ByteString.copyFrom(location.getNamespace().getBucketName().unsafeGetValue()));
+            reqBuilder.setKey(ByteString.copyFrom(location.getKey().unsafeGetValue()));
+            this.location = location;
+        }
+
+        public FetchPreflistOperation build()
+        {
+            return new FetchPreflistOperation(this);
+        }
+    }
+
+    /**
+     * A single entry in a preference list.
+     */
+    public static class PreflistItem
+    {
+        private final long partition;
+        private final String node;
+        private final boolean primary;
+
+        public PreflistItem(long partition, String node, boolean primary)
+        {
+            this.partition = partition;
+            this.node = node;
+            this.primary = primary;
+        }
+
+        /**
+         * @return the partition (vnode) index.
+         */
+        public long getPartition()
+        {
+            return partition;
+        }
+
+        /**
+         * @return the Erlang node name, e.g. {@code riak@10.0.0.1}.
+         */
+        public String getNode()
+        {
+            return node;
+        }
+
+        /**
+         * @return true if the node is a primary for the partition, false if it is a fallback.
+         */
+        public boolean isPrimary()
+        {
+            return primary;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "PreflistItem{partition=" + partition + ", node='" + node + "', primary=" + primary + '}';
+        }
+    }
+
+    public static class Response
+    {
+        private final List<PreflistItem> preflist;
+
+        protected Response(List<PreflistItem> preflist)
+        {
+            this.preflist = Collections.unmodifiableList(preflist);
+        }
+
+        protected Response(Response rhs)
+        {
+            this.preflist = rhs.preflist;
+        }
+
+        /**
+         * @return the preference list, in the order Riak returned it.
+         */
+        public List<PreflistItem> getPreflist()
+        {
+            return preflist;
+        }
+
+        /**
+         * @return the names of the nodes that are primaries for the key.
+         */
+        public List<String> getPrimaryNodes()
+        {
+            List<String> nodes = new ArrayList<>(preflist.size());
+            for (PreflistItem item : preflist)
+            {
+                if (item.isPrimary() && !nodes.contains(item.getNode()))
+                {
+                    nodes.add(item.getNode());
+                }
+            }
+            return nodes;
+        }
+    }
+}
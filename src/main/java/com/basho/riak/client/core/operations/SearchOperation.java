@@ -85,7 +85,7 @@ public class SearchOperation extends FutureOperation<SearchOperation.Response, R
     protected RiakMessage createChannelMessage()
     {
         RiakSearchPB.RpbSearchQueryReq req = reqBuilder.build();
-        return new RiakMessage(RiakMessageCodes.MSG_SearchQueryReq, req.toByteArray());
+        return new RiakMessage(RiakMessageCodes.MSG_SearchQueryReq, req);
     }
 
     @Override
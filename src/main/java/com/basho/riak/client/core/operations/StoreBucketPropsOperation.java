@@ -40,7 +40,7 @@ public class StoreBucketPropsOperation extends StorePropertiesOperation<Namespac
     protected RiakMessage createChannelMessage()
     {
         RiakPB.RpbSetBucketReq req = reqBuilder.build();
-        return new RiakMessage(RiakMessageCodes.MSG_SetBucketReq, req.toByteArray());
+        return new RiakMessage(RiakMessageCodes.MSG_SetBucketReq, req);
     }
 
     @Override
@@ -40,7 +40,7 @@ public class StoreBucketTypePropsOperation extends StorePropertiesOperation<Bina
     protected RiakMessage createChannelMessage()
     {
         RiakPB.RpbSetBucketTypeReq req = reqBuilder.build();
-        return new RiakMessage(RiakMessageCodes.MSG_SetBucketTypeReq, req.toByteArray());
+        return new RiakMessage(RiakMessageCodes.MSG_SetBucketTypeReq, req);
     }
 
     @Override
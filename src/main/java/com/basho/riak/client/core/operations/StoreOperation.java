@@ -97,7 +97,7 @@ public class StoreOperation extends FutureOperation<StoreOperation.Response, Ria
     protected RiakMessage createChannelMessage()
     {
         RiakKvPB.RpbPutReq req = reqBuilder.build();
-        return new RiakMessage(RiakMessageCodes.MSG_PutReq, req.toByteArray());
+        return new RiakMessage(RiakMessageCodes.MSG_PutReq, req);
     }
 
     @Override
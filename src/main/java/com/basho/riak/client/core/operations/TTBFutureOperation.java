@@ -3,6 +3,7 @@ package com.basho.riak.client.core.operations;
 import com.basho.riak.client.core.FutureOperation;
 import com.basho.riak.client.core.RiakMessage;
 import com.basho.riak.protobuf.RiakMessageCodes;
+import com.ericsson.otp.erlang.OtpOutputStream;
 
 /**
  * An abstract TTB operation that introduces generic encoding/decoding
@@ -30,7 +31,7 @@ public abstract class TTBFutureOperation<T, S> extends FutureOperation<T, byte[]
     @Override
     protected RiakMessage createChannelMessage()
     {
-        return new RiakMessage(reqMessageCode, requestBuilder.build(), false);
+        return new RiakMessage(reqMessageCode, requestBuilder.buildStream());
     }
 
     @Override
@@ -51,6 +52,21 @@ public abstract class TTBFutureOperation<T, S> extends FutureOperation<T, byte[]
     public interface TTBEncoder
     {
         byte[] build();
+
+        /**
+         * Encodes the request into a stream that can be written to the
+         * channel without first being copied into a new array.
+         *
+         * @return the encoded request
+         * @since 2.1.2
+         */
+        default OtpOutputStream buildStream()
+        {
+            final byte[] encoded = build();
+            final OtpOutputStream os = new OtpOutputStream();
+            os.write(encoded, 0, encoded.length);
+            return os;
+        }
     }
 
     public interface TTBParser<T>
@@ -47,7 +47,7 @@ public class YzDeleteIndexOperation extends FutureOperation<Void, Void, String>
     protected RiakMessage createChannelMessage()
     {
         RiakYokozunaPB.RpbYokozunaIndexDeleteReq req = reqBuilder.build();
-        return new RiakMessage(RiakMessageCodes.MSG_YokozunaIndexDeleteReq, req.toByteArray());
+        return new RiakMessage(RiakMessageCodes.MSG_YokozunaIndexDeleteReq, req);
     }
 
     @Override
@@ -60,7 +60,7 @@ public class YzFetchIndexOperation extends FutureOperation<YzFetchIndexOperation
     protected RiakMessage createChannelMessage()
     {
         RiakYokozunaPB.RpbYokozunaIndexGetReq req = reqBuilder.build();
-        return new RiakMessage(RiakMessageCodes.MSG_YokozunaIndexGetReq, req.toByteArray());
+        return new RiakMessage(RiakMessageCodes.MSG_YokozunaIndexGetReq, req);
     }
 
     @Override
@@ -53,7 +53,7 @@ public class YzGetSchemaOperation extends FutureOperation<YzGetSchemaOperation.R
     protected RiakMessage createChannelMessage()
     {
         RiakYokozunaPB.RpbYokozunaSchemaGetReq req = reqBuilder.build();
-        return new RiakMessage(RiakMessageCodes.MSG_YokozunaSchemaGetReq, req.toByteArray());
+        return new RiakMessage(RiakMessageCodes.MSG_YokozunaSchemaGetReq, req);
     }
 
     @Override
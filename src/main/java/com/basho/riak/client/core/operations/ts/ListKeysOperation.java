@@ -59,6 +59,12 @@ public class ListKeysOperation extends PBFutureOperation<QueryResult, RiakTsPB.T
         return message.getDone();
     }
 
+    @Override
+    protected boolean isMultiResponse()
+    {
+        return true;
+    }
+
     public static class Builder
     {
         private final RiakTsPB.TsListKeysReq.Builder reqBuilder =
@@ -32,6 +32,12 @@ class TTBConverters
         {
             return buildMessage().toByteArray();
         }
+
+        @Override
+        public OtpOutputStream buildStream()
+        {
+            return buildMessage();
+        }
     }
 
     static class StoreEncoder extends BuilderTTBEncoder<StoreOperation.Builder>
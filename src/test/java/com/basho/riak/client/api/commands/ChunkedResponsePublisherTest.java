@@ -0,0 +1,174 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.api.commands;
+
+import com.basho.riak.client.core.StreamingRiakFuture;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ChunkedResponsePublisherTest
+{
+    private StreamingRiakFuture<Object, Void> coreFuture;
+    private Queue<Integer> results;
+    private ChunkedResponsePublisher<Integer> publisher;
+
+    private static class RecordingSubscriber implements Subscriber<Integer>
+    {
+        final List<Integer> items = new ArrayList<>();
+        Subscription subscription;
+        boolean completed;
+        Throwable error;
+
+        @Override
+        public void onSubscribe(Subscription s)
+        {
+            subscription = s;
+        }
+
+        @Override
+        public void onNext(Integer item)
+        {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable t)
+        {
+            error = t;
+        }
+
+        @Override
+        public void onComplete()
+        {
+            completed = true;
+        }
+    }
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp()
+    {
+        coreFuture = mock(StreamingRiakFuture.class);
+        results = new LinkedList<>(Arrays.asList(1, 2, 3));
+        publisher = new ChunkedResponsePublisher<>(coreFuture, results::poll);
+    }
+
+    @Test
+    public void resultsAreEmittedOnDemandAndReadingFollowsIt()
+    {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        verify(coreFuture).setAutoRead(false);
+        assertTrue(subscriber.items.isEmpty());
+
+        subscriber.subscription.request(2);
+        assertEquals(Arrays.asList(1, 2), subscriber.items);
+        verify(coreFuture, never()).setAutoRead(true);
+
+        subscriber.subscription.request(5);
+        assertEquals(Arrays.asList(1, 2, 3), subscriber.items);
+        verify(coreFuture).setAutoRead(true);
+        assertFalse(subscriber.completed);
+
+        ArgumentCaptor<Runnable> chunkListener = ArgumentCaptor.forClass(Runnable.class);
+        verify(coreFuture).setChunkListener(chunkListener.capture());
+
+        results.add(4);
+        when(coreFuture.isDone()).thenReturn(true);
+        when(coreFuture.isSuccess()).thenReturn(true);
+        chunkListener.getValue().run();
+
+        assertEquals(Arrays.asList(1, 2, 3, 4), subscriber.items);
+        assertTrue(subscriber.completed);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    public void completesWithoutDemandOnceExhausted()
+    {
+        results.clear();
+        when(coreFuture.isDone()).thenReturn(true);
+        when(coreFuture.isSuccess()).thenReturn(true);
+
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    public void failureIsSignalledAfterQueuedResults()
+    {
+        Exception failure = new Exception();
+        when(coreFuture.isDone()).thenReturn(true);
+        when(coreFuture.cause()).thenReturn(failure);
+
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(10);
+
+        assertEquals(Arrays.asList(1, 2, 3), subscriber.items);
+        assertSame(failure, subscriber.error);
+        assertFalse(subscriber.completed);
+    }
+
+    @Test
+    public void cancellingCancelsTheOperation()
+    {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(1);
+        subscriber.subscription.cancel();
+
+        verify(coreFuture).cancel(true);
+        subscriber.subscription.request(1);
+        assertEquals(Arrays.asList(1), subscriber.items);
+    }
+
+    @Test
+    public void nonPositiveRequestIsAnError()
+    {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(0);
+
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        verify(coreFuture).cancel(true);
+    }
+
+    @Test
+    public void onlyOneSubscriberIsSupported()
+    {
+        publisher.subscribe(new RecordingSubscriber());
+        RecordingSubscriber second = new RecordingSubscriber();
+        publisher.subscribe(second);
+
+        assertNotNull(second.subscription);
+        assertTrue(second.error instanceof IllegalStateException);
+    }
+}
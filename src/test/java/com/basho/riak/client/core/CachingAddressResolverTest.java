@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.core;
+
+import org.junit.Test;
+import org.powermock.reflect.Whitebox;
+
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+public class CachingAddressResolverTest
+{
+    private static class QueueingExecutor implements Executor
+    {
+        final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command)
+        {
+            tasks.add(command);
+        }
+    }
+
+    @Test
+    public void freshAddressIsReused() throws UnknownHostException
+    {
+        QueueingExecutor executor = new QueueingExecutor();
+        CachingAddressResolver resolver = new CachingAddressResolver("127.0.0.1", 8087, 60000);
+
+        InetSocketAddress first = resolver.resolve(executor);
+        assertEquals(8087, first.getPort());
+        assertSame(first, resolver.resolve(executor));
+        assertTrue(executor.tasks.isEmpty());
+    }
+
+    @Test
+    public void staleAddressIsRefreshedInBackground() throws UnknownHostException
+    {
+        QueueingExecutor executor = new QueueingExecutor();
+        CachingAddressResolver resolver = new CachingAddressResolver("127.0.0.1", 8087, 0);
+
+        InetSocketAddress first = resolver.resolve(executor);
+        // Stale straight away; the cached address is used while a single refresh runs
+        assertSame(first, resolver.resolve(executor));
+        assertSame(first, resolver.resolve(executor));
+        assertEquals(1, executor.tasks.size());
+
+        executor.tasks.get(0).run();
+        resolver.resolve(executor);
+        assertEquals(2, executor.tasks.size());
+    }
+
+    @Test
+    public void failedLookupKeepsLastKnownAddress() throws UnknownHostException
+    {
+        CachingAddressResolver resolver = new CachingAddressResolver("riak.invalid", 8087, 60000);
+        InetSocketAddress lastKnown = new InetSocketAddress("127.0.0.1", 8087);
+        Whitebox.setInternalState(resolver, "address", lastKnown);
+
+        assertSame(lastKnown, resolver.refresh());
+    }
+
+    @Test(expected = UnknownHostException.class)
+    public void failedFirstLookupThrows() throws UnknownHostException
+    {
+        new CachingAddressResolver("riak.invalid", 8087, 60000).resolve(new QueueingExecutor());
+    }
+}
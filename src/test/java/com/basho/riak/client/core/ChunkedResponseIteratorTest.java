@@ -15,6 +15,7 @@ import org.powermock.modules.junit4.PowerMockRunner;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TransferQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.Assert.*;
 import static org.powermock.api.mockito.PowerMockito.when;
@@ -233,5 +234,45 @@ public class ChunkedResponseIteratorTest
         iterator.next();
     }
 
+    @Test(timeout = 5000)
+    public void chunksAndCompletionWakeTheIterator() throws InterruptedException
+    {
+        final StreamingResultsQueue<FakeResponse> queue = new StreamingResultsQueue<>();
+        final AtomicBoolean done = new AtomicBoolean();
+        when(coreFuture.getResultsQueue()).thenReturn(queue);
+        when(coreFuture.isDone()).thenAnswer(invocationOnMock -> done.get());
+
+        Thread producer = new Thread(() ->
+        {
+            queue.offer(new FakeResponse()
+            {
+                @Override
+                public Iterator<Integer> iterator()
+                {
+                    return Arrays.asList(1, 2).iterator();
+                }
+            });
+            try
+            {
+                Thread.sleep(100);
+            }
+            catch (InterruptedException ignored)
+            {
+            }
+            done.set(true);
+            queue.close();
+        });
+        producer.start();
+
+        // The poll timeout is far longer than the test may take
+        final ChunkedResponseIterator<Long, FakeResponse, Integer> iterator =
+                new ChunkedResponseIterator<>(coreFuture, 60000, Long::new, FakeResponse::iterator);
+
+        assertEquals(1l, iterator.next().longValue());
+        assertEquals(2l, iterator.next().longValue());
+        assertFalse(iterator.hasNext());
+        producer.join();
+    }
+
     static abstract class FakeResponse implements Iterable<Integer> {}
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.core;
+
+import com.basho.riak.client.core.RiakNode.CircuitState;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CircuitBreakerTest
+{
+    @Test
+    public void opensOnFailureRate()
+    {
+        CircuitBreaker breaker = new CircuitBreaker(50, 0, 60000);
+        for (int i = 0; i < CircuitBreaker.MIN_CALLS - 1; i++)
+        {
+            assertNull(breaker.record(i % 2 == 0, 0));
+        }
+        assertEquals(CircuitState.CLOSED, breaker.getState());
+
+        assertEquals(CircuitState.OPEN, breaker.record(false, 0));
+        assertFalse(breaker.allowRequest());
+        // Still within the open period
+        assertFalse(breaker.tryHalfOpen());
+    }
+
+    @Test
+    public void slowCallsCountAsFailures()
+    {
+        CircuitBreaker breaker = new CircuitBreaker(100, 10, 60000);
+        final long slow = TimeUnit.MILLISECONDS.toNanos(20);
+        CircuitState state = null;
+        for (int i = 0; i < CircuitBreaker.MIN_CALLS; i++)
+        {
+            state = breaker.record(true, slow);
+        }
+        assertEquals(CircuitState.OPEN, state);
+    }
+
+    @Test
+    public void halfOpenProbesThenCloses()
+    {
+        CircuitBreaker breaker = new CircuitBreaker(100, 0, 0);
+        for (int i = 0; i < CircuitBreaker.MIN_CALLS; i++)
+        {
+            breaker.record(false, 0);
+        }
+        assertTrue(breaker.tryHalfOpen());
+
+        int allowed = 0;
+        for (int i = 0; i < CircuitBreaker.PROBE_INTERVAL * 3; i++)
+        {
+            if (breaker.allowRequest())
+            {
+                allowed++;
+            }
+        }
+        assertEquals(3, allowed);
+
+        for (int i = 0; i < CircuitBreaker.PROBES_TO_CLOSE - 1; i++)
+        {
+            assertNull(breaker.record(true, 0));
+        }
+        assertEquals(CircuitState.CLOSED, breaker.record(true, 0));
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void failedProbeReopens()
+    {
+        CircuitBreaker breaker = new CircuitBreaker(100, 0, 0);
+        for (int i = 0; i < CircuitBreaker.MIN_CALLS; i++)
+        {
+            breaker.record(false, 0);
+        }
+        assertTrue(breaker.tryHalfOpen());
+        assertEquals(CircuitState.OPEN, breaker.record(false, 0));
+    }
+}
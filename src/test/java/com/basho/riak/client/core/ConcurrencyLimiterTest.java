@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.core;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ConcurrencyLimiterTest
+{
+    @Test
+    public void failureCutsLimit()
+    {
+        RiakNode.Sync permits = new RiakNode.Sync(100);
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(permits, 10, 1, 100);
+        assertEquals(10, permits.getMaxPermits());
+
+        assertEquals(-1, limiter.onSample(false, 0));
+        assertEquals(9, limiter.getLimit());
+        assertEquals(9, permits.availablePermits());
+    }
+
+    @Test
+    public void limitGrowsOnlyWhenInUse()
+    {
+        RiakNode.Sync permits = new RiakNode.Sync(100);
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(permits, 10, 1, 100);
+        final long rtt = TimeUnit.MILLISECONDS.toNanos(1);
+
+        assertEquals(0, limiter.onSample(true, rtt));
+        assertEquals(10, limiter.getLimit());
+
+        assertTrue(permits.tryAcquire(5));
+        assertEquals(1, limiter.onSample(true, rtt));
+        assertEquals(11, limiter.getLimit());
+        assertEquals(6, permits.availablePermits());
+    }
+
+    @Test
+    public void slowRoundTripCutsLimit()
+    {
+        RiakNode.Sync permits = new RiakNode.Sync(100);
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(permits, 10, 1, 100);
+
+        limiter.onSample(true, TimeUnit.MILLISECONDS.toNanos(1));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1), limiter.getBaselineRttNanos());
+        assertEquals(-1, limiter.onSample(true, TimeUnit.MILLISECONDS.toNanos(5)));
+    }
+
+    @Test
+    public void limitStaysWithinBounds()
+    {
+        RiakNode.Sync permits = new RiakNode.Sync(100);
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(permits, 10, 2, 12);
+        for (int i = 0; i < 50; i++)
+        {
+            limiter.onSample(false, 0);
+        }
+        assertEquals(2, limiter.getLimit());
+
+        for (int i = 0; i < 50; i++)
+        {
+            while (permits.tryAcquire())
+            {
+                // Keep the whole limit in use
+            }
+            limiter.onSample(true, 0);
+        }
+        assertEquals(12, limiter.getLimit());
+
+        // Lowering the ceiling below what is in use leaves a deficit
+        while (permits.tryAcquire())
+        {
+            // Keep the whole limit in use
+        }
+        limiter.setMaxLimit(5);
+        assertEquals(5, limiter.getLimit());
+        assertEquals(-7, permits.availablePermits());
+    }
+}
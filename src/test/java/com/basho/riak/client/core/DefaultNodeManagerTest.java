@@ -15,8 +15,12 @@
  */
 package com.basho.riak.client.core;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -24,6 +28,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentMatcher;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.argThat;
 import static org.mockito.Mockito.*;
 import org.powermock.api.mockito.PowerMockito;
@@ -92,6 +97,41 @@ public class DefaultNodeManagerTest
         assertFalse(executed);
     }
 
+    @Test
+    public void rampingNodeIsPassedOver()
+    {
+        FutureOperation operation = PowerMockito.mock(FutureOperation.class);
+        DefaultNodeManager nodeManager = new DefaultNodeManager();
+        doReturn(true).when(mockNodes.get(0)).declinesTraffic();
+        doReturn(true).when(mockNodes.get(0)).execute(operation);
+        doReturn(true).when(mockNodes.get(1)).execute(operation);
+        nodeManager.init(mockNodes);
+
+        assertTrue(nodeManager.executeOnNode(operation, null));
+        verify(mockNodes.get(0), never()).execute(operation);
+        verify(mockNodes.get(1)).execute(operation);
+
+        // It still takes the operation if no other node will
+        doReturn(false).when(mockNodes.get(1)).execute(operation);
+        assertTrue(nodeManager.executeOnNode(operation, null));
+        verify(mockNodes.get(0)).execute(operation);
+    }
+
+    @Test
+    public void everyRampingNodeIsTriedBeforeFailing()
+    {
+        FutureOperation operation = PowerMockito.mock(FutureOperation.class);
+        DefaultNodeManager nodeManager = new DefaultNodeManager();
+        doReturn(true).when(mockNodes.get(0)).declinesTraffic();
+        doReturn(true).when(mockNodes.get(1)).declinesTraffic();
+        doReturn(true).when(mockNodes.get(1)).execute(operation);
+        nodeManager.init(mockNodes);
+
+        assertTrue(nodeManager.executeOnNode(operation, null));
+        verify(mockNodes.get(0)).execute(operation);
+        verify(mockNodes.get(1)).execute(operation);
+    }
+
     @Test
     public void removeUnhealthyNode()
     {
@@ -158,6 +198,128 @@ public class DefaultNodeManagerTest
         assertEquals(mockNodes.size() + 1, healthy.size());
     }
 
+    @Test(timeout = 30000)
+    public void concurrentChangesLeaveListsConsistent() throws Exception
+    {
+        final int iterations = 2000;
+        final FutureOperation operation = PowerMockito.mock(FutureOperation.class);
+        final List<RiakNode> stable = new ArrayList<>();
+        final List<RiakNode> flapping = new ArrayList<>();
+        final List<RiakNode> added = new ArrayList<>();
+        for (int i = 0; i < 8; i++)
+        {
+            RiakNode node = mock(RiakNode.class, withSettings().stubOnly());
+            doReturn(true).when(node).execute(any(FutureOperation.class));
+            (i < 2 ? stable : i < 5 ? flapping : added).add(node);
+        }
+
+        final DefaultNodeManager nodeManager = new DefaultNodeManager();
+        List<RiakNode> initial = new ArrayList<>(stable);
+        initial.addAll(flapping);
+        nodeManager.init(initial);
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++)
+        {
+            threads.add(new Thread(new Racer(start, failure)
+            {
+                @Override
+                void race()
+                {
+                    for (int i = 0; i < iterations; i++)
+                    {
+                        // The stable nodes are always healthy
+                        assertTrue(nodeManager.executeOnNode(operation, null));
+                    }
+                }
+            }));
+        }
+        for (final RiakNode node : flapping)
+        {
+            threads.add(new Thread(new Racer(start, failure)
+            {
+                @Override
+                void race()
+                {
+                    for (int i = 0; i < iterations; i++)
+                    {
+                        nodeManager.nodeStateChanged(node, RiakNode.State.HEALTH_CHECKING);
+                        nodeManager.nodeStateChanged(node, RiakNode.State.RUNNING);
+                    }
+                }
+            }));
+        }
+        for (final RiakNode node : added)
+        {
+            threads.add(new Thread(new Racer(start, failure)
+            {
+                @Override
+                void race()
+                {
+                    for (int i = 0; i < iterations; i++)
+                    {
+                        nodeManager.addNode(node);
+                        if (i % 2 == 0)
+                        {
+                            nodeManager.nodeStateChanged(node, RiakNode.State.HEALTH_CHECKING);
+                        }
+                        assertTrue(nodeManager.removeNode(node));
+                    }
+                }
+            }));
+        }
+
+        for (Thread thread : threads)
+        {
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        if (failure.get() != null)
+        {
+            throw new AssertionError(failure.get());
+        }
+
+        List<RiakNode> healthy = Whitebox.getInternalState(nodeManager, "healthy");
+        List<RiakNode> unhealthy = Whitebox.getInternalState(nodeManager, "unhealthy");
+        assertEquals(initial.size(), healthy.size());
+        assertEquals(new HashSet<>(initial), new HashSet<>(healthy));
+        assertTrue(unhealthy.isEmpty());
+    }
+
+    private abstract static class Racer implements Runnable
+    {
+        private final CountDownLatch start;
+        private final AtomicReference<Throwable> failure;
+
+        Racer(CountDownLatch start, AtomicReference<Throwable> failure)
+        {
+            this.start = start;
+            this.failure = failure;
+        }
+
+        abstract void race();
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                start.await();
+                race();
+            }
+            catch (Throwable t)
+            {
+                failure.compareAndSet(null, t);
+            }
+        }
+    }
+
     private class IsException implements ArgumentMatcher<Object>
     {
         @Override
@@ -23,7 +23,14 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 import org.powermock.reflect.Whitebox;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -157,6 +164,251 @@ public class FutureOperationTest
         assertTrue(called.get());
     }
 
+    @Test
+    public void notifiesListenersOnListenerExecutor()
+    {
+        FutureOperation<String, ?, Void> operation = new FutureOperationImpl();
+        RiakMessage response = PowerMockito.mock(RiakMessage.class);
+        final List<Runnable> tasks = new ArrayList<>();
+        operation.setListenerExecutor(tasks::add);
+
+        final AtomicBoolean called = new AtomicBoolean(false);
+        final AtomicBoolean inlineCalled = new AtomicBoolean(false);
+        operation.addListener(f -> called.set(true));
+        operation.addListener(new InlineRiakFutureListener<String, Void>()
+        {
+            @Override
+            public void handle(RiakFuture<String, Void> f)
+            {
+                inlineCalled.set(true);
+            }
+        });
+
+        operation.setResponse(response);
+        operation.setComplete();
+
+        assertTrue(inlineCalled.get());
+        assertFalse(called.get());
+        assertEquals(1, tasks.size());
+
+        tasks.get(0).run();
+        assertTrue(called.get());
+    }
+
+    @Test
+    public void removedListenerIsNotNotified()
+    {
+        FutureOperation<String, ?, Void> operation = new FutureOperationImpl();
+        RiakMessage response = PowerMockito.mock(RiakMessage.class);
+
+        final AtomicInteger called = new AtomicInteger(0);
+        RiakFutureListener<String, Void> removed = f -> called.addAndGet(10);
+        operation.addListener(removed);
+        operation.addListener(f -> called.incrementAndGet());
+        operation.removeListener(removed);
+
+        operation.setResponse(response);
+        operation.setComplete();
+
+        assertEquals(1, called.get());
+    }
+
+    @Test
+    public void blockedGetReturnsOnCompletion() throws Exception
+    {
+        final FutureOperation<String, ?, Void> operation = new FutureOperationImpl();
+        final RiakMessage response = PowerMockito.mock(RiakMessage.class);
+
+        Thread completer = new Thread(() ->
+        {
+            try
+            {
+                Thread.sleep(50);
+            }
+            catch (InterruptedException ignored)
+            {
+            }
+            operation.setResponse(response);
+            operation.setComplete();
+        });
+        completer.start();
+
+        assertEquals("Fake!", operation.get(5, TimeUnit.SECONDS));
+        assertTrue(operation.await(0, TimeUnit.MILLISECONDS));
+        completer.join();
+    }
+
+    @Test
+    public void concurrentResponseAndFailureUseOneTry() throws Exception
+    {
+        final RiakMessage response = PowerMockito.mock(RiakMessage.class);
+
+        for (int i = 0; i < 500; i++)
+        {
+            final FutureOperation<String, ?, Void> operation = new FutureOperationImpl();
+            final List<Integer> reported = new CopyOnWriteArrayList<>();
+            operation.setRetrier(new OperationRetrier()
+            {
+                @Override
+                public void operationFailed(FutureOperation operation, int remainingRetries)
+                {
+                    reported.add(remainingRetries);
+                }
+
+                @Override
+                public void operationComplete(FutureOperation operation, int remainingRetries)
+                {
+                    reported.add(remainingRetries);
+                }
+            }, 2);
+
+            final CountDownLatch start = new CountDownLatch(1);
+            Thread responder = new Thread(() ->
+            {
+                awaitQuietly(start);
+                try
+                {
+                    operation.setResponse(response);
+                }
+                catch (IllegalStateException ignored)
+                {
+                    // The failure got there first and completed the try
+                }
+            });
+            Thread failer = new Thread(() ->
+            {
+                awaitQuietly(start);
+                try
+                {
+                    operation.setException(new Exception());
+                }
+                catch (IllegalStateException ignored)
+                {
+                    // The response got there first
+                }
+            });
+            responder.start();
+            failer.start();
+            start.countDown();
+            responder.join();
+            failer.join();
+
+            // Each result accepted uses exactly one try
+            int remaining = Whitebox.getInternalState(operation, "remainingTries");
+            assertEquals(2 - reported.size(), remaining);
+            List<Integer> sorted = new ArrayList<>(reported);
+            sorted.sort(Collections.reverseOrder());
+            for (int j = 0; j < sorted.size(); j++)
+            {
+                assertEquals(1 - j, sorted.get(j).intValue());
+            }
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch)
+    {
+        try
+        {
+            latch.await();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void cancelledOperationIsDoneAndIgnoresResponses() throws Exception
+    {
+        FutureOperation<String, ?, Void> operation = new FutureOperationImpl();
+        OperationRetrier retrier = mock(OperationRetrier.class);
+        RiakMessage response = PowerMockito.mock(RiakMessage.class);
+        operation.setRetrier(retrier, 2);
+        operation.channelMessage();
+
+        final AtomicBoolean called = new AtomicBoolean(false);
+        operation.addListener(f -> called.set(true));
+        CompletableFuture<String> stage = operation.toCompletionStage().toCompletableFuture();
+
+        assertTrue(operation.cancel(true));
+        verify(retrier).operationCancelled(operation);
+        assertTrue(called.get());
+        assertTrue(operation.isDone());
+        assertTrue(operation.isCancelled());
+        assertFalse(operation.isSuccess());
+        assertTrue(operation.cause() instanceof CancellationException);
+        assertTrue(stage.isCancelled());
+        assertFalse(operation.cancel(true));
+
+        // A response arriving afterwards is discarded
+        operation.setResponse(response);
+        operation.setComplete();
+        operation.setException(new Exception());
+        assertTrue(operation.isCancelled());
+        assertNull(operation.getNow());
+
+        try
+        {
+            operation.get();
+            fail("get() should have thrown");
+        }
+        catch (CancellationException ex)
+        {
+            // expected
+        }
+    }
+
+    @Test
+    public void completedOperationCannotBeCancelled()
+    {
+        FutureOperation<String, ?, Void> operation = new FutureOperationImpl();
+        RiakMessage response = PowerMockito.mock(RiakMessage.class);
+
+        operation.setResponse(response);
+        assertFalse(operation.cancel(true));
+        operation.setComplete();
+        assertFalse(operation.cancel(true));
+        assertFalse(operation.isCancelled());
+        assertEquals("Fake!", operation.getNow());
+    }
+
+    @Test
+    public void completesStageAfterSuccess() throws Exception
+    {
+        FutureOperation<String, ?, Void> operation = new FutureOperationImpl();
+        RiakMessage response = PowerMockito.mock(RiakMessage.class);
+
+        CompletableFuture<String> stage = operation.toCompletionStage().toCompletableFuture();
+        assertFalse(stage.isDone());
+
+        operation.setResponse(response);
+        operation.setComplete();
+
+        assertEquals("Fake!", stage.getNow(null));
+        assertSame(stage, operation.toCompletionStage());
+    }
+
+    @Test
+    public void completesStageAfterFailure()
+    {
+        FutureOperation<String, ?, Void> operation = new FutureOperationImpl();
+        Exception failure = new Exception();
+
+        operation.setException(failure);
+
+        CompletableFuture<String> stage = operation.toCompletionStage().toCompletableFuture();
+        assertTrue(stage.isCompletedExceptionally());
+        try
+        {
+            stage.join();
+            fail("Stage should have failed");
+        }
+        catch (CompletionException ex)
+        {
+            assertSame(failure, ex.getCause());
+        }
+    }
+
     @Test
     public void notifiesListenersAfterStreamingSuccess()
     {
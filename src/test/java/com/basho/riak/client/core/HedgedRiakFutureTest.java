@@ -0,0 +1,106 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.core;
+
+import com.google.protobuf.Message;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class HedgedRiakFutureTest
+{
+    private HedgePolicy policy;
+    private Operation primary;
+    private Operation hedge;
+    private HedgedRiakFuture<String, Void> future;
+
+    @Before
+    public void setUp()
+    {
+        policy = mock(HedgePolicy.class);
+        primary = new Operation();
+        hedge = new Operation();
+        future = new HedgedRiakFuture<>(primary, policy);
+        assertTrue(future.addHedge(hedge));
+    }
+
+    @Test
+    public void winningHedgeIsSampledAndOriginalCancelled()
+    {
+        hedge.setResponse(new RiakMessage((byte) 0, new byte[0]));
+        hedge.setComplete();
+
+        assertTrue(future.isSuccess());
+        // The slow original still counts towards the latency the delay is based on
+        verify(policy).recordLatency(eq(primary), anyLong());
+        assertTrue(primary.isCancelled());
+    }
+
+    @Test
+    public void winningOriginalIsSampledOnce()
+    {
+        primary.setResponse(new RiakMessage((byte) 0, new byte[0]));
+        primary.setComplete();
+
+        assertTrue(future.isSuccess());
+        assertTrue(hedge.isCancelled());
+        verify(policy, times(1)).recordLatency(eq(primary), anyLong());
+    }
+
+    @Test
+    public void failuresAreNotSampled()
+    {
+        primary.setException(new Exception());
+        hedge.setException(new Exception());
+
+        assertTrue(future.isDone());
+        assertFalse(future.isSuccess());
+        verify(policy, never()).recordLatency(any(FutureOperation.class), anyLong());
+    }
+
+    private static class Operation extends FutureOperation<String, Message, Void>
+    {
+        @Override
+        protected String convert(List<Message> rawResponse)
+        {
+            return "value";
+        }
+
+        @Override
+        protected Message decode(RiakMessage rawMessage)
+        {
+            return null;
+        }
+
+        @Override
+        protected RiakMessage createChannelMessage()
+        {
+            return new RiakMessage((byte) 0, new byte[0]);
+        }
+
+        @Override
+        public Void getQueryInfo()
+        {
+            return null;
+        }
+    }
+}
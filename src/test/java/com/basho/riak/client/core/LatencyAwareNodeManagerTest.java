@@ -0,0 +1,79 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.core;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import static org.mockito.Mockito.*;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(FutureOperation.class)
+public class LatencyAwareNodeManagerTest
+{
+    @Test
+    public void prefersFasterNode()
+    {
+        RiakNode slow = mock(RiakNode.class);
+        RiakNode fast = mock(RiakNode.class);
+        List<RiakNode> nodes = Arrays.asList(slow, fast);
+        doReturn(true).when(slow).execute(any(FutureOperation.class));
+        doReturn(true).when(fast).execute(any(FutureOperation.class));
+
+        LatencyAwareNodeManager nodeManager = new LatencyAwareNodeManager();
+        nodeManager.init(nodes);
+        nodeManager.recordLatency(slow, TimeUnit.MILLISECONDS.toNanos(100));
+        nodeManager.recordLatency(fast, TimeUnit.MILLISECONDS.toNanos(1));
+
+        for (int i = 0; i < 10; i++)
+        {
+            FutureOperation operation = PowerMockito.mock(FutureOperation.class);
+            assertTrue(nodeManager.executeOnNode(operation, null));
+        }
+
+        verify(fast, times(10)).execute(any(FutureOperation.class));
+        verify(slow, never()).execute(any(FutureOperation.class));
+        assertEquals(10, nodeManager.getInFlight(fast));
+    }
+
+    @Test
+    public void fallsBackToRoundRobinWithoutLatencyData()
+    {
+        RiakNode first = mock(RiakNode.class);
+        RiakNode second = mock(RiakNode.class);
+        List<RiakNode> nodes = Arrays.asList(first, second);
+        FutureOperation operation = PowerMockito.mock(FutureOperation.class);
+        doReturn(false).when(first).execute(operation);
+        doReturn(true).when(second).execute(operation);
+        doReturn(second).when(operation).getLastNode();
+
+        LatencyAwareNodeManager nodeManager = new LatencyAwareNodeManager();
+        nodeManager.init(nodes);
+
+        assertTrue(nodeManager.executeOnNode(operation, null));
+        verify(first).execute(operation);
+        verify(second).execute(operation);
+        assertEquals(1, nodeManager.getInFlight(second));
+        assertEquals(-1, nodeManager.getAverageLatencyNanos(second));
+    }
+}
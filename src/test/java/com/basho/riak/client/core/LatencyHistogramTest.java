@@ -0,0 +1,51 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.core;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class LatencyHistogramTest
+{
+    @Test
+    public void recordsIntoPowerOfTwoBuckets()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++)
+        {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(3));
+        }
+        histogram.record(TimeUnit.SECONDS.toNanos(10));
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(99, histogram.getBucketCounts()[2]);
+        assertEquals(1, histogram.getBucketCounts()[LatencyHistogram.BUCKETS - 1]);
+        assertEquals(4, histogram.getPercentileMicros(50));
+        assertEquals(4, histogram.getPercentileMicros(99));
+        assertEquals(Long.MAX_VALUE, histogram.getPercentileMicros(100));
+    }
+
+    @Test
+    public void emptyHistogram()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMeanNanos());
+        assertEquals(0, histogram.getPercentileMicros(95));
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.core;
+
+import com.basho.riak.client.core.netty.RiakResponseException;
+import com.basho.riak.client.core.operations.FetchPreflistOperation;
+import com.basho.riak.client.core.query.Location;
+import com.basho.riak.client.core.query.Namespace;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import static org.mockito.Mockito.*;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(FutureOperation.class)
+public class PreflistAwareNodeManagerTest
+{
+    private final Location location = new Location(new Namespace("bucket"), "key");
+    private PreflistAwareNodeManager nodeManager;
+    private List<RiakNode> nodes;
+
+    @Before
+    public void setUp()
+    {
+        nodes = Arrays.asList(mock(RiakNode.class), mock(RiakNode.class), mock(RiakNode.class));
+        for (int i = 0; i < nodes.size(); i++)
+        {
+            doReturn("10.0.0." + i).when(nodes.get(i)).getRemoteAddress();
+        }
+        nodeManager = new PreflistAwareNodeManager(100, 2);
+        nodeManager.init(nodes);
+    }
+
+    @Test
+    public void routesToPrimary()
+    {
+        nodeManager.cachePrimaries(location, Collections.singletonList("riak@10.0.0.2"));
+        FutureOperation operation = PowerMockito.mock(FutureOperation.class);
+        doReturn(location).when(operation).getQueryInfo();
+        doReturn(true).when(nodes.get(2)).execute(operation);
+
+        for (int i = 0; i < 5; i++)
+        {
+            assertTrue(nodeManager.executeOnNode(operation, null));
+        }
+
+        verify(nodes.get(2), times(5)).execute(operation);
+        verify(nodes.get(0), never()).execute(operation);
+        verify(nodes.get(1), never()).execute(operation);
+    }
+
+    @Test
+    public void fetchesPreflistOnceForUnknownKey()
+    {
+        FutureOperation operation = PowerMockito.mock(FutureOperation.class);
+        doReturn(location).when(operation).getQueryInfo();
+        final AtomicInteger preflistRequests = new AtomicInteger();
+        for (RiakNode node : nodes)
+        {
+            doAnswer(new Answer<Boolean>()
+            {
+                @Override
+                public Boolean answer(InvocationOnMock invocation) throws Throwable
+                {
+                    if (invocation.getArguments()[0] instanceof FetchPreflistOperation)
+                    {
+                        preflistRequests.incrementAndGet();
+                    }
+                    return true;
+                }
+            }).when(node).execute(any(FutureOperation.class));
+        }
+
+        // The preflist is still pending, so both go round-robin
+        assertTrue(nodeManager.executeOnNode(operation, null));
+        assertTrue(nodeManager.executeOnNode(operation, null));
+        assertEquals(1, preflistRequests.get());
+    }
+
+    @Test
+    public void transientFailureIsRetriedAndOnlyUnknownMessageDisables()
+    {
+        FutureOperation operation = PowerMockito.mock(FutureOperation.class);
+        doReturn(location).when(operation).getQueryInfo();
+        final List<FetchPreflistOperation> preflistRequests = new ArrayList<>();
+        stubExecute(preflistRequests);
+
+        nodeManager.executeOnNode(operation, null);
+        assertEquals(1, preflistRequests.size());
+        preflistRequests.get(0).setException(new RiakResponseException(0, "overload"));
+
+        // Still supported; fetched again
+        nodeManager.executeOnNode(operation, null);
+        assertEquals(2, preflistRequests.size());
+        preflistRequests.get(1).setException(new RiakResponseException(0, "Unknown message code: 33"));
+
+        nodeManager.executeOnNode(operation, null);
+        assertEquals(2, preflistRequests.size());
+    }
+
+    @Test
+    public void preflistRequestsAreRateLimited()
+    {
+        nodeManager = new PreflistAwareNodeManager(100, 2, 3);
+        nodeManager.init(nodes);
+        final List<FetchPreflistOperation> preflistRequests = new ArrayList<>();
+        stubExecute(preflistRequests);
+
+        for (int i = 0; i < 10; i++)
+        {
+            FutureOperation operation = PowerMockito.mock(FutureOperation.class);
+            doReturn(new Location(new Namespace("bucket"), "key" + i)).when(operation).getQueryInfo();
+            assertTrue(nodeManager.executeOnNode(operation, null));
+        }
+        assertEquals(3, preflistRequests.size());
+    }
+
+    @Test
+    public void onlyUnknownMessageCodeMeansUnsupported()
+    {
+        assertTrue(PreflistAwareNodeManager.isUnsupported(new RiakResponseException(0, "Unknown message code: 33")));
+        assertFalse(PreflistAwareNodeManager.isUnsupported(new RiakResponseException(0, "timeout")));
+        assertFalse(PreflistAwareNodeManager.isUnsupported(new IOException("Unknown message code")));
+    }
+
+    private void stubExecute(final List<FetchPreflistOperation> preflistRequests)
+    {
+        for (RiakNode node : nodes)
+        {
+            doAnswer(new Answer<Boolean>()
+            {
+                @Override
+                public Boolean answer(InvocationOnMock invocation) throws Throwable
+                {
+                    if (invocation.getArguments()[0] instanceof FetchPreflistOperation)
+                    {
+                        preflistRequests.add((FetchPreflistOperation) invocation.getArguments()[0]);
+                    }
+                    return true;
+                }
+            }).when(node).execute(any(FutureOperation.class));
+        }
+    }
+
+    @Test
+    public void dropsEntryAfterRepeatedMisses()
+    {
+        nodeManager.cachePrimaries(location, Collections.singletonList("riak@10.0.0.2"));
+        FutureOperation operation = PowerMockito.mock(FutureOperation.class);
+        doReturn(location).when(operation).getQueryInfo();
+        doReturn(false).when(nodes.get(2)).execute(operation);
+        doReturn(true).when(nodes.get(0)).execute(operation);
+        doReturn(true).when(nodes.get(1)).execute(operation);
+
+        assertTrue(nodeManager.executeOnNode(operation, null));
+        assertEquals(1, nodeManager.getCachedPrimaries(location).size());
+        assertTrue(nodeManager.executeOnNode(operation, null));
+        assertTrue(nodeManager.getCachedPrimaries(location).isEmpty());
+    }
+
+    @Test
+    public void dropsEntryWhenPrimaryChangesState()
+    {
+        nodeManager.cachePrimaries(location, Collections.singletonList("riak@10.0.0.1"));
+        assertEquals(nodes.get(1), nodeManager.getCachedPrimaries(location).get(0));
+
+        nodeManager.nodeStateChanged(nodes.get(1), RiakNode.State.HEALTH_CHECKING);
+        assertTrue(nodeManager.getCachedPrimaries(location).isEmpty());
+    }
+}
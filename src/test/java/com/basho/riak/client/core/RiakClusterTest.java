@@ -16,20 +16,38 @@
 package com.basho.riak.client.core;
 
 import com.google.protobuf.Message;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollMode;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.DefaultPromise;
 import io.netty.util.concurrent.FastThreadLocal;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import io.netty.util.concurrent.Promise;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 import org.powermock.reflect.Whitebox;
 
 import java.net.UnknownHostException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
 import static org.mockito.Mockito.*;
 import static org.powermock.api.mockito.PowerMockito.verifyStatic;
 /**
@@ -131,6 +149,110 @@ public class RiakClusterTest
         assertEquals(state, RiakCluster.State.SHUTDOWN);
     }
 
+    @Test
+    @PrepareForTest(Epoll.class)
+    public void epollFallsBackToNioWhenUnavailable()
+    {
+        PowerMockito.mockStatic(Epoll.class);
+        when(Epoll.isAvailable()).thenReturn(false);
+        when(Epoll.unavailabilityCause()).thenReturn(new UnsatisfiedLinkError("no native library"));
+
+        RiakCluster cluster = new RiakCluster.Builder(new RiakNode.Builder().build())
+            .withEpollTransport(true)
+            .withEpollEdgeTriggered(false)
+            .withTcpQuickAck(true)
+            .build();
+
+        Bootstrap bootstrap = Whitebox.getInternalState(cluster, "bootstrap");
+        try
+        {
+            assertTrue(bootstrap.config().group() instanceof NioEventLoopGroup);
+            assertEquals("NioSocketChannel.class", bootstrap.config().channelFactory().toString());
+            assertNoEpollOptions(bootstrap);
+        }
+        finally
+        {
+            bootstrap.config().group().shutdownGracefully();
+        }
+    }
+
+    @Test
+    public void epollOptionsAreNotAddedToSuppliedBootstrap()
+    {
+        Bootstrap supplied = new Bootstrap()
+            .group(new NioEventLoopGroup(1))
+            .channel(NioSocketChannel.class);
+
+        RiakCluster cluster = new RiakCluster.Builder(new RiakNode.Builder().build())
+            .withBootstrap(supplied)
+            .withEpollTransport(true)
+            .withTcpQuickAck(true)
+            .build();
+
+        Bootstrap bootstrap = Whitebox.getInternalState(cluster, "bootstrap");
+        try
+        {
+            assertSame(supplied.config().group(), bootstrap.config().group());
+            assertNoEpollOptions(bootstrap);
+        }
+        finally
+        {
+            supplied.config().group().shutdownGracefully();
+        }
+    }
+
+    @Test
+    public void epollOptionsAreAppliedToEpollBootstrap()
+    {
+        assumeTrue(Epoll.isAvailable());
+
+        RiakCluster cluster = new RiakCluster.Builder(new RiakNode.Builder().build())
+            .withEpollTransport(true)
+            .withEpollEdgeTriggered(false)
+            .withTcpQuickAck(true)
+            .build();
+
+        Bootstrap bootstrap = Whitebox.getInternalState(cluster, "bootstrap");
+        try
+        {
+            assertTrue(bootstrap.config().group() instanceof EpollEventLoopGroup);
+            assertEquals("EpollSocketChannel.class", bootstrap.config().channelFactory().toString());
+            Map<ChannelOption<?>, Object> options = bootstrap.config().options();
+            assertEquals(EpollMode.LEVEL_TRIGGERED, options.get(EpollChannelOption.EPOLL_MODE));
+            assertEquals(Boolean.TRUE, options.get(EpollChannelOption.TCP_QUICKACK));
+        }
+        finally
+        {
+            bootstrap.config().group().shutdownGracefully();
+        }
+    }
+
+    @Test
+    public void nioIsUsedUnlessEpollIsRequested()
+    {
+        RiakCluster cluster = new RiakCluster.Builder(new RiakNode.Builder().build())
+            .withTcpQuickAck(true)
+            .build();
+
+        Bootstrap bootstrap = Whitebox.getInternalState(cluster, "bootstrap");
+        try
+        {
+            assertTrue(bootstrap.config().group() instanceof NioEventLoopGroup);
+            assertNoEpollOptions(bootstrap);
+        }
+        finally
+        {
+            bootstrap.config().group().shutdownGracefully();
+        }
+    }
+
+    private static void assertNoEpollOptions(Bootstrap bootstrap)
+    {
+        Map<ChannelOption<?>, Object> options = bootstrap.config().options();
+        assertFalse(options.containsKey(EpollChannelOption.EPOLL_MODE));
+        assertFalse(options.containsKey(EpollChannelOption.TCP_QUICKACK));
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     public void clusterExecutesOperation()
@@ -156,6 +278,159 @@ public class RiakClusterTest
         assertEquals(1, retryQueue.size());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void clusterDelaysRetries() throws InterruptedException
+    {
+        NodeManager nodeManager = mock(NodeManager.class);
+        FutureOperation operation = PowerMockito.mock(FutureOperation.class);
+        RiakNode node = mock(RiakNode.class);
+        RiakNode.Builder nodeBuilder = spy(new RiakNode.Builder());
+        doReturn(node).when(nodeBuilder).build();
+
+        RiakCluster cluster = new RiakCluster.Builder(nodeBuilder.build())
+                .withNodeManager(nodeManager)
+                .withRetryBackoff(50, 50)
+                .build();
+        Whitebox.setInternalState(cluster, "state", RiakCluster.State.RUNNING);
+
+        cluster.operationFailed(operation, 1);
+        LinkedBlockingQueue<?> retryQueue = Whitebox.getInternalState(cluster, "retryQueue");
+        assertNotNull(retryQueue.poll(2, TimeUnit.SECONDS));
+        assertEquals(1, cluster.getRetryCount());
+        assertTrue(cluster.getTotalRetryDelayMillis() > 0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void clusterStopsRetryingOverBudget()
+    {
+        NodeManager nodeManager = mock(NodeManager.class);
+        FutureOperation operation = PowerMockito.mock(FutureOperation.class);
+        RiakNode node = mock(RiakNode.class);
+        RiakNode.Builder nodeBuilder = spy(new RiakNode.Builder());
+        doReturn(node).when(nodeBuilder).build();
+
+        RiakCluster cluster = new RiakCluster.Builder(nodeBuilder.build())
+                .withNodeManager(nodeManager)
+                .withRetryBudget(0, 1)
+                .build();
+        Whitebox.setInternalState(cluster, "state", RiakCluster.State.RUNNING);
+
+        cluster.operationFailed(operation, 2);
+        cluster.operationFailed(operation, 1);
+        LinkedBlockingQueue<?> retryQueue = Whitebox.getInternalState(cluster, "retryQueue");
+        assertEquals(1, retryQueue.size());
+        assertEquals(1, cluster.getRetriesOverBudgetCount());
+        verify(operation).abortRetries();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void clusterHedgesSlowRead() throws Exception
+    {
+        NodeManager nodeManager = mock(NodeManager.class);
+        RiakNode node = mock(RiakNode.class);
+        RiakNode.Builder nodeBuilder = spy(new RiakNode.Builder());
+        doReturn(node).when(nodeBuilder).build();
+        executesOn(nodeManager, node);
+
+        RiakCluster cluster = new RiakCluster.Builder(nodeBuilder.build())
+                .withNodeManager(nodeManager)
+                .withHedgedReads(20, 100)
+                .build();
+        Whitebox.setInternalState(cluster, "state", RiakCluster.State.RUNNING);
+
+        HedgeableOperation operation = new HedgeableOperation();
+        RiakFuture<String, Void> future = cluster.execute(operation);
+
+        LinkedBlockingQueue<FutureOperation> retryQueue = Whitebox.getInternalState(cluster, "retryQueue");
+        FutureOperation hedge = retryQueue.poll(2, TimeUnit.SECONDS);
+        assertNotNull(hedge);
+        assertNotSame(operation, hedge);
+        assertEquals(1, cluster.getHedgeCount());
+        assertFalse(future.isDone());
+
+        // The hedge answers first
+        hedge.setResponse(new RiakMessage((byte) 0, new byte[0]));
+        hedge.setComplete();
+        assertTrue(future.isDone());
+        assertEquals("value", future.getNow());
+        // The slower original is no longer needed
+        assertTrue(operation.isCancelled());
+        assertFalse(future.isCancelled());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void hedgeIsCancelledWhenOriginalWins() throws Exception
+    {
+        NodeManager nodeManager = mock(NodeManager.class);
+        RiakNode node = mock(RiakNode.class);
+        RiakNode.Builder nodeBuilder = spy(new RiakNode.Builder());
+        doReturn(node).when(nodeBuilder).build();
+        executesOn(nodeManager, node);
+
+        RiakCluster cluster = new RiakCluster.Builder(nodeBuilder.build())
+                .withNodeManager(nodeManager)
+                .withHedgedReads(20, 100)
+                .build();
+        Whitebox.setInternalState(cluster, "state", RiakCluster.State.RUNNING);
+
+        HedgeableOperation operation = new HedgeableOperation();
+        RiakFuture<String, Void> future = cluster.execute(operation);
+
+        LinkedBlockingQueue<FutureOperation> retryQueue = Whitebox.getInternalState(cluster, "retryQueue");
+        FutureOperation hedge = retryQueue.poll(2, TimeUnit.SECONDS);
+        assertNotNull(hedge);
+
+        operation.setResponse(new RiakMessage((byte) 0, new byte[0]));
+        operation.setComplete();
+        assertTrue(future.isDone());
+        assertEquals("value", future.getNow());
+        assertTrue(hedge.isCancelled());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void hedgeWaitsUntilOriginalHasANode() throws Exception
+    {
+        NodeManager nodeManager = mock(NodeManager.class);
+        RiakNode node = mock(RiakNode.class);
+        RiakNode.Builder nodeBuilder = spy(new RiakNode.Builder());
+        doReturn(node).when(nodeBuilder).build();
+        // Accepted, but still waiting for a connection
+        doReturn(true).when(nodeManager).executeOnNode(any(FutureOperation.class), any(RiakNode.class));
+
+        RiakCluster cluster = new RiakCluster.Builder(nodeBuilder.build())
+                .withNodeManager(nodeManager)
+                .withHedgedReads(20, 100)
+                .build();
+        Whitebox.setInternalState(cluster, "state", RiakCluster.State.RUNNING);
+
+        HedgeableOperation operation = new HedgeableOperation();
+        cluster.execute(operation);
+
+        LinkedBlockingQueue<FutureOperation> retryQueue = Whitebox.getInternalState(cluster, "retryQueue");
+        assertNull(retryQueue.poll(200, TimeUnit.MILLISECONDS));
+        assertEquals(0, cluster.getHedgeCount());
+
+        operation.setLastNode(node);
+        FutureOperation hedge = retryQueue.poll(2, TimeUnit.SECONDS);
+        assertNotNull(hedge);
+        assertSame(node, hedge.getLastNode());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void executesOn(NodeManager nodeManager, final RiakNode node)
+    {
+        doAnswer(invocation ->
+        {
+            ((FutureOperation) invocation.getArguments()[0]).setLastNode(node);
+            return true;
+        }).when(nodeManager).executeOnNode(any(FutureOperation.class), any(RiakNode.class));
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     public void nodeOperationQueue() throws Exception
@@ -223,6 +498,81 @@ public class RiakClusterTest
         verify(nodeManager, times(1)).executeOnNode(operation4, null);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void nodeCapacitySignalsQueueDrain() throws Exception
+    {
+        NodeManager nodeManager = mock(NodeManager.class);
+        FutureOperation operation = new FutureOperationImpl();
+        RiakNode node = mock(RiakNode.class);
+        RiakNode.Builder nodeBuilder = spy(new RiakNode.Builder());
+        doReturn(node).when(nodeBuilder).build();
+        doReturn(false).when(nodeManager).executeOnNode(any(FutureOperation.class), isNull(RiakNode.class));
+
+        RiakCluster cluster = new RiakCluster.Builder(nodeBuilder.build())
+                                    .withNodeManager(nodeManager)
+                                    .withOperationQueueMaxDepth(2).build();
+        Whitebox.setInternalState(cluster, "state", RiakCluster.State.RUNNING);
+        ArgumentCaptor<Runnable> capacityListener = ArgumentCaptor.forClass(Runnable.class);
+        verify(node).setCapacityListener(capacityListener.capture());
+
+        cluster.execute(operation);
+        assertQueueStatus(cluster, 1, RiakCluster.State.QUEUING, operation);
+
+        // The node frees a connection
+        Semaphore drainSignal = Whitebox.getInternalState(cluster, "drainSignal");
+        capacityListener.getValue().run();
+        capacityListener.getValue().run();
+        assertEquals(1, drainSignal.availablePermits());
+
+        doReturn(true).when(nodeManager).executeOnNode(any(FutureOperation.class), isNull(RiakNode.class));
+        Whitebox.invokeMethod(cluster, "queueDrainOperation");
+        assertQueueStatus(cluster, 0, RiakCluster.State.RUNNING, null);
+        assertEquals(1, cluster.getQueueWaitHistogram().getCount());
+    }
+
+    @Test
+    public void clusterStartsNodesConcurrently() throws Exception
+    {
+        NodeManager nodeManager = mock(NodeManager.class);
+        RiakNode node1 = mock(RiakNode.class);
+        RiakNode node2 = mock(RiakNode.class);
+        Promise<RiakNode> started1 = new DefaultPromise<>(GlobalEventExecutor.INSTANCE);
+        Promise<RiakNode> started2 = new DefaultPromise<>(GlobalEventExecutor.INSTANCE);
+        doReturn(2).when(node1).getMinConnections();
+        doReturn(2).when(node2).getMinConnections();
+        doReturn(started1).when(node1).startAsync(any(Runnable.class));
+        doReturn(started2).when(node2).startAsync(any(Runnable.class));
+
+        RiakCluster cluster = new RiakCluster.Builder(Arrays.asList(node1, node2))
+                                    .withNodeManager(nodeManager)
+                                    .withStartupReadyPercent(50).build();
+        Future<Boolean> ready = cluster.startAsync();
+
+        // Both nodes are started before either has any connections
+        ArgumentCaptor<Runnable> connectionListener = ArgumentCaptor.forClass(Runnable.class);
+        verify(node1).startAsync(connectionListener.capture());
+        verify(node2).startAsync(any(Runnable.class));
+        assertFalse(ready.isDone());
+
+        connectionListener.getValue().run();
+        assertFalse(ready.isDone());
+        connectionListener.getValue().run();
+        assertTrue(ready.get(1, TimeUnit.SECONDS));
+        assertTrue(cluster.getStartupReadyMillis() >= 0);
+        assertEquals(-1, cluster.getStartupMillis());
+
+        started1.setSuccess(node1);
+        started2.setSuccess(node2);
+        long deadline = System.currentTimeMillis() + 1000;
+        while (cluster.getStartupMillis() < 0 && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(10);
+        }
+        assertTrue(cluster.getStartupMillis() >= 0);
+        cluster.shutdown();
+    }
+
     @Test
     public void testCleanup() throws Exception
     {
@@ -292,4 +642,13 @@ public class RiakClusterTest
             return null;
         }
     }
+
+    private class HedgeableOperation extends FutureOperationImpl
+    {
+        @Override
+        protected FutureOperation<String, Message, Void> createHedge()
+        {
+            return new HedgeableOperation();
+        }
+    }
 }
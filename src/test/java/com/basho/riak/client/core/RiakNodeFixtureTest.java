@@ -27,12 +27,12 @@ import org.powermock.reflect.Whitebox;
 import java.io.IOException;
 import java.net.UnknownHostException;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.EnumSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
@@ -135,7 +135,7 @@ public class RiakNodeFixtureTest extends FixtureTest
             Whitebox.invokeMethod(node, "returnConnection", c);
         }
 
-        LinkedBlockingDeque<?> available = Whitebox.getInternalState(node, "available");
+        Deque<?> available = Whitebox.getInternalState(node, "available");
         assertEquals(available.size(), 12);
 
         Thread.sleep(10000);
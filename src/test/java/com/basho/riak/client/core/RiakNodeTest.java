@@ -18,12 +18,18 @@ package com.basho.riak.client.core;
 import com.basho.riak.client.api.RiakCommand;
 import com.basho.riak.client.api.commands.ListenableFuture;
 import com.basho.riak.client.core.RiakNode.State;
+import com.basho.riak.client.core.netty.RiakResponseException;
 import com.google.protobuf.Message;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelPipeline;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoop;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
 import io.netty.util.concurrent.BlockingOperationException;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -35,17 +41,20 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 import org.powermock.reflect.Whitebox;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
 import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.*;
 
 import static com.jayway.awaitility.Awaitility.await;
 import static com.jayway.awaitility.Awaitility.fieldIn;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
@@ -267,6 +276,58 @@ public class RiakNodeTest
         verify(listener).nodeStateChanged(node, State.HEALTH_CHECKING);
     }
 
+    @Test
+    public void healthCheckIsNotHeldBackByConnectionRamp() throws Exception
+    {
+        ChannelFuture future = mock(ChannelFuture.class);
+        Channel c = mock(Channel.class);
+        Bootstrap bootstrap = PowerMockito.spy(new Bootstrap());
+
+        doReturn(future).when(c).closeFuture();
+        doReturn(true).when(c).isOpen();
+        doReturn(future).when(future).await();
+        doReturn(true).when(future).isSuccess();
+        doReturn(c).when(future).channel();
+
+        doReturn(future).when(bootstrap).connect();
+        doReturn(bootstrap).when(bootstrap).clone();
+
+        RiakNode node = new RiakNode.Builder()
+            .withBootstrap(bootstrap)
+            .withConnectionRamp(1, 1000)
+            .build();
+
+        // A warm-up connect holds the only permit
+        Semaphore connectPermits = Whitebox.getInternalState(node, "connectPermits");
+        connectPermits.acquire();
+
+        try
+        {
+            Whitebox.invokeMethod(node, "doGetConnection", false, false);
+            fail("Expected the connect to be refused");
+        }
+        catch (ConnectionFailedException ex)
+        {
+            // expected
+        }
+
+        assertSame(c, Whitebox.invokeMethod(node, "doGetConnection", false, true));
+        assertEquals(0, connectPermits.availablePermits());
+    }
+
+    @Test
+    public void onlyKnownOverloadErrorsCountAgainstTheNode()
+    {
+        assertTrue(RiakNode.isOverloadError(new RiakResponseException(0, "overload")));
+        assertTrue(RiakNode.isOverloadError(new RiakResponseException(0, "timeout")));
+
+        assertFalse(RiakNode.isOverloadError(new RiakResponseException(0, "notfound")));
+        assertFalse(RiakNode.isOverloadError(new RiakResponseException(0, "modified")));
+        assertFalse(RiakNode.isOverloadError(new RiakResponseException(0, "Bucket type timeout_bucket is not active")));
+        assertFalse(RiakNode.isOverloadError(new RiakResponseException(0, "Overload handling disabled")));
+        assertFalse(RiakNode.isOverloadError(new RiakResponseException(0, null)));
+    }
+
     @Test
     public void idleReaperTest() throws Exception
     {
@@ -309,6 +370,100 @@ public class RiakNodeTest
         assertEquals(1, available.size());
     }
 
+    @Test
+    public void pooledChannelOfCallingEventLoopIsPreferred() throws Exception
+    {
+        DefaultEventLoopGroup group = new DefaultEventLoopGroup(2);
+        try
+        {
+            EventLoop own = group.next();
+            EventLoop other = group.next();
+            assertNotSame(own, other);
+
+            final RiakNode node = new RiakNode.Builder().build();
+            Channel first = pooledChannel(node, other);
+            pooledChannel(node, other);
+            Channel mine = pooledChannel(node, own);
+            pooledChannel(node, other);
+
+            Channel polled = own.submit(new Callable<Channel>()
+            {
+                @Override
+                public Channel call() throws Exception
+                {
+                    return pollAvailable(node);
+                }
+            }).get();
+            assertSame(mine, polled);
+            Deque<?> available = Whitebox.getInternalState(node, "available");
+            assertEquals(3, available.size());
+
+            // Off the event loops the head of the pool is taken
+            assertSame(first, pollAvailable(node));
+        }
+        finally
+        {
+            group.shutdownGracefully();
+        }
+    }
+
+    @Test
+    public void eventLoopAffinityOnlyScansHeadOfPool() throws Exception
+    {
+        DefaultEventLoopGroup group = new DefaultEventLoopGroup(2);
+        try
+        {
+            EventLoop own = group.next();
+            EventLoop other = group.next();
+
+            final RiakNode node = new RiakNode.Builder().build();
+            Channel first = pooledChannel(node, other);
+            for (int i = 0; i < 8; i++)
+            {
+                pooledChannel(node, other);
+            }
+            pooledChannel(node, own);
+
+            Channel polled = own.submit(new Callable<Channel>()
+            {
+                @Override
+                public Channel call() throws Exception
+                {
+                    return pollAvailable(node);
+                }
+            }).get();
+            assertSame(first, polled);
+        }
+        finally
+        {
+            group.shutdownGracefully();
+        }
+    }
+
+    /**
+     * Adds a mocked open channel on the given event loop to the tail of the pool.
+     */
+    @SuppressWarnings("unchecked")
+    private static Channel pooledChannel(RiakNode node, EventLoop loop) throws Exception
+    {
+        Channel channel = mock(Channel.class);
+        doReturn(loop).when(channel).eventLoop();
+        doReturn(true).when(channel).isOpen();
+
+        Class<?> type = Class.forName(RiakNode.class.getName() + "$ChannelWithIdleTime");
+        Constructor<?> constructor = type.getDeclaredConstructor(RiakNode.class, Channel.class);
+        constructor.setAccessible(true);
+        Deque<Object> available = Whitebox.getInternalState(node, "available");
+        available.offerLast(constructor.newInstance(node, channel));
+        return channel;
+    }
+
+    private static Channel pollAvailable(RiakNode node) throws Exception
+    {
+        Object cwi = Whitebox.invokeMethod(node, "pollAvailable");
+        return Whitebox.invokeMethod(cwi, "getChannel");
+    }
+
     @Test
     public void closedConnectionsOnReturnTest() throws Exception
     {
@@ -533,6 +688,186 @@ public class RiakNodeTest
                .until(fieldIn(operation).ofType(Throwable.class).andWithName("exception"), equalTo(t));
     }
 
+    @Test
+    public void nodePipelinesOperationsOnOneChannel() throws InterruptedException, UnknownHostException
+    {
+        Channel channel = mock(Channel.class);
+        ChannelPipeline channelPipeline = mock(ChannelPipeline.class);
+        ChannelFuture future = mock(ChannelFuture.class);
+        FutureOperation first = PowerMockito.spy(new FutureOperationImpl());
+        FutureOperation second = PowerMockito.spy(new FutureOperationImpl());
+        RiakMessage response = PowerMockito.mock(RiakMessage.class);
+        Bootstrap bootstrap = PowerMockito.spy(new Bootstrap());
+
+        doReturn(future).when(channel).closeFuture();
+        doReturn(true).when(channel).isOpen();
+        doReturn(channelPipeline).when(channel).pipeline();
+        doReturn(future).when(channel).writeAndFlush(any());
+        doReturn(future).when(future).await();
+        doReturn(true).when(future).isSuccess();
+        doReturn(channel).when(future).channel();
+        doReturn(future).when(bootstrap).connect();
+        doReturn(bootstrap).when(bootstrap).clone();
+
+        RiakNode node = new RiakNode.Builder()
+                            .withBootstrap(bootstrap)
+                            .withPipelineDepth(2)
+                            .build();
+        node.start();
+        Deque<?> available = Whitebox.getInternalState(node, "available");
+        int availableBefore = available.size();
+
+        assertTrue(node.execute(first));
+        assertTrue(node.execute(second));
+        verify(channel).writeAndFlush(first);
+        verify(channel).writeAndFlush(second);
+        assertEquals(2, node.getNumInProgress());
+        assertEquals(availableBefore - 1, available.size());
+
+        node.onSuccess(channel, response);
+        assertTrue(first.isDone());
+        assertFalse(second.isDone());
+        assertEquals(1, node.getNumInProgress());
+
+        node.onSuccess(channel, response);
+        assertTrue(second.isDone());
+        assertEquals(0, node.getNumInProgress());
+        assertEquals(availableBefore, available.size());
+    }
+
+    @Test
+    public void nodeFailsAllPipelinedOperations() throws InterruptedException, UnknownHostException
+    {
+        Channel channel = mock(Channel.class);
+        ChannelPipeline channelPipeline = mock(ChannelPipeline.class);
+        ChannelFuture future = mock(ChannelFuture.class);
+        FutureOperation first = PowerMockito.spy(new FutureOperationImpl());
+        FutureOperation second = PowerMockito.spy(new FutureOperationImpl());
+        Throwable t = mock(Throwable.class);
+        Bootstrap bootstrap = PowerMockito.spy(new Bootstrap());
+
+        doReturn(future).when(channel).closeFuture();
+        doReturn(true).when(channel).isOpen();
+        doReturn(channelPipeline).when(channel).pipeline();
+        doReturn(future).when(channel).writeAndFlush(any());
+        doReturn(future).when(future).await();
+        doReturn(true).when(future).isSuccess();
+        doReturn(channel).when(future).channel();
+        doReturn(future).when(bootstrap).connect();
+        doReturn(bootstrap).when(bootstrap).clone();
+
+        RiakNode node = new RiakNode.Builder()
+                            .withBootstrap(bootstrap)
+                            .withPipelineDepth(2)
+                            .build();
+        node.start();
+        assertTrue(node.execute(first));
+        assertTrue(node.execute(second));
+
+        node.onException(channel, t);
+        assertEquals(0, node.getNumInProgress());
+        await().atMost(500, TimeUnit.MILLISECONDS)
+               .until(fieldIn(first).ofType(Throwable.class).andWithName("exception"), equalTo(t));
+        await().atMost(500, TimeUnit.MILLISECONDS)
+               .until(fieldIn(second).ofType(Throwable.class).andWithName("exception"), equalTo(t));
+    }
+
+    @Test
+    public void nodeQueuesOperationUntilConnectionReturned() throws InterruptedException, UnknownHostException
+    {
+        Channel channel = mock(Channel.class);
+        ChannelPipeline channelPipeline = mock(ChannelPipeline.class);
+        ChannelFuture future = mock(ChannelFuture.class);
+        FutureOperation first = PowerMockito.spy(new FutureOperationImpl());
+        FutureOperation second = PowerMockito.spy(new FutureOperationImpl());
+        RiakMessage response = PowerMockito.mock(RiakMessage.class);
+        Bootstrap bootstrap = PowerMockito.spy(new Bootstrap());
+
+        doReturn(future).when(channel).closeFuture();
+        doReturn(true).when(channel).isOpen();
+        doReturn(channelPipeline).when(channel).pipeline();
+        doReturn(future).when(channel).writeAndFlush(any());
+        doReturn(future).when(future).await();
+        doReturn(true).when(future).isSuccess();
+        doReturn(channel).when(future).channel();
+        doReturn(future).when(bootstrap).connect();
+        doReturn(bootstrap).when(bootstrap).clone();
+
+        RiakNode node = new RiakNode.Builder()
+                            .withBootstrap(bootstrap)
+                            .withMaxConnections(1)
+                            .withBlockOnMaxConnections(true)
+                            .withAsyncConnectionAcquisition(true)
+                            .build();
+        node.start();
+
+        assertTrue(node.execute(first));
+        verify(channel).writeAndFlush(first);
+
+        // No permits left; the second operation waits rather than blocking this thread
+        assertTrue(node.execute(second));
+        verify(channel, never()).writeAndFlush(second);
+        Queue<?> pendingAcquires = Whitebox.getInternalState(node, "pendingAcquires");
+        assertEquals(1, pendingAcquires.size());
+
+        node.onSuccess(channel, response);
+        assertTrue(first.isDone());
+        verify(channel).writeAndFlush(second);
+        assertEquals(0, pendingAcquires.size());
+        assertEquals(1, node.getNumInProgress());
+    }
+
+    @Test
+    public void nodeFailsOperationPastDeadline() throws Exception
+    {
+        Channel channel = mock(Channel.class);
+        ChannelPipeline channelPipeline = mock(ChannelPipeline.class);
+        ChannelFuture future = mock(ChannelFuture.class);
+        EventLoop eventLoop = mock(EventLoop.class);
+        Timer timer = mock(Timer.class);
+        FutureOperation operation = PowerMockito.spy(new FutureOperationImpl());
+        Bootstrap bootstrap = PowerMockito.spy(new Bootstrap());
+
+        doReturn(future).when(channel).closeFuture();
+        doReturn(true).when(channel).isOpen();
+        doReturn(channelPipeline).when(channel).pipeline();
+        doReturn(eventLoop).when(channel).eventLoop();
+        doReturn(future).when(channel).writeAndFlush(operation);
+        doReturn(future).when(future).await();
+        doReturn(true).when(future).isSuccess();
+        doReturn(channel).when(future).channel();
+        doReturn(future).when(bootstrap).connect();
+        doReturn(bootstrap).when(bootstrap).clone();
+        doAnswer(new Answer<Void>()
+        {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable
+            {
+                ((Runnable) invocation.getArguments()[0]).run();
+                return null;
+            }
+        }).when(eventLoop).execute(any(Runnable.class));
+
+        RiakNode node = new RiakNode.Builder()
+                            .withBootstrap(bootstrap)
+                            .withOperationDeadline(100)
+                            .build();
+        node.setTimer(timer);
+        node.start();
+        assertTrue(node.execute(operation));
+        assertEquals(1, node.getNumInProgress());
+
+        ArgumentCaptor<TimerTask> captor = ArgumentCaptor.forClass(TimerTask.class);
+        verify(timer).newTimeout(captor.capture(), eq(100L), eq(TimeUnit.MILLISECONDS));
+        captor.getValue().run(mock(Timeout.class));
+
+        assertEquals(0, node.getNumInProgress());
+        verify(channel).close();
+        await().atMost(500, TimeUnit.MILLISECONDS)
+               .until(fieldIn(operation).ofType(Throwable.class).andWithName("exception"),
+                      instanceOf(TimeoutException.class));
+    }
+
     @Test(expected = UnknownHostException.class)
     public void failsResolvingHostname() throws UnknownHostException
     {
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StreamingResultsQueueTest
+{
+    private StreamingResultsQueue<Integer> queue;
+    private List<Boolean> crossings;
+
+    @Before
+    public void setUp()
+    {
+        queue = new StreamingResultsQueue<>();
+        crossings = new ArrayList<>();
+        queue.setWatermarkListener(crossings::add);
+    }
+
+    @Test
+    public void readingPausesAtHighWatermarkAndResumesAtLow()
+    {
+        queue.setWatermarks(1, 3);
+
+        queue.offer(1);
+        queue.offer(2);
+        assertTrue(crossings.isEmpty());
+        queue.offer(3);
+        queue.offer(4);
+        assertEquals(Arrays.asList(true), crossings);
+
+        queue.poll();
+        queue.poll();
+        assertEquals(Arrays.asList(true), crossings);
+        queue.poll();
+        assertEquals(Arrays.asList(true, false), crossings);
+
+        queue.clear();
+        queue.offer(5);
+        assertEquals(Arrays.asList(true, false), crossings);
+    }
+
+    @Test
+    public void everyRemovalIsCounted()
+    {
+        queue.setWatermarks(1, 3);
+        queue.addAll(Arrays.asList(1, 2, 3, 4, 5));
+        assertTrue(queue.isAboveHighWatermark());
+
+        assertTrue(queue.remove(Integer.valueOf(3)));
+        assertFalse(queue.remove(Integer.valueOf(3)));
+        Iterator<Integer> it = queue.iterator();
+        it.next();
+        it.remove();
+        assertTrue(queue.isAboveHighWatermark());
+
+        List<Integer> drained = new ArrayList<>();
+        queue.drainTo(drained, 2);
+        assertEquals(Arrays.asList(2, 4), drained);
+        assertFalse(queue.isAboveHighWatermark());
+        assertEquals(Arrays.asList(true, false), crossings);
+
+        // Back in step with what's queued
+        queue.offer(6);
+        queue.offer(7);
+        assertEquals(Arrays.asList(true, false, true), crossings);
+    }
+
+    @Test
+    public void noWatermarksByDefault()
+    {
+        for (int i = 0; i < 1000; i++)
+        {
+            queue.offer(i);
+        }
+        assertTrue(crossings.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void lowWatermarkMustBeBelowHigh()
+    {
+        queue.setWatermarks(3, 3);
+    }
+
+    @Test(timeout = 5000)
+    public void closeWakesWaitingConsumer() throws InterruptedException
+    {
+        queue.offer(1);
+        Thread producer = new Thread(() ->
+        {
+            try
+            {
+                Thread.sleep(100);
+            }
+            catch (InterruptedException ignored)
+            {
+            }
+            queue.offer(2);
+            queue.close();
+        });
+        producer.start();
+
+        assertEquals(1, queue.takeUnlessClosed().intValue());
+        assertEquals(2, queue.takeUnlessClosed().intValue());
+        assertNull(queue.takeUnlessClosed());
+        assertTrue(queue.isClosed());
+        producer.join();
+    }
+
+    @Test(expected = InterruptedException.class)
+    public void interruptedWhileWaiting() throws InterruptedException
+    {
+        Thread.currentThread().interrupt();
+        queue.takeUnlessClosed();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.core.netty;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class RiakFlushConsolidationHandlerTest
+{
+    private static class FlushCounter extends ChannelOutboundHandlerAdapter
+    {
+        int flushes;
+
+        @Override
+        public void flush(ChannelHandlerContext ctx) throws Exception
+        {
+            flushes++;
+            ctx.flush();
+        }
+    }
+
+    @Test
+    public void flushesInOneTickAreConsolidated()
+    {
+        FlushCounter counter = new FlushCounter();
+        EmbeddedChannel channel = new EmbeddedChannel(counter, new RiakFlushConsolidationHandler(10));
+
+        channel.writeAndFlush("one");
+        channel.writeAndFlush("two");
+        channel.writeAndFlush("three");
+        assertEquals(0, counter.flushes);
+
+        channel.runPendingTasks();
+        assertEquals(1, counter.flushes);
+        assertEquals(3, channel.outboundMessages().size());
+        channel.finish();
+    }
+
+    @Test
+    public void flushIsForcedAtMaxPending()
+    {
+        FlushCounter counter = new FlushCounter();
+        EmbeddedChannel channel = new EmbeddedChannel(counter, new RiakFlushConsolidationHandler(2));
+
+        channel.writeAndFlush("one");
+        assertEquals(0, counter.flushes);
+        channel.writeAndFlush("two");
+        assertEquals(1, counter.flushes);
+
+        // Nothing left pending for the scheduled task to flush
+        channel.runPendingTasks();
+        assertEquals(1, counter.flushes);
+        channel.finish();
+    }
+
+    @Test
+    public void flushIsDeferredUntilReadComplete()
+    {
+        FlushCounter counter = new FlushCounter();
+        final RiakFlushConsolidationHandler handler = new RiakFlushConsolidationHandler(10);
+        EmbeddedChannel channel = new EmbeddedChannel(counter, handler);
+
+        channel.pipeline().fireChannelRead("response");
+        channel.writeAndFlush("followUp");
+        channel.runPendingTasks();
+        assertEquals(0, counter.flushes);
+
+        channel.pipeline().fireChannelReadComplete();
+        assertEquals(1, counter.flushes);
+        channel.finish();
+    }
+}
@@ -16,17 +16,29 @@
 package com.basho.riak.client.core.netty;
 
 import com.basho.riak.client.core.RiakMessage;
+import com.basho.riak.protobuf.RiakKvPB;
+import com.basho.riak.protobuf.RiakMessageCodes;
+import com.ericsson.otp.erlang.OtpExternal;
+import com.ericsson.otp.erlang.OtpOutputStream;
+import com.google.protobuf.ByteString;
+import com.basho.riak.client.core.RiakResponseListener;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PoolArenaMetric;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.ResourceLeakDetector;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import org.junit.Before;
 import org.junit.Test;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
 import org.powermock.reflect.Whitebox;
 
@@ -87,4 +99,159 @@ public class RiakMessageCodecTest
         assertEquals(code, message.getCode());
         assertArrayEquals(data, message.getData());
     }
+
+    @Test
+    public void encodesProtobufDirectlyIntoHeapAndDirectBuffers() throws Exception
+    {
+        RiakKvPB.RpbGetReq req = RiakKvPB.RpbGetReq.newBuilder()
+            .setBucket(ByteString.copyFromUtf8("bucket"))
+            .setKey(ByteString.copyFromUtf8("key"))
+            .build();
+        RiakMessage pbMessage = new RiakMessage(RiakMessageCodes.MSG_GetReq, req);
+        RiakMessageCodec codec = new RiakMessageCodec();
+
+        for (ByteBuf out : Arrays.asList(Unpooled.buffer(), Unpooled.directBuffer()))
+        {
+            Whitebox.invokeMethod(codec, "encode", mockContext, pbMessage, out);
+
+            assertEquals(req.getSerializedSize() + SIZE_LENGTH + SIZE_CODE, out.readableBytes());
+            assertEquals(req.getSerializedSize() + SIZE_CODE, out.readInt());
+            assertEquals(RiakMessageCodes.MSG_GetReq, out.readByte());
+
+            byte[] encodedData = new byte[out.readableBytes()];
+            out.readBytes(encodedData);
+            assertArrayEquals(req.toByteArray(), encodedData);
+            out.release();
+        }
+    }
+
+    @Test
+    public void encodesTtbStream() throws Exception
+    {
+        OtpOutputStream os = new OtpOutputStream();
+        os.write(OtpExternal.versionTag);
+        os.write_atom("tsgetreq");
+        RiakMessage ttbMessage = new RiakMessage(RiakMessageCodes.MSG_TsTtbMsg, os);
+
+        ByteBuf out = Unpooled.directBuffer();
+        Whitebox.invokeMethod(new RiakMessageCodec(), "encode", mockContext, ttbMessage, out);
+
+        assertEquals(os.size() + SIZE_CODE, out.readInt());
+        assertEquals(RiakMessageCodes.MSG_TsTtbMsg, out.readByte());
+        byte[] encodedData = new byte[out.readableBytes()];
+        out.readBytes(encodedData);
+        assertArrayEquals(os.toByteArray(), encodedData);
+        out.release();
+    }
+
+    @Test
+    public void zeroCopyDecodeRetainsSliceUntilReleased() throws Exception
+    {
+        ByteBuf pooled = PooledByteBufAllocator.DEFAULT.heapBuffer();
+        pooled.writeBytes(buffer);
+        buffer.release();
+
+        RiakMessageCodec codec = new RiakMessageCodec(true);
+        List<Object> outList = new ArrayList<>();
+        Whitebox.invokeMethod(codec, "decode", mockContext, pooled, outList);
+        RiakMessage message = (RiakMessage) outList.get(0);
+
+        assertEquals(code, message.getCode());
+        assertEquals(SIZE_DATA, message.getDataLength());
+        assertFalse(pooled.isReadable());
+
+        // The frame is a retained slice of the read buffer, so releasing
+        // the read buffer alone must not free the payload.
+        pooled.release();
+        assertEquals(1, pooled.refCnt());
+        assertArrayEquals(data, message.getData());
+
+        assertTrue(message.release());
+        assertEquals(0, pooled.refCnt());
+        assertFalse(message.release());
+    }
+
+    @Test
+    public void zeroCopyDecodeCopiesDirectFramesToHeapOnce() throws Exception
+    {
+        ByteBuf direct = PooledByteBufAllocator.DEFAULT.directBuffer();
+        direct.writeBytes(buffer);
+        buffer.release();
+        doReturn(PooledByteBufAllocator.DEFAULT).when(mockContext).alloc();
+
+        RiakMessageCodec codec = new RiakMessageCodec(true);
+        List<Object> outList = new ArrayList<>();
+        Whitebox.invokeMethod(codec, "decode", mockContext, direct, outList);
+        RiakMessage message = (RiakMessage) outList.get(0);
+
+        // The read buffer can be released straight away
+        assertTrue(direct.release());
+        ByteBuf frame = Whitebox.getInternalState(message, "dataBuffer");
+        assertTrue(frame.hasArray());
+        assertArrayEquals(data, message.getData());
+        assertTrue(message.release());
+    }
+
+    @Test
+    public void zeroCopyResponsesAreNotLeaked() throws Exception
+    {
+        ResourceLeakDetector.Level level = ResourceLeakDetector.getLevel();
+        ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.PARANOID);
+        try
+        {
+            // No thread caches, so every buffer that isn't released shows
+            // up as an active allocation in its arena.
+            PooledByteBufAllocator allocator = new PooledByteBufAllocator(true, 1, 1, 8192, 11, 0, 0, 0);
+            doReturn(allocator).when(mockContext).alloc();
+
+            byte[] value = new byte[64 * 1024];
+            Arrays.fill(value, (byte) 7);
+            RiakKvPB.RpbGetResp resp = RiakKvPB.RpbGetResp.newBuilder()
+                .addContent(RiakKvPB.RpbContent.newBuilder().setValue(ByteString.copyFrom(value)))
+                .build();
+            RiakMessageCodec codec = new RiakMessageCodec(true);
+
+            for (ByteBuf in : Arrays.asList(allocator.directBuffer(), allocator.heapBuffer()))
+            {
+                Whitebox.invokeMethod(codec, "encode", mockContext,
+                                      new RiakMessage(RiakMessageCodes.MSG_GetResp, resp), in);
+
+                final List<RiakKvPB.RpbGetResp> parsed = new ArrayList<>();
+                RiakResponseListener listener = mock(RiakResponseListener.class);
+                doAnswer(invocation ->
+                {
+                    RiakMessage message = (RiakMessage) invocation.getArguments()[1];
+                    parsed.add(RiakKvPB.RpbGetResp.parseFrom(message.getDataInputStream()));
+                    return null;
+                }).when(listener).onSuccess(any(Channel.class), any(RiakMessage.class));
+
+                List<Object> outList = new ArrayList<>();
+                Whitebox.invokeMethod(codec, "decode", mockContext, in, outList);
+                in.release();
+                new RiakResponseHandler(listener).channelRead(mockContext, outList.get(0));
+
+                assertEquals(1, parsed.size());
+                assertArrayEquals(value, parsed.get(0).getContent(0).getValue().toByteArray());
+                assertEquals("Leaked buffers", 0, activeAllocations(allocator));
+            }
+        }
+        finally
+        {
+            ResourceLeakDetector.setLevel(level);
+        }
+    }
+
+    private static long activeAllocations(PooledByteBufAllocator allocator)
+    {
+        long active = 0;
+        for (PoolArenaMetric arena : allocator.heapArenas())
+        {
+            active += arena.numActiveAllocations();
+        }
+        for (PoolArenaMetric arena : allocator.directArenas())
+        {
+            active += arena.numActiveAllocations();
+        }
+        return active;
+    }
 }
@@ -17,10 +17,13 @@ package com.basho.riak.client.core.netty;
 
 import com.basho.riak.client.core.RiakMessage;
 import com.basho.riak.client.core.RiakResponseListener;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPipeline;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -80,4 +83,33 @@ public class RiakResponseHandlerTest
 
         verify(mockListener).onSuccess(mockChannel, message);
     }
+
+    @Test
+    public void releasesMessageAfterListenerIsNotified() throws Exception
+    {
+        ByteBuf payload = Unpooled.buffer().writeBytes(new byte[] {1, 2, 3});
+        RiakMessage message = new RiakMessage((byte)10, payload);
+        handler.channelRead(mockContext, message);
+
+        verify(mockListener).onSuccess(mockChannel, message);
+        assertEquals(0, payload.refCnt());
+    }
+
+    @Test
+    public void releasesMessageWhenListenerThrows() throws Exception
+    {
+        ByteBuf payload = Unpooled.buffer().writeBytes(new byte[] {1, 2, 3});
+        RiakMessage message = new RiakMessage((byte)10, payload);
+        doThrow(new IllegalStateException()).when(mockListener).onSuccess(mockChannel, message);
+
+        try
+        {
+            handler.channelRead(mockContext, message);
+            fail("Expected IllegalStateException");
+        }
+        catch (IllegalStateException ex)
+        {
+            assertEquals(0, payload.refCnt());
+        }
+    }
 }
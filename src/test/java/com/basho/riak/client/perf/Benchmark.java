@@ -0,0 +1,206 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.perf;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A minimal timed harness for the micro benchmarks in this package.
+ * <p>
+ * Each benchmark is a class with a {@code main} method; none of them are run
+ * by the unit tests. Run one once the test classes are compiled with
+ * </p>
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.basho.riak.client.perf.DecodeBenchmark
+ * </pre>
+ * <p>
+ * An operation is called in a loop on the given number of threads, first for
+ * a warmup period and then for a number of measured rounds. The throughput of
+ * every round is printed so noisy runs stand out. Results of the operation are
+ * folded into a sink so the JIT can't discard the work.
+ * </p>
+ * <p>
+ * Where the JVM can report it, the bytes allocated per operation by the
+ * calling threads are printed as well. Allocations made on Netty's I/O
+ * threads on an operation's behalf are not included.
+ * </p>
+ * @since 2.1.2
+ */
+public final class Benchmark
+{
+    /**
+     * The code being measured.
+     */
+    public interface Op
+    {
+        /**
+         * Performs one operation.
+         * @param thread the index of the calling thread, from 0.
+         * @return anything derived from the work done.
+         * @throws Exception if the operation fails; the benchmark is aborted.
+         */
+        Object run(int thread) throws Exception;
+    }
+
+    private static final long WARMUP_MILLIS = Long.getLong("benchmark.warmup", 2000);
+    private static final long ROUND_MILLIS = Long.getLong("benchmark.round", 1000);
+    private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 5);
+
+    private static final com.sun.management.ThreadMXBean ALLOCATION = allocationBean();
+
+    private static volatile int sink;
+
+    private Benchmark()
+    {
+    }
+
+    /**
+     * Measures an operation and prints its throughput.
+     * @param name the name printed with the results.
+     * @param threads the number of threads calling the operation concurrently.
+     * @param op the operation.
+     * @return the median throughput, in operations per second.
+     * @throws Exception if the operation fails.
+     */
+    public static double run(String name, int threads, Op op) throws Exception
+    {
+        measure(threads, op, WARMUP_MILLIS, new long[2]);
+        List<Double> rounds = new ArrayList<>(ROUNDS);
+        // Operations and bytes allocated over all rounds
+        long[] totals = new long[2];
+        for (int i = 0; i < ROUNDS; i++)
+        {
+            rounds.add(measure(threads, op, ROUND_MILLIS, totals));
+        }
+        List<Double> sorted = new ArrayList<>(rounds);
+        sorted.sort(null);
+        double median = sorted.get(sorted.size() / 2);
+        String allocated = ALLOCATION == null ? "" : String.format(" %,10.1f B/op", (double) totals[1] / totals[0]);
+        System.out.printf("%-48s %3d thread(s) %,14.0f ops/s %,10.1f ns/op%s  rounds %s%n",
+                          name, threads, median, threads * 1e9 / median, allocated, format(rounds));
+        return median;
+    }
+
+    private static double measure(final int threads, final Op op, final long millis, long[] totals)
+        throws Exception
+    {
+        final CountDownLatch start = new CountDownLatch(1);
+        final long[] counts = new long[threads];
+        final long[] allocated = new long[threads];
+        final Exception[] failures = new Exception[threads];
+        final long[] deadline = new long[1];
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++)
+        {
+            final int index = t;
+            Thread worker = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    int local = 0;
+                    long count = 0;
+                    try
+                    {
+                        start.await();
+                        final long allocatedBefore = allocatedBytes();
+                        final long end = deadline[0];
+                        do
+                        {
+                            // Checking the clock every 64 operations keeps
+                            // it out of the measurement of cheap operations.
+                            for (int i = 0; i < 64; i++)
+                            {
+                                Object result = op.run(index);
+                                local += result == null ? 0 : result.hashCode();
+                            }
+                            count += 64;
+                        }
+                        while (System.nanoTime() - end < 0);
+                        allocated[index] = allocatedBytes() - allocatedBefore;
+                    }
+                    catch (Exception e)
+                    {
+                        failures[index] = e;
+                    }
+                    counts[index] = count;
+                    sink += local;
+                }
+            }, "benchmark-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+
+        long begin = System.nanoTime();
+        deadline[0] = begin + TimeUnit.MILLISECONDS.toNanos(millis);
+        start.countDown();
+        for (Thread worker : workers)
+        {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        long total = 0;
+        for (int t = 0; t < threads; t++)
+        {
+            if (failures[t] != null)
+            {
+                throw failures[t];
+            }
+            total += counts[t];
+            totals[1] += allocated[t];
+        }
+        totals[0] += total;
+        return total * 1e9 / elapsed;
+    }
+
+    private static long allocatedBytes()
+    {
+        return ALLOCATION == null ? 0 : ALLOCATION.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean()
+    {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+            && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported())
+        {
+            com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) bean;
+            allocation.setThreadAllocatedMemoryEnabled(true);
+            return allocation;
+        }
+        return null;
+    }
+
+    private static String format(List<Double> rounds)
+    {
+        StringBuilder sb = new StringBuilder("[");
+        for (Double round : rounds)
+        {
+            if (sb.length() > 1)
+            {
+                sb.append(", ");
+            }
+            sb.append(String.format("%,.0f", round));
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.perf;
+
+import com.basho.riak.client.core.RiakMessage;
+import com.basho.riak.client.core.netty.RiakMessageCodec;
+import com.basho.riak.protobuf.RiakKvPB;
+import com.basho.riak.protobuf.RiakMessageCodes;
+import com.google.protobuf.ByteString;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+/**
+ * Decodes and parses fetch responses read into pooled direct and heap
+ * buffers, with and without zero-copy decoding.
+ * <p>
+ * Run with {@code -verbose:gc} or a profiler to compare the garbage created,
+ * which is what zero-copy decoding mostly saves.
+ * </p>
+ * @see Benchmark
+ * @since 2.1.2
+ */
+public class DecodeBenchmark
+{
+    public static void main(String[] args) throws Exception
+    {
+        for (int size : new int[] { 1024, 64 * 1024, 1024 * 1024 })
+        {
+            for (boolean direct : new boolean[] { true, false })
+            {
+                for (boolean zeroCopy : new boolean[] { false, true })
+                {
+                    final ByteBuf frame = frame(size, direct);
+                    final EmbeddedChannel channel = new EmbeddedChannel(new RiakMessageCodec(zeroCopy));
+                    Benchmark.run(String.format("%s %dB %s", zeroCopy ? "zero-copy" : "copy",
+                                                size, direct ? "direct" : "heap"),
+                                  1, new Benchmark.Op()
+                    {
+                        @Override
+                        public Object run(int thread) throws Exception
+                        {
+                            channel.writeInbound(frame.retainedDuplicate());
+                            RiakMessage message = channel.readInbound();
+                            try
+                            {
+                                return RiakKvPB.RpbGetResp.parseFrom(message.getDataInputStream());
+                            }
+                            finally
+                            {
+                                message.release();
+                            }
+                        }
+                    });
+                    channel.finish();
+                    frame.release();
+                }
+            }
+        }
+    }
+
+    private static ByteBuf frame(int size, boolean direct)
+    {
+        RiakKvPB.RpbGetResp resp = RiakKvPB.RpbGetResp.newBuilder()
+            .addContent(RiakKvPB.RpbContent.newBuilder().setValue(ByteString.copyFrom(new byte[size])))
+            .build();
+        byte[] payload = resp.toByteArray();
+        ByteBuf frame = direct
+            ? PooledByteBufAllocator.DEFAULT.directBuffer(payload.length + 5)
+            : PooledByteBufAllocator.DEFAULT.heapBuffer(payload.length + 5);
+        frame.writeInt(payload.length + 1);
+        frame.writeByte(RiakMessageCodes.MSG_GetResp);
+        frame.writeBytes(payload);
+        return frame;
+    }
+}
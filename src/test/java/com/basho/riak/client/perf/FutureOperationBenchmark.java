@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.perf;
+
+import com.basho.riak.client.core.RiakFuture;
+import com.basho.riak.client.core.RiakFutureListener;
+import com.basho.riak.client.core.RiakMessage;
+import com.basho.riak.client.core.operations.PingOperation;
+import com.basho.riak.protobuf.RiakMessageCodes;
+
+/**
+ * Takes operations through their whole life cycle without any I/O: writing,
+ * a response, completion and reading the result, with and without a
+ * listener. This is the per-operation overhead of the
+ * {@link com.basho.riak.client.core.FutureOperation} state machine, so its
+ * bytes allocated per operation are the figure to watch.
+ * @see Benchmark
+ * @since 2.1.2
+ */
+public class FutureOperationBenchmark
+{
+    public static void main(String[] args) throws Exception
+    {
+        final RiakMessage response = new RiakMessage(RiakMessageCodes.MSG_PingResp, new byte[0]);
+        final RiakFutureListener<Void, Void> listener = new RiakFutureListener<Void, Void>()
+        {
+            @Override
+            public void handle(RiakFuture<Void, Void> f)
+            {
+            }
+        };
+
+        for (final boolean withListener : new boolean[] { false, true })
+        {
+            Benchmark.run(withListener ? "operation life cycle, one listener" : "operation life cycle",
+                          1, new Benchmark.Op()
+            {
+                @Override
+                public Object run(int thread) throws Exception
+                {
+                    PingOperation operation = new PingOperation();
+                    if (withListener)
+                    {
+                        operation.addListener(listener);
+                    }
+                    operation.channelMessage();
+                    operation.setResponse(response);
+                    operation.setComplete();
+                    operation.get();
+                    return operation;
+                }
+            });
+        }
+    }
+}
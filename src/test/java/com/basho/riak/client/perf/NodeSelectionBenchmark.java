@@ -0,0 +1,124 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.perf;
+
+import com.basho.riak.client.core.DefaultNodeManager;
+import com.basho.riak.client.core.LatencyAwareNodeManager;
+import com.basho.riak.client.core.NodeManager;
+import com.basho.riak.client.core.RiakCluster;
+import com.basho.riak.client.core.RiakNode;
+import com.basho.riak.client.core.operations.PingOperation;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pings loopback {@link PingServer}s through a cluster of three nodes, to
+ * compare the cost of choosing a node with each {@link NodeManager}, and how
+ * well each avoids a node that answers slowly.
+ * <p>
+ * Runs from 1 and 16 threads. In the slow node cases one of the three
+ * nodes delays every response by half a millisecond; routing fewer
+ * operations to it shows up as higher throughput. In the churn cases
+ * another thread moves one node between the healthy and unhealthy lists
+ * every millisecond, as health checks do, while operations are routed.
+ * </p>
+ * @see Benchmark
+ * @since 2.1.2
+ */
+public class NodeSelectionBenchmark
+{
+    private static final long SLOW_MICROS = 500;
+
+    public static void main(String[] args) throws Exception
+    {
+        try (PingServer server = new PingServer(); PingServer slow = new PingServer(SLOW_MICROS))
+        {
+            run(new DefaultNodeManager(), false, server, server, server);
+            run(new DefaultNodeManager(), true, server, server, server);
+            run(new LatencyAwareNodeManager(), false, server, server, server);
+            run(new LatencyAwareNodeManager(), true, server, server, server);
+            run(new DefaultNodeManager(), false, server, server, slow);
+            run(new LatencyAwareNodeManager(), false, server, server, slow);
+        }
+    }
+
+    private static void run(final NodeManager nodeManager, boolean churn, PingServer... servers)
+        throws Exception
+    {
+        List<RiakNode> nodes = new ArrayList<>();
+        boolean slowNode = false;
+        for (PingServer server : servers)
+        {
+            slowNode |= server.getDelayMicros() > 0;
+            nodes.add(new RiakNode.Builder()
+                          .withRemoteAddress("127.0.0.1")
+                          .withRemotePort(server.getPort())
+                          .withMinConnections(8)
+                          .withMaxConnections(8)
+                          .build());
+        }
+        final RiakCluster cluster = new RiakCluster.Builder(nodes).withNodeManager(nodeManager).build();
+        cluster.start();
+
+        final RiakNode flapping = nodes.get(0);
+        Thread churner = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    for (;;)
+                    {
+                        nodeManager.nodeStateChanged(flapping, RiakNode.State.HEALTH_CHECKING);
+                        Thread.sleep(1);
+                        nodeManager.nodeStateChanged(flapping, RiakNode.State.RUNNING);
+                        Thread.sleep(1);
+                    }
+                }
+                catch (InterruptedException e)
+                {
+                    nodeManager.nodeStateChanged(flapping, RiakNode.State.RUNNING);
+                }
+            }
+        }, "churn");
+        if (churn)
+        {
+            churner.start();
+        }
+
+        for (int threads : new int[] { 1, 16 })
+        {
+            Benchmark.run(nodeManager.getClass().getSimpleName()
+                              + (churn ? " with churn" : "") + (slowNode ? " one slow node" : ""), threads,
+                          new Benchmark.Op()
+            {
+                @Override
+                public Object run(int thread) throws Exception
+                {
+                    return cluster.execute(new PingOperation()).get();
+                }
+            });
+        }
+
+        if (churn)
+        {
+            churner.interrupt();
+            churner.join();
+        }
+        cluster.shutdown().get();
+    }
+}
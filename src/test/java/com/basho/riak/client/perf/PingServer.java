@@ -0,0 +1,112 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.perf;
+
+import com.basho.riak.client.core.RiakMessage;
+import com.basho.riak.client.core.netty.RiakMessageCodec;
+import com.basho.riak.protobuf.RiakMessageCodes;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A loopback server that answers every request with a ping response, so
+ * the client's own overhead can be measured without a Riak node. It can
+ * delay its responses to stand in for a slow node.
+ * @since 2.1.2
+ */
+public class PingServer implements AutoCloseable
+{
+    private final EventLoopGroup group = new NioEventLoopGroup();
+    private final Channel channel;
+    private final long delayMicros;
+
+    public PingServer() throws InterruptedException
+    {
+        this(0);
+    }
+
+    /**
+     * @param delayMicros how long to wait before answering each request.
+     * @throws InterruptedException if interrupted while binding.
+     */
+    public PingServer(final long delayMicros) throws InterruptedException
+    {
+        this.delayMicros = delayMicros;
+        channel = new ServerBootstrap()
+            .group(group)
+            .channel(NioServerSocketChannel.class)
+            .childHandler(new ChannelInitializer<SocketChannel>()
+            {
+                @Override
+                protected void initChannel(SocketChannel ch)
+                {
+                    ch.pipeline().addLast(new RiakMessageCodec());
+                    ch.pipeline().addLast(new SimpleChannelInboundHandler<RiakMessage>()
+                    {
+                        @Override
+                        protected void channelRead0(final ChannelHandlerContext ctx, RiakMessage msg)
+                        {
+                            if (delayMicros == 0)
+                            {
+                                respond(ctx);
+                                return;
+                            }
+                            ctx.executor().schedule(new Runnable()
+                            {
+                                @Override
+                                public void run()
+                                {
+                                    respond(ctx);
+                                }
+                            }, delayMicros, TimeUnit.MICROSECONDS);
+                        }
+                    });
+                }
+            })
+            .bind("127.0.0.1", 0).sync().channel();
+    }
+
+    private static void respond(ChannelHandlerContext ctx)
+    {
+        ctx.writeAndFlush(new RiakMessage(RiakMessageCodes.MSG_PingResp, new byte[0]));
+    }
+
+    public long getDelayMicros()
+    {
+        return delayMicros;
+    }
+
+    public int getPort()
+    {
+        return ((InetSocketAddress) channel.localAddress()).getPort();
+    }
+
+    @Override
+    public void close()
+    {
+        channel.close().syncUninterruptibly();
+        group.shutdownGracefully();
+    }
+}
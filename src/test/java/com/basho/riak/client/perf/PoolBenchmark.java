@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.perf;
+
+import com.basho.riak.client.core.RiakFuture;
+import com.basho.riak.client.core.RiakFutureListener;
+import com.basho.riak.client.core.RiakNode;
+import com.basho.riak.client.core.operations.PingOperation;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Pings a loopback {@link PingServer} through a single {@link RiakNode}
+ * with eight connections, to load its connection pool.
+ * <p>
+ * From 1, 8 and 32 application threads, each operation checks a channel out
+ * of the pool and back in. With 32 threads most of them also contend for
+ * permits. In the chained case each response's listener sends the next ping
+ * from the I/O thread, which is the path the pool's event loop affinity
+ * serves.
+ * </p>
+ * @see Benchmark
+ * @since 2.1.2
+ */
+public class PoolBenchmark
+{
+    private static final int CHAIN_LENGTH = 100;
+
+    public static void main(String[] args) throws Exception
+    {
+        try (PingServer server = new PingServer())
+        {
+            final RiakNode node = new RiakNode.Builder()
+                .withRemoteAddress("127.0.0.1")
+                .withRemotePort(server.getPort())
+                .withMinConnections(8)
+                .withMaxConnections(8)
+                .withBlockOnMaxConnections(true)
+                .build();
+            node.start();
+
+            for (int threads : new int[] { 1, 8, 32 })
+            {
+                Benchmark.run("pool ping", threads, new Benchmark.Op()
+                {
+                    @Override
+                    public Object run(int thread) throws Exception
+                    {
+                        PingOperation ping = new PingOperation();
+                        if (!node.execute(ping))
+                        {
+                            throw new IllegalStateException("No connection");
+                        }
+                        ping.await();
+                        return ping.isSuccess();
+                    }
+                });
+            }
+
+            Benchmark.run("pool ping chained on I/O threads (x" + CHAIN_LENGTH + ")", 8, new Benchmark.Op()
+            {
+                @Override
+                public Object run(int thread) throws Exception
+                {
+                    CountDownLatch done = new CountDownLatch(1);
+                    ping(node, CHAIN_LENGTH, done);
+                    done.await();
+                    return done;
+                }
+            });
+
+            node.shutdown().get();
+        }
+    }
+
+    private static void ping(final RiakNode node, final int remaining, final CountDownLatch done)
+    {
+        PingOperation ping = new PingOperation();
+        ping.addListener(new RiakFutureListener<Void, Void>()
+        {
+            @Override
+            public void handle(RiakFuture<Void, Void> f)
+            {
+                if (remaining > 1 && f.isSuccess())
+                {
+                    ping(node, remaining - 1, done);
+                }
+                else
+                {
+                    done.countDown();
+                }
+            }
+        });
+        if (!node.execute(ping))
+        {
+            done.countDown();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016 Basho Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.basho.riak.client.perf;
+
+import com.basho.riak.client.core.RiakCluster;
+import com.basho.riak.client.core.RiakNode;
+import com.basho.riak.client.core.operations.PingOperation;
+
+/**
+ * Round trips pings to a loopback {@link PingServer} over the NIO and the
+ * native epoll transport, from 1 and 16 threads.
+ * <p>
+ * Loopback latency is much lower than a real network's, so this measures
+ * the client's per-operation cost, which is what the transport changes.
+ * </p>
+ * @see Benchmark
+ * @since 2.1.2
+ */
+public class TransportBenchmark
+{
+    public static void main(String[] args) throws Exception
+    {
+        try (PingServer server = new PingServer())
+        {
+            for (boolean epoll : new boolean[] { false, true })
+            {
+                final RiakCluster cluster = new RiakCluster.Builder(
+                        new RiakNode.Builder()
+                            .withRemoteAddress("127.0.0.1")
+                            .withRemotePort(server.getPort())
+                            .withMinConnections(16)
+                            .withMaxConnections(16)
+                            .build())
+                    .withEpollTransport(epoll)
+                    .build();
+                cluster.start();
+                for (int threads : new int[] { 1, 16 })
+                {
+                    Benchmark.run(epoll ? "epoll ping" : "nio ping", threads, new Benchmark.Op()
+                    {
+                        @Override
+                        public Object run(int thread) throws Exception
+                        {
+                            return cluster.execute(new PingOperation()).get();
+                        }
+                    });
+                }
+                cluster.shutdown().get();
+            }
+        }
+    }
+}